@@ -1,5 +1,7 @@
 package com.authkit.backend.config;
 
+import com.authkit.backend.infrastructure.utils.email.SmtpConnectionFactory;
+import jakarta.mail.Session;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,21 +26,35 @@ public class EmailConfig {
     private String password;
 
     @Bean
-    public JavaMailSender javaMailSender() {
+    public Session mailSession() {
+        Properties props = new Properties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", "true");
+        props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.debug", "true");
+        props.put("mail.smtp.from", "noreply@marcoswiendl.com");
+
+        return Session.getInstance(props);
+    }
+
+    @Bean
+    public JavaMailSender javaMailSender(Session mailSession) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setSession(mailSession);
         mailSender.setHost(host);
         mailSender.setPort(port);
         mailSender.setUsername(username);
         mailSender.setPassword(password);
         mailSender.setDefaultEncoding("UTF-8");
 
-        Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.debug", "true");
-        props.put("mail.smtp.from", "noreply@marcoswiendl.com");
-
         return mailSender;
     }
+
+    /**
+     * Connections for the SMTP pool, to the same relay and account as {@link #javaMailSender}.
+     */
+    @Bean
+    public SmtpConnectionFactory smtpConnectionFactory(Session mailSession) {
+        return SmtpConnectionFactory.of(mailSession, host, port, username, password);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.authkit.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Threads for {@code @Scheduled} work.
+ * <p>
+ * The scheduler pool runs the short periodic tasks (flushes, sweeps, stats). Jobs that can
+ * run for minutes, such as the audit archiver and the cleanups, hand their work to the
+ * {@link #MAINTENANCE_EXECUTOR} with {@code @Async}, so they never hold a scheduler thread
+ * while the short tasks are due.
+ */
+@Configuration
+@EnableAsync
+public class SchedulingConfig {
+
+    public static final String MAINTENANCE_EXECUTOR = "maintenanceExecutor";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+
+    @Bean(name = MAINTENANCE_EXECUTOR)
+    public ThreadPoolTaskExecutor maintenanceExecutor(@Value("${app.scheduling.maintenance-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("maintenance-");
+        // a run that cannot even be queued is skipped; the next trigger tries again
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+}
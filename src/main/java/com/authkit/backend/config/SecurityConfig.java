@@ -1,6 +1,8 @@
 package com.authkit.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,16 +10,24 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.authkit.backend.shared.security.BoundedPasswordEncoder;
 import com.authkit.backend.shared.security.JwtAuthenticationFilter;
+import com.authkit.backend.shared.security.PasswordHashingExecutor;
+import com.authkit.backend.shared.security.Pbkdf2IterationsPasswordEncoder;
 import com.authkit.backend.shared.security.CustomAuthenticationHandler;
 
 @Configuration
@@ -59,6 +69,10 @@ public class SecurityConfig {
                         "/webjars/**",
                         "/api/v1/ping"
                 ).permitAll()
+                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                // async dispatches only finish requests that were authorized on the way in, e.g. SSE streams
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .anyRequest().authenticated()
                 .and()
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -94,8 +108,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            PasswordHashingExecutor passwordHashingExecutor,
+            @Value("${app.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${app.password-hashing.bcrypt-cost:10}") int bcryptCost,
+            @Value("${app.password-hashing.pbkdf2-iterations:310000}") int pbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptCost));
+        encoders.put("pbkdf2", new Pbkdf2IterationsPasswordEncoder(pbkdf2Iterations));
+        // Argon2 needs Bouncy Castle at runtime
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null))
+            encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        if (!encoders.containsKey(algorithm))
+            throw new IllegalStateException("Unsupported password hashing algorithm: " + algorithm);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // hashes stored before the {id} prefix are plain bcrypt
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor);
     }
 
     @Bean
@@ -0,0 +1,9 @@
+package com.authkit.backend.domain.enums;
+
+public enum BroadcastStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.authkit.backend.domain.event;
+
+import com.authkit.backend.domain.model.Notification;
+
+/**
+ * Published inside the transaction that created the notification.
+ */
+public record NotificationCreatedEvent(Notification notification) {
+}
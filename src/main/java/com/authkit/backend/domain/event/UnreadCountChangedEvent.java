@@ -0,0 +1,9 @@
+package com.authkit.backend.domain.event;
+
+import java.util.UUID;
+
+/**
+ * Published once a change to the user's unread count has committed.
+ */
+public record UnreadCountChangedEvent(UUID userId) {
+}
@@ -2,6 +2,7 @@ package com.authkit.backend.domain.listener;
 
 import com.authkit.backend.domain.event.PasswordChangedEvent;
 import com.authkit.backend.infrastructure.auth.common.service.SessionService;
+import com.authkit.backend.shared.security.PrincipalCache;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
@@ -12,9 +13,11 @@ import org.springframework.stereotype.Component;
 public class PasswordChangedListener {
 
     private final SessionService sessionService;
+    private final PrincipalCache principalCache;
 
     @EventListener
     public void onPasswordChanged(PasswordChangedEvent event) {
+        principalCache.invalidate(event.getUser().getEmail());
         sessionService.revokeAllUserSessions(event.getUser());
     }
 }
@@ -10,7 +10,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_created_at", columnList = "created_at"),
+        @Index(name = "idx_audit_logs_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_audit_logs_action_created_at", columnList = "action, created_at"),
+        @Index(name = "idx_audit_logs_entity_type_created_at", columnList = "entity_type, created_at"),
+        @Index(name = "idx_audit_logs_ip_address_created_at", columnList = "ip_address, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -11,7 +11,7 @@ import java.util.UUID;
 @Entity
 @Table(
         name = "login_attempt",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"email", "ip", "userAgent"})
+        uniqueConstraints = @UniqueConstraint(name = "uk_login_attempt_ip_email", columnNames = {"ip", "email"})
 )
 @Data
 public class LoginAttempt {
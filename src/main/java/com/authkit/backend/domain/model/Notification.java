@@ -15,7 +15,10 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_id_read_status", columnList = "user_id, read_status"),
+        @Index(name = "idx_notifications_user_id_created_at", columnList = "user_id, created_at, id")
+})
 @Getter
 @NoArgsConstructor
 public class Notification {
@@ -55,6 +58,18 @@ public class Notification {
         this.createdAt = LocalDateTime.now();
     }
 
+    /**
+     * A notification written outside JPA, by a bulk insert, with its id and creation time
+     * fixed up front so they match the stored row.
+     */
+    public static Notification stored(UUID id, UUID userId, NotificationCode code, Map<String, Object> params,
+                                      String type, LocalDateTime createdAt) {
+        Notification notification = new Notification(userId, code, params, type);
+        notification.id = id;
+        notification.createdAt = createdAt;
+        return notification;
+    }
+
     public void markAsRead() {
         this.readStatus = true;
     }
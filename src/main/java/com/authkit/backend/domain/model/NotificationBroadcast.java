@@ -0,0 +1,102 @@
+package com.authkit.backend.domain.model;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.enums.TwoFactorMethod;
+import com.authkit.backend.domain.enums.UserStatus;
+import com.authkit.backend.domain.repository.user.UserSelection;
+import com.vladmihalcea.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.annotations.Type;
+import org.hibernate.type.descriptor.jdbc.CharJdbcType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A notification sent to every user of a {@link UserSelection}, delivered in the
+ * background. {@code lastUserId} is the last recipient whose notification is stored, so a
+ * broadcast interrupted at any point resumes right after it.
+ */
+@Entity
+@Table(name = "notification_broadcasts", indexes = {
+        @Index(name = "idx_notification_broadcasts_status", columnList = "status, created_at")
+})
+@Getter
+@NoArgsConstructor
+public class NotificationBroadcast {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @JdbcType(CharJdbcType.class)
+    @Column(updatable = false, nullable = false, columnDefinition = "CHAR(36)")
+    private UUID id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationCode code;
+
+    @Type(JsonType.class)
+    @Column(columnDefinition = "json")
+    private Map<String, Object> params;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Type(JsonType.class)
+    @Column(name = "user_statuses", nullable = false, columnDefinition = "json")
+    private Set<UserStatus> userStatuses;
+
+    @Enumerated(EnumType.STRING)
+    private TwoFactorMethod twoFactorMethod;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private BroadcastStatus status;
+
+    @Column(name = "last_user_id", columnDefinition = "CHAR(36)")
+    @JdbcType(CharJdbcType.class)
+    private UUID lastUserId;
+
+    /** Size of the selection when the broadcast was requested. */
+    @Column(nullable = false)
+    private long estimatedRecipients;
+
+    @Column(nullable = false)
+    private long deliveredRecipients;
+
+    private String requestedBy;
+    private String error;
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public NotificationBroadcast(NotificationCode code, Map<String, Object> params, String type,
+                                 UserSelection selection, long estimatedRecipients, String requestedBy) {
+        this.code = code;
+        this.params = params;
+        this.type = type;
+        this.userStatuses = selection.statuses();
+        this.twoFactorMethod = selection.twoFactorMethod();
+        this.status = BroadcastStatus.PENDING;
+        this.estimatedRecipients = estimatedRecipients;
+        this.requestedBy = requestedBy;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UserSelection getSelection() {
+        return new UserSelection(userStatuses, twoFactorMethod);
+    }
+}
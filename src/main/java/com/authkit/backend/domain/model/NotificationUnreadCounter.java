@@ -0,0 +1,30 @@
+package com.authkit.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.type.descriptor.jdbc.CharJdbcType;
+
+import java.util.UUID;
+
+/**
+ * Number of unread notifications of a user, adjusted in the transaction of every change
+ * to their notifications. Rows are only read and written through
+ * {@code JdbcNotificationCounterRepository}; the mapping is here so the table is created
+ * and updated with the rest of the schema.
+ */
+@Entity
+@Table(name = "notification_unread_counters")
+@Getter
+@NoArgsConstructor
+public class NotificationUnreadCounter {
+
+    @Id
+    @JdbcType(CharJdbcType.class)
+    @Column(name = "user_id", updatable = false, nullable = false, columnDefinition = "CHAR(36)")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long unread;
+}
@@ -12,7 +12,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "passkeys")
+@Table(name = "passkeys", indexes = {
+        @Index(name = "idx_passkeys_user_id_enabled_created_at", columnList = "user_id, enabled, created_at, id")
+})
 public class Passkey {
 
     @Id
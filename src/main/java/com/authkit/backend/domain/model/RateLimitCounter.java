@@ -0,0 +1,45 @@
+package com.authkit.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Tokens of a rate-limit policy reserved for one key in one fixed window, shared by every
+ * node. The key is the SHA-256 digest of the address or email, never the value itself.
+ * Rows are only read and written through {@code JdbcRateLimitCounterStore}; the mapping
+ * is here so the table is created and updated with the rest of the schema.
+ */
+@Entity
+@Table(name = "rate_limit_counters")
+@IdClass(RateLimitCounter.Key.class)
+@Getter
+@NoArgsConstructor
+public class RateLimitCounter {
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String policy;
+
+    @Id
+    @Column(name = "window_index", nullable = false)
+    private long windowIndex;
+
+    @Id
+    @Column(name = "bucket_key", nullable = false, columnDefinition = "CHAR(64)")
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private int used;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String policy;
+        private long windowIndex;
+        private String bucketKey;
+    }
+}
@@ -0,0 +1,35 @@
+package com.authkit.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "jwt_signing_keys")
+public class SigningKey {
+
+    // published as the JWT "kid" header
+    @Id
+    @Column(updatable = false, nullable = false, columnDefinition = "CHAR(36)")
+    private String kid;
+
+    @Column(nullable = false)
+    private String algorithm;
+
+    // X.509 encoded public key
+    @Column(nullable = false, columnDefinition = "VARBINARY(512)")
+    private byte[] publicKey;
+
+    // PKCS#8 encoded private key, encrypted with a key derived from jwt.secret
+    @Column(nullable = false, columnDefinition = "VARBINARY(512)")
+    private byte[] privateKey;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // after this the key no longer verifies tokens and is removed from the JWKS
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -10,7 +10,13 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "user_tokens")
+@Table(name = "user_tokens", indexes = {
+        @Index(name = "idx_user_tokens_access_token_hash", columnList = "access_token_hash"),
+        @Index(name = "idx_user_tokens_refresh_token_hash", columnList = "refresh_token_hash"),
+        @Index(name = "idx_user_tokens_user_id_revoked_created_at", columnList = "user_id, revoked, created_at, id"),
+        @Index(name = "idx_user_tokens_refresh_token_expiration", columnList = "refresh_token_expiration"),
+        @Index(name = "idx_user_tokens_revoked_refresh_token_expiration", columnList = "revoked, refresh_token_expiration")
+})
 public class UserToken {
 
     @Id
@@ -24,11 +30,12 @@ public class UserToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
-    private String accessToken;
+    // SHA-256 of the tokens, the tokens themselves are never stored
+    @Column(name = "access_token_hash", nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] accessTokenHash;
 
-    @Column(nullable = false)
-    private String refreshToken;
+    @Column(name = "refresh_token_hash", nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] refreshTokenHash;
 
     @Column(name = "access_token_expiration", nullable = false)
     private Date accessTokenExpiration;
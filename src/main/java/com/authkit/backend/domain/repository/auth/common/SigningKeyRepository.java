@@ -0,0 +1,16 @@
+package com.authkit.backend.domain.repository.auth.common;
+
+import com.authkit.backend.domain.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findByExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime now);
+
+    @Transactional
+    int deleteByExpiresAtBefore(LocalDateTime now);
+}
@@ -2,8 +2,14 @@ package com.authkit.backend.domain.repository.auth.common;
 
 import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.model.UserToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,14 +18,43 @@ public interface UserTokenRepository extends JpaRepository<UserToken, UUID> {
 
     List<UserToken> findAllByUserAndRevokedFalse(User user);
 
-    Optional<UserToken> findByRefreshTokenAndRevokedTrue(String refreshToken);
+    @Query("SELECT t FROM UserToken t WHERE t.user = :user AND t.revoked = false ORDER BY t.createdAt DESC, t.id DESC")
+    List<UserToken> findLatestByUserAndRevokedFalse(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT t FROM UserToken t WHERE t.user = :user AND t.revoked = false "
+            + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<UserToken> findByUserAndRevokedFalseBefore(@Param("user") User user,
+                                                    @Param("createdAt") Date createdAt,
+                                                    @Param("id") UUID id,
+                                                    Pageable pageable);
+
+    Optional<UserToken> findByRefreshTokenHashAndRevokedTrue(byte[] refreshTokenHash);
 
     List<UserToken> findByRevokedFalse();
 
-    Optional<UserToken> findByRefreshTokenAndRevokedFalse(String refreshToken);
+    Optional<UserToken> findByRefreshTokenHashAndRevokedFalse(byte[] refreshTokenHash);
 
-    Optional<UserToken> findByAccessTokenAndRevokedFalse(String accessToken);
+    Optional<UserToken> findByAccessTokenHashAndRevokedFalse(byte[] accessTokenHash);
 
     Optional<UserToken> findByIdAndRevokedFalse(UUID sessionId);
 
+    /**
+     * One page of (id, access token hash, access token expiration, revoked) for tokens
+     * that have not expired, in id order after {@code after}.
+     */
+    @Query("SELECT t.id, t.accessTokenHash, t.accessTokenExpiration, t.revoked FROM UserToken t "
+            + "WHERE t.accessTokenExpiration > :now AND t.id > :after ORDER BY t.id")
+    List<Object[]> findAccessTokenStatesExpiringAfter(@Param("now") Date now, @Param("after") UUID after, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_tokens WHERE refresh_token_expiration < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBefore(@Param("now") Date now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_tokens WHERE revoked = true LIMIT :limit", nativeQuery = true)
+    int deleteRevoked(@Param("limit") int limit);
+
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.authkit.backend.domain.repository.auth.passkey;
 
 import com.authkit.backend.domain.model.Passkey;
 import com.authkit.backend.domain.model.User;
+import com.authkit.backend.shared.pagination.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,6 +14,13 @@ public interface PasskeyRepository {
     Passkey save(Passkey passkey);
     Optional<Passkey> findByCredentialId(String credentialId);
     Page<Passkey> findByUserAndEnabledTrue(User user, Pageable pageable);
+
+    /**
+     * @return up to {@code limit} of the user's enabled passkeys, newest first, starting
+     *         after the given position or from the newest one if it is null
+     */
+    List<Passkey> findByUserAndEnabledTrueBefore(User user, KeysetCursor before, int limit);
+
     Optional<Passkey> findByIdAndUserAndEnabledTrue(UUID id, User user);
     void delete(Passkey passkey);
     void deleteAllByUser(User user);
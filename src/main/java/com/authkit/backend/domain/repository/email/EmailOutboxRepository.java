@@ -0,0 +1,85 @@
+package com.authkit.backend.domain.repository.email;
+
+import com.authkit.backend.domain.enums.EmailOutboxStatus;
+import com.authkit.backend.domain.model.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Locks up to {@code limit} due messages, skipping rows another worker has locked.
+     * Must run in the transaction that then marks them as SENDING.
+     */
+    @Query(value = "SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sending, m.leaseOwner = :owner, m.lockedUntil = :lockedUntil, "
+            + "m.attempts = m.attempts + 1 WHERE m.id IN :ids")
+    int markSending(@Param("ids") Collection<Long> ids,
+                    @Param("sending") EmailOutboxStatus sending,
+                    @Param("owner") String owner,
+                    @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Records a send. Only messages still SENDING under {@code owner} change; one whose
+     * lease ran out and was requeued belongs to whoever claims it next.
+     *
+     * @return the number of messages recorded as sent
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sent, m.sentAt = :sentAt, m.leaseOwner = NULL, "
+            + "m.lockedUntil = NULL, m.lastError = NULL "
+            + "WHERE m.id IN :ids AND m.status = :sending AND m.leaseOwner = :owner")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("sending") EmailOutboxStatus sending,
+                 @Param("owner") String owner,
+                 @Param("sent") EmailOutboxStatus sent,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Records a failed send, guarded like {@link #markSent}.
+     *
+     * @return 0 if the message is no longer held by {@code owner}
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, "
+            + "m.leaseOwner = NULL, m.lockedUntil = NULL, m.lastError = :error "
+            + "WHERE m.id = :id AND m.status = :sending AND m.leaseOwner = :owner")
+    int markFailed(@Param("id") Long id,
+                   @Param("sending") EmailOutboxStatus sending,
+                   @Param("owner") String owner,
+                   @Param("status") EmailOutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Returns messages whose sender died mid-send to the queue. They may have gone out,
+     * so a recipient can get such a message twice.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :pending, m.leaseOwner = NULL, m.lockedUntil = NULL "
+            + "WHERE m.status = :sending AND m.lockedUntil < :now")
+    int releaseExpired(@Param("pending") EmailOutboxStatus pending,
+                       @Param("sending") EmailOutboxStatus sending,
+                       @Param("now") LocalDateTime now);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,91 @@
+package com.authkit.backend.domain.repository.notification;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationBroadcastRepository extends JpaRepository<NotificationBroadcast, UUID> {
+
+    @Query("SELECT b.id FROM NotificationBroadcast b WHERE b.status IN :statuses "
+            + "AND (b.leaseUntil IS NULL OR b.leaseUntil < :now) ORDER BY b.createdAt")
+    List<UUID> findClaimable(@Param("statuses") Collection<BroadcastStatus> statuses,
+                             @Param("now") LocalDateTime now,
+                             Pageable pageable);
+
+    /**
+     * Takes the lease on a pending or abandoned broadcast; only one node can win it.
+     *
+     * @return 1 if {@code owner} now runs the broadcast
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.status = :running, b.leaseOwner = :owner, b.leaseUntil = :leaseUntil, "
+            + "b.startedAt = COALESCE(b.startedAt, :now) "
+            + "WHERE b.id = :id AND b.status IN :statuses AND (b.leaseUntil IS NULL OR b.leaseUntil < :now)")
+    int claim(@Param("id") UUID id,
+              @Param("statuses") Collection<BroadcastStatus> statuses,
+              @Param("running") BroadcastStatus running,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Records a delivered chunk and extends the lease. Runs in the chunk's transaction.
+     *
+     * @return 0 if the broadcast was cancelled or its lease passed to someone else, in
+     *         which case the chunk must roll back
+     */
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.lastUserId = :lastUserId, "
+            + "b.deliveredRecipients = b.deliveredRecipients + :delivered, b.leaseUntil = :leaseUntil "
+            + "WHERE b.id = :id AND b.status = :running AND b.leaseOwner = :owner")
+    int recordProgress(@Param("id") UUID id,
+                       @Param("running") BroadcastStatus running,
+                       @Param("owner") String owner,
+                       @Param("lastUserId") UUID lastUserId,
+                       @Param("delivered") long delivered,
+                       @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Moves the broadcast to {@code status} and drops the lease, whoever holds it. For
+     * administrators cancelling or resuming; the runner uses {@link #transitionOwned}.
+     *
+     * @return 0 if the broadcast is not in one of the {@code from} statuses
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.status = :status, b.error = :error, b.leaseOwner = NULL, b.leaseUntil = NULL, "
+            + "b.finishedAt = :finishedAt WHERE b.id = :id AND b.status IN :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") Collection<BroadcastStatus> from,
+                   @Param("status") BroadcastStatus status,
+                   @Param("error") String error,
+                   @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Finishes a run or hands the lease back, like {@link #transition}, but only while
+     * {@code owner} still holds the lease.
+     *
+     * @return 0 if the broadcast was cancelled or its lease passed to someone else
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.status = :status, b.error = :error, b.leaseOwner = NULL, b.leaseUntil = NULL, "
+            + "b.finishedAt = :finishedAt WHERE b.id = :id AND b.status = :running AND b.leaseOwner = :owner")
+    int transitionOwned(@Param("id") UUID id,
+                        @Param("running") BroadcastStatus running,
+                        @Param("owner") String owner,
+                        @Param("status") BroadcastStatus status,
+                        @Param("error") String error,
+                        @Param("finishedAt") LocalDateTime finishedAt);
+}
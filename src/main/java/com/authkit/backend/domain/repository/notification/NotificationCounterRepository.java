@@ -0,0 +1,47 @@
+package com.authkit.backend.domain.repository.notification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Per-user unread notification counters, kept next to the notifications so they can be
+ * changed in the same transaction.
+ */
+public interface NotificationCounterRepository {
+
+    OptionalLong findUnread(UUID userId);
+
+    /**
+     * Creates the counter unless it already exists.
+     */
+    void initialize(UUID userId, long unread);
+
+    /**
+     * Applies a delta to the counter. If the user has none yet, it is created from the
+     * notifications as the calling transaction sees them, which already include the change
+     * the delta stands for.
+     */
+    void add(UUID userId, long delta);
+
+    /**
+     * {@link #add(UUID, long)} for many users, with one statement for the existing counters
+     * and one for the missing ones.
+     */
+    void addAll(List<UUID> userIds, long delta);
+
+    /**
+     * @return up to {@code limit} counters with a user id greater than {@code after}, in id order
+     */
+    Map<UUID, Long> findPage(UUID after, int limit);
+
+    /**
+     * Sets the counter to {@code unread} only if it still holds {@code expected}.
+     *
+     * @return false if the counter changed in the meantime
+     */
+    boolean compareAndSet(UUID userId, long expected, long unread);
+
+    Map<UUID, Long> countUnreadNotifications(List<UUID> userIds);
+}
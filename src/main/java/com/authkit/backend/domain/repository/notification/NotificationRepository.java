@@ -1,18 +1,57 @@
 package com.authkit.backend.domain.repository.notification;
 
+import com.authkit.backend.domain.enums.NotificationCode;
 import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.shared.pagination.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface NotificationRepository {
     Notification save(Notification notification);
-    List<Notification> saveAll(List<Notification> notifications);
+
+    /**
+     * Stores one unread notification per user with multi-row INSERT statements.
+     *
+     * @return the notifications stored, in the order of {@code userIds}
+     */
+    List<Notification> insertForUsers(List<UUID> userIds, NotificationCode code, Map<String, Object> params, String type);
+
     Page<Notification> findByUserId(UUID userId, Pageable pageable);
-    List<Notification> findByUserIdAndReadStatus(UUID userId, boolean readStatus);
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * @return up to {@code limit} of the user's notifications after the given position,
+     *         oldest first
+     */
+    List<Notification> findByUserIdAfter(UUID userId, LocalDateTime createdAt, UUID id, int limit);
+
+    /**
+     * @return up to {@code limit} of the user's notifications, newest first, starting after
+     *         the given position or from the newest one if it is null
+     */
+    List<Notification> findByUserIdBefore(UUID userId, KeysetCursor before, int limit);
+
     long countByUserIdAndReadStatus(UUID userId, boolean readStatus);
     void delete(Notification notification);
-    void deleteAllByUserId(UUID userId);
+    int markAsReadByIdAndUserId(UUID id, UUID userId);
+    int deleteByIdAndUserIdAndReadStatus(UUID id, UUID userId, boolean readStatus);
+
+    /**
+     * Marks at most {@code limit} unread notifications of the user as read.
+     *
+     * @return the number of notifications changed
+     */
+    int markUnreadAsReadByUserId(UUID userId, int limit);
+
+    /**
+     * Deletes at most {@code limit} of the user's notifications with the given read status.
+     *
+     * @return the number of notifications deleted
+     */
+    int deleteByUserIdAndReadStatus(UUID userId, boolean readStatus, int limit);
 } 
\ No newline at end of file
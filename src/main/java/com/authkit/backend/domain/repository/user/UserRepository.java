@@ -1,16 +1,21 @@
 package com.authkit.backend.domain.repository.user;
 
 import com.authkit.backend.domain.model.User;
+import com.authkit.backend.domain.enums.TwoFactorMethod;
 import com.authkit.backend.domain.enums.UserStatus;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -21,8 +26,42 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> searchByUsername(@Param("query") String query, Pageable pageable);
 
     int deleteByStatusAndDeletionRequestedAtBefore(UserStatus status, LocalDateTime dateTime);
+
+    @Query("SELECT u.email FROM User u WHERE u.status = :status AND u.deletionRequestedAt < :dateTime")
+    List<String> findEmailsByStatusAndDeletionRequestedAtBefore(@Param("status") UserStatus status, @Param("dateTime") LocalDateTime dateTime);
     boolean existsByUsername(@NotBlank(message = "Username cannot be blank") String attr0);
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.twoFactorMethods WHERE u.email = :email")
     Optional<User> findByEmailWithTwoFactorMethods(@Param("email") String email);
+
+    String SELECTION_CONDITION = "u.status IN :statuses AND (:method IS NULL OR EXISTS ("
+            + "SELECT m.id FROM UserTwoFactorMethod m WHERE m.user = u AND m.method = :method AND m.enabled = true))";
+
+    @Query("SELECT u.id FROM User u WHERE " + SELECTION_CONDITION + " AND u.id > :after ORDER BY u.id")
+    List<UUID> findIdsBySelectionAfter(@Param("statuses") Set<UserStatus> statuses,
+                                       @Param("method") TwoFactorMethod method,
+                                       @Param("after") UUID after,
+                                       Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " + SELECTION_CONDITION)
+    long countBySelection(@Param("statuses") Set<UserStatus> statuses, @Param("method") TwoFactorMethod method);
+
+    /**
+     * @return up to {@code limit} ids of the selected users in id order, starting after
+     *         {@code after} or from the first one if it is null
+     */
+    default List<UUID> findIdsBySelection(UserSelection selection, UUID after, int limit) {
+        // ids are CHAR(36), so the nil UUID sorts before every real one
+        return findIdsBySelectionAfter(selection.statuses(), selection.twoFactorMethod(),
+                after == null ? new UUID(0, 0) : after, PageRequest.of(0, limit));
+    }
+
+    default long countBySelection(UserSelection selection) {
+        return countBySelection(selection.statuses(), selection.twoFactorMethod());
+    }
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHashIfUnchanged(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,17 @@
+package com.authkit.backend.domain.repository.user;
+
+import com.authkit.backend.domain.enums.TwoFactorMethod;
+import com.authkit.backend.domain.enums.UserStatus;
+
+import java.util.Set;
+
+/**
+ * Which users an operation applies to: users in any of {@code statuses} and, when
+ * {@code twoFactorMethod} is set, only those with that method enabled.
+ */
+public record UserSelection(Set<UserStatus> statuses, TwoFactorMethod twoFactorMethod) {
+
+    public UserSelection {
+        statuses = statuses == null || statuses.isEmpty() ? Set.of(UserStatus.ACTIVE) : Set.copyOf(statuses);
+    }
+}
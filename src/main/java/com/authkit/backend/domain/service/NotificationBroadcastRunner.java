@@ -0,0 +1,182 @@
+package com.authkit.backend.domain.service;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import com.authkit.backend.domain.repository.notification.NotificationBroadcastRepository;
+import com.authkit.backend.domain.repository.user.UserRepository;
+import com.authkit.backend.domain.repository.user.UserSelection;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers queued {@link NotificationBroadcast}s in the background.
+ * <p>
+ * A broadcast walks its selection in user id order, {@code app.notifications.broadcast.chunk-size}
+ * ids at a time, and stores each chunk with multi-row inserts in its own transaction together
+ * with the progress, so nothing is held in memory beyond one chunk and a restart continues
+ * after the last stored recipient. A node runs a broadcast under a lease that every chunk
+ * extends; if the node dies the lease runs out and any node picks the broadcast up again.
+ * Work happens on a dedicated thread so a long broadcast does not hold up other scheduled tasks.
+ */
+@Slf4j
+@Component
+public class NotificationBroadcastRunner {
+
+    private static final Set<BroadcastStatus> CLAIMABLE = EnumSet.of(BroadcastStatus.PENDING, BroadcastStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final NotificationBroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final NotificationDomainService notificationDomainService;
+    private final int chunkSize;
+    private final long leaseMillis;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile boolean stopping;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationBroadcastRunner(NotificationBroadcastRepository broadcastRepository,
+                                       UserRepository userRepository,
+                                       NotificationDomainService notificationDomainService,
+                                       @Value("${app.notifications.broadcast.chunk-size:1000}") int chunkSize,
+                                       @Value("${app.notifications.broadcast.lease-ms:60000}") long leaseMillis) {
+        this.broadcastRepository = broadcastRepository;
+        this.userRepository = userRepository;
+        this.notificationDomainService = notificationDomainService;
+        this.chunkSize = chunkSize;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.broadcast.poll-ms:5000}")
+    public void poll() {
+        if (stopping || !busy.compareAndSet(false, true))
+            return;
+
+        try {
+            worker.execute(() -> {
+                try {
+                    runClaimable();
+                } finally {
+                    busy.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            busy.set(false);
+        }
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getChunks() {
+        return chunks.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void runClaimable() {
+        while (!stopping) {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> claimable = broadcastRepository.findClaimable(CLAIMABLE, now, PageRequest.of(0, 1));
+            if (claimable.isEmpty())
+                return;
+
+            UUID broadcastId = claimable.get(0);
+            String leaseOwner = UUID.randomUUID().toString();
+            if (broadcastRepository.claim(broadcastId, CLAIMABLE, BroadcastStatus.RUNNING, leaseOwner, now, leaseUntil()) == 1)
+                broadcastRepository.findById(broadcastId).ifPresent(broadcast -> run(broadcast, leaseOwner));
+        }
+    }
+
+    private void run(NotificationBroadcast broadcast, String leaseOwner) {
+        UserSelection selection = broadcast.getSelection();
+        UUID after = broadcast.getLastUserId();
+        long start = System.nanoTime();
+        long sent = 0;
+
+        try {
+            while (!stopping) {
+                List<UUID> userIds = userRepository.findIdsBySelection(selection, after, chunkSize);
+                if (!userIds.isEmpty()) {
+                    if (!notificationDomainService.deliverBroadcastChunk(broadcast, leaseOwner, userIds, leaseUntil())) {
+                        log.info("Broadcast {} stopped after {} recipients, it was cancelled or taken over", broadcast.getId(), sent);
+                        return;
+                    }
+                    after = userIds.get(userIds.size() - 1);
+                    sent += userIds.size();
+                    delivered.add(userIds.size());
+                    chunks.increment();
+                }
+
+                if (userIds.size() < chunkSize) {
+                    if (broadcastRepository.transitionOwned(broadcast.getId(), BroadcastStatus.RUNNING, leaseOwner,
+                            BroadcastStatus.COMPLETED, null, LocalDateTime.now()) == 0) {
+                        log.info("Broadcast {} reached its end but was cancelled or taken over meanwhile", broadcast.getId());
+                        return;
+                    }
+                    completed.increment();
+                    long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    log.info("Broadcast {} completed: {} recipients in this run, {} ms ({} per second)",
+                            broadcast.getId(), sent, millis, sent * 1000 / millis);
+                    return;
+                }
+            }
+
+            // shutting down: hand the lease back so another node continues right away
+            broadcastRepository.transitionOwned(broadcast.getId(), BroadcastStatus.RUNNING, leaseOwner,
+                    BroadcastStatus.RUNNING, null, null);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Broadcast {} failed after {} recipients in this run", broadcast.getId(), sent, e);
+            String error = String.valueOf(e.getMessage());
+            broadcastRepository.transitionOwned(broadcast.getId(), BroadcastStatus.RUNNING, leaseOwner, BroadcastStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, LocalDateTime.now());
+        } finally {
+            log.debug("Notification broadcasts: delivered={}, chunks={}, completed={}, failed={}",
+                    getDelivered(), getChunks(), getCompleted(), getFailed());
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis));
+    }
+}
@@ -1,18 +1,32 @@
 package com.authkit.backend.domain.service;
 
+import com.authkit.backend.domain.event.NotificationCreatedEvent;
+import com.authkit.backend.domain.enums.BroadcastStatus;
 import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import com.authkit.backend.domain.repository.notification.NotificationBroadcastRepository;
 import com.authkit.backend.domain.repository.notification.NotificationRepository;
+import com.authkit.backend.domain.repository.user.UserRepository;
+import com.authkit.backend.domain.repository.user.UserSelection;
 import com.authkit.backend.domain.enums.NotificationCode;
 import com.authkit.backend.shared.exception.ApiException;
 import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.pagination.CursorPage;
+import com.authkit.backend.shared.pagination.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -20,6 +34,14 @@ import java.util.UUID;
 public class NotificationDomainService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationBroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.notifications.bulk-chunk-size:5000}")
+    private int bulkChunkSize;
 
     @Transactional
     public Notification createNotification(UUID userId, NotificationCode code, Map<String, Object> params, String type) {
@@ -29,57 +51,159 @@ public class NotificationDomainService {
                 .params(params)
                 .type(type)
                 .build();
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.adjust(userId, 1);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(saved));
+        return saved;
     }
 
     public Page<Notification> getUserNotifications(UUID userId, Pageable pageable) {
         return notificationRepository.findByUserId(userId, pageable);
     }
 
+    /**
+     * Queues a notification for every user in {@code selection}. Delivery runs in the
+     * background on {@link NotificationBroadcastRunner}; the returned broadcast reports its
+     * progress.
+     */
     @Transactional
-    public void markNotificationAsRead(UUID userId, UUID notificationId) {
-        Notification notification = notificationRepository.findByUserId(userId, null)
-                .stream()
-                .filter(n -> n.getId().equals(notificationId))
-                .findFirst()
-                .orElseThrow(() -> new ApiException(ApiErrorCode.NOTIFICATION_NOT_FOUND));
-
-        if (!notification.getUserId().equals(userId)) {
-            throw new ApiException(ApiErrorCode.FORBIDDEN_ACTION);
-        }
+    public NotificationBroadcast broadcast(UserSelection selection, NotificationCode code, Map<String, Object> params,
+                                          String type, String requestedBy) {
+        long estimatedRecipients = userRepository.countBySelection(selection);
+        return broadcastRepository.save(new NotificationBroadcast(code, params, type, selection, estimatedRecipients, requestedBy));
+    }
+
+    public NotificationBroadcast getBroadcast(UUID broadcastId) {
+        return broadcastRepository.findById(broadcastId)
+                .orElseThrow(() -> new ApiException(ApiErrorCode.BROADCAST_NOT_FOUND));
+    }
+
+    /**
+     * Stops a broadcast; the chunk in flight, if any, rolls back.
+     */
+    public NotificationBroadcast cancelBroadcast(UUID broadcastId) {
+        return transitionBroadcast(broadcastId,
+                EnumSet.of(BroadcastStatus.PENDING, BroadcastStatus.RUNNING, BroadcastStatus.FAILED),
+                BroadcastStatus.CANCELLED, LocalDateTime.now());
+    }
+
+    /**
+     * Queues a failed broadcast again; it continues after the last recipient it reached.
+     */
+    public NotificationBroadcast resumeBroadcast(UUID broadcastId) {
+        return transitionBroadcast(broadcastId, EnumSet.of(BroadcastStatus.FAILED), BroadcastStatus.PENDING, null);
+    }
+
+    /**
+     * Stores one chunk of a broadcast and its progress in a single transaction, so a chunk
+     * is either delivered and recorded or neither. Like a single notification, each one is
+     * announced with a {@link NotificationCreatedEvent} once the chunk commits, so open
+     * streams get it live.
+     *
+     * @return false if the broadcast was cancelled or is no longer held by {@code leaseOwner}
+     */
+    public boolean deliverBroadcastChunk(NotificationBroadcast broadcast, String leaseOwner,
+                                         List<UUID> userIds, LocalDateTime leaseUntil) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // updates the broadcast row first, so a concurrent cancel is either seen or waits for this chunk
+            int recorded = broadcastRepository.recordProgress(broadcast.getId(), BroadcastStatus.RUNNING, leaseOwner,
+                    userIds.get(userIds.size() - 1), userIds.size(), leaseUntil);
+            if (recorded == 0)
+                return false;
+
+            List<Notification> stored = notificationRepository.insertForUsers(
+                    userIds, broadcast.getCode(), broadcast.getParams(), broadcast.getType());
+            unreadCounter.adjustAll(userIds, 1);
+            stored.forEach(notification -> eventPublisher.publishEvent(new NotificationCreatedEvent(notification)));
+            return true;
+        }));
+    }
+
+    public CursorPage<Notification> getUserNotifications(UUID userId, String cursor, int size) {
+        int limit = CursorPage.limit(size);
+        List<Notification> rows = notificationRepository.findByUserIdBefore(userId, KeysetCursor.decode(cursor), limit + 1);
+        return CursorPage.of(rows, limit, n -> new KeysetCursor(n.getCreatedAt(), n.getId()), n -> n);
+    }
 
-        notification.markAsRead();
-        notificationRepository.save(notification);
+    public List<Notification> getNotificationsAfter(UUID userId, LocalDateTime createdAt, UUID id, int limit) {
+        return notificationRepository.findByUserIdAfter(userId, createdAt, id, limit);
     }
 
     @Transactional
-    public void markAllNotificationsAsRead(UUID userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndReadStatus(userId, false);
-        notifications.forEach(Notification::markAsRead);
-        notificationRepository.saveAll(notifications);
+    public void markNotificationAsRead(UUID userId, UUID notificationId) {
+        // only unread rows match, so 0 means already read or not this user's
+        if (notificationRepository.markAsReadByIdAndUserId(notificationId, userId) == 1) {
+            unreadCounter.adjust(userId, -1);
+        } else if (!notificationRepository.existsByIdAndUserId(notificationId, userId)) {
+            throw new ApiException(ApiErrorCode.NOTIFICATION_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Runs set-based updates of at most {@code app.notifications.bulk-chunk-size} rows each,
+     * every chunk in its own short transaction together with its counter adjustment, so a
+     * huge inbox never holds locks for long.
+     *
+     * @return the number of notifications marked as read
+     */
+    public int markAllNotificationsAsRead(UUID userId) {
+        int total = 0;
+        int changed;
+        do {
+            changed = transactionTemplate.execute(status -> {
+                int rows = notificationRepository.markUnreadAsReadByUserId(userId, bulkChunkSize);
+                unreadCounter.adjust(userId, -rows);
+                return rows;
+            });
+            total += changed;
+        } while (changed == bulkChunkSize);
+        return total;
     }
 
     public long getUnreadNotificationCount(UUID userId) {
-        return notificationRepository.countByUserIdAndReadStatus(userId, false);
+        return unreadCounter.get(userId);
     }
 
     @Transactional
     public void deleteNotification(UUID userId, UUID notificationId) {
-        Notification notification = notificationRepository.findByUserId(userId, null)
-                .stream()
-                .filter(n -> n.getId().equals(notificationId))
-                .findFirst()
-                .orElseThrow(() -> new ApiException(ApiErrorCode.NOTIFICATION_NOT_FOUND));
-
-        if (!notification.getUserId().equals(userId)) {
-            throw new ApiException(ApiErrorCode.FORBIDDEN_ACTION);
+        if (notificationRepository.deleteByIdAndUserIdAndReadStatus(notificationId, userId, false) == 1) {
+            unreadCounter.adjust(userId, -1);
+        } else if (notificationRepository.deleteByIdAndUserIdAndReadStatus(notificationId, userId, true) == 0) {
+            throw new ApiException(ApiErrorCode.NOTIFICATION_NOT_FOUND);
         }
+    }
 
-        notificationRepository.delete(notification);
+    /**
+     * Deletes in chunks like {@link #markAllNotificationsAsRead(UUID)}, unread ones first so
+     * each chunk knows how far to move the counter.
+     *
+     * @return the number of notifications deleted
+     */
+    public int deleteAllNotifications(UUID userId) {
+        return deleteAll(userId, false) + deleteAll(userId, true);
     }
 
-    @Transactional
-    public void deleteAllNotifications(UUID userId) {
-        notificationRepository.deleteAllByUserId(userId);
+    private NotificationBroadcast transitionBroadcast(UUID broadcastId, Set<BroadcastStatus> from,
+                                                      BroadcastStatus to, LocalDateTime finishedAt) {
+        if (broadcastRepository.transition(broadcastId, from, to, null, finishedAt) == 0) {
+            getBroadcast(broadcastId);
+            throw new ApiException(ApiErrorCode.BROADCAST_STATE_CONFLICT);
+        }
+        return getBroadcast(broadcastId);
+    }
+
+    private int deleteAll(UUID userId, boolean readStatus) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                int rows = notificationRepository.deleteByUserIdAndReadStatus(userId, readStatus, bulkChunkSize);
+                if (!readStatus)
+                    unreadCounter.adjust(userId, -rows);
+                return rows;
+            });
+            total += deleted;
+        } while (deleted == bulkChunkSize);
+        return total;
     }
 } 
\ No newline at end of file
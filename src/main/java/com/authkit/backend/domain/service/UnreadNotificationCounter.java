@@ -0,0 +1,217 @@
+package com.authkit.backend.domain.service;
+
+import com.authkit.backend.config.SchedulingConfig;
+import com.authkit.backend.domain.event.UnreadCountChangedEvent;
+import com.authkit.backend.domain.repository.notification.NotificationCounterRepository;
+import com.authkit.backend.domain.repository.notification.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unread notification counts without counting notifications.
+ * <p>
+ * Each user has a row in notification_unread_counters that every change to their
+ * notifications adjusts in the same transaction, and reads are served from a bounded
+ * in-memory cache in front of it. Local changes are applied to the cache once they commit;
+ * changes made on other nodes show up after {@code app.notifications.unread-cache-ttl-ms}.
+ * A counter is created from a real count the first time it is read or changed, and a
+ * periodic reconciliation corrects any counter that has drifted from the notifications.
+ * Every committed change is announced with an {@link UnreadCountChangedEvent}.
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounter {
+
+    private record Entry(long unread, long expiresAt) {}
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // bumped on every local change so a load that raced with one is not cached
+    private final AtomicLong changeEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder corrected = new LongAdder();
+
+    public UnreadNotificationCounter(NotificationCounterRepository counterRepository,
+                                     NotificationRepository notificationRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.notifications.unread-cache-ttl-ms:10000}") long ttlMillis,
+                                     @Value("${app.notifications.unread-cache-max-entries:100000}") int maxEntries) {
+        this.counterRepository = counterRepository;
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(UUID userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.unread();
+        }
+
+        misses.increment();
+        long epoch = changeEpoch.get();
+        long unread = load(userId);
+
+        if (epoch == changeEpoch.get()) {
+            makeRoom();
+            entries.put(userId, new Entry(unread, now + ttlMillis));
+        }
+        return unread;
+    }
+
+    /**
+     * Adjusts the user's counter. Must run in the transaction that changed the
+     * notifications; the cache follows once it commits.
+     */
+    public void adjust(UUID userId, long delta) {
+        if (delta == 0)
+            return;
+
+        counterRepository.add(userId, delta);
+        changeEpoch.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(userId, delta);
+                }
+            });
+        } else {
+            committed(userId, delta);
+        }
+    }
+
+    /**
+     * {@link #adjust(UUID, long)} for many users at once, with a single counter update.
+     */
+    public void adjustAll(List<UUID> userIds, long delta) {
+        if (delta == 0 || userIds.isEmpty())
+            return;
+
+        counterRepository.addAll(userIds, delta);
+        changeEpoch.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userIds.forEach(userId -> committed(userId, delta));
+                }
+            });
+        } else {
+            userIds.forEach(userId -> committed(userId, delta));
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCorrected() {
+        return corrected.sum();
+    }
+
+    /**
+     * Walks every counter in user id order and overwrites the ones that disagree with
+     * the notifications. The overwrite only applies if the counter is unchanged since it
+     * was read, so it never undoes a change that committed in between.
+     */
+    @Async(SchedulingConfig.MAINTENANCE_EXECUTOR)
+    @Scheduled(fixedDelayString = "${app.notifications.unread-reconcile-ms:3600000}",
+            initialDelayString = "${app.notifications.unread-reconcile-ms:3600000}")
+    public void reconcile() {
+        UUID after = null;
+        long fixed = 0;
+
+        while (true) {
+            Map<UUID, Long> counters = counterRepository.findPage(after, RECONCILE_BATCH_SIZE);
+            if (counters.isEmpty())
+                break;
+
+            Map<UUID, Long> actual = counterRepository.countUnreadNotifications(new ArrayList<>(counters.keySet()));
+            for (Map.Entry<UUID, Long> counter : counters.entrySet()) {
+                long expected = actual.getOrDefault(counter.getKey(), 0L);
+                if (counter.getValue() != expected
+                        && counterRepository.compareAndSet(counter.getKey(), counter.getValue(), expected)) {
+                    entries.remove(counter.getKey());
+                    fixed++;
+                }
+                after = counter.getKey();
+            }
+
+            if (counters.size() < RECONCILE_BATCH_SIZE)
+                break;
+        }
+
+        corrected.add(fixed);
+        log.debug("Unread notification counters: size={}, hits={}, misses={}, corrected={} (this run {})",
+                entries.size(), getHits(), getMisses(), getCorrected(), fixed);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private long load(UUID userId) {
+        OptionalLong unread = counterRepository.findUnread(userId);
+        if (unread.isPresent())
+            return unread.getAsLong();
+
+        long counted = notificationRepository.countByUserIdAndReadStatus(userId, false);
+        counterRepository.initialize(userId, counted);
+        return counted;
+    }
+
+    private void committed(UUID userId, long delta) {
+        changeEpoch.incrementAndGet();
+        entries.computeIfPresent(userId, (key, entry) -> new Entry(Math.max(entry.unread() + delta, 0), entry.expiresAt()));
+        eventPublisher.publishEvent(new UnreadCountChangedEvent(userId));
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxEntries)
+            return;
+
+        // the map has no access order, so evict whatever the iterator hands out first
+        Iterator<UUID> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.authkit.backend.infrastructure.audit.controller;
+
+import com.authkit.backend.infrastructure.audit.dto.AuditLogFilter;
+import com.authkit.backend.infrastructure.audit.dto.AuditLogPage;
+import com.authkit.backend.infrastructure.audit.service.AuditLogQueryService;
+import com.authkit.backend.infrastructure.audit.service.AuditLogQueryService.ExportFormat;
+import com.authkit.backend.shared.dto.response.ApiResponse;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/admin/audit-logs")
+@RequiredArgsConstructor
+@Tag(name = "Audit logs", description = "Administrator endpoints for searching and exporting the audit log")
+public class AuditLogController {
+
+    private final AuditLogQueryService auditLogQueryService;
+
+    @GetMapping
+    @Operation(
+            summary = "Search audit logs",
+            description = "Returns audit entries matching the filters, newest first. Pass nextCursor back as cursor to get the following page."
+    )
+    public ResponseEntity<ApiResponse<AuditLogPage>> searchAuditLogs(
+            @ModelAttribute AuditLogFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ApiResponse.success(auditLogQueryService.search(filter, cursor, size)));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export audit logs",
+            description = "Streams every audit entry matching the filters, oldest first, as NDJSON or CSV."
+    )
+    public void exportAuditLogs(
+            @ModelAttribute AuditLogFilter filter,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = switch (format.toLowerCase()) {
+            case "ndjson" -> ExportFormat.NDJSON;
+            case "csv" -> ExportFormat.CSV;
+            default -> throw new ApiException(ApiErrorCode.INVALID_REQUEST);
+        };
+        boolean csv = exportFormat == ExportFormat.CSV;
+
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"audit-logs." + (csv ? "csv" : "ndjson") + "\"");
+        auditLogQueryService.export(filter, exportFormat, response.getOutputStream());
+    }
+}
@@ -0,0 +1,20 @@
+package com.authkit.backend.infrastructure.audit.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class AuditLogDTO {
+    private long id;
+    private String action;
+    private String entityType;
+    private String entityId;
+    private String userId;
+    private String username;
+    private String details;
+    private String ipAddress;
+    private LocalDateTime createdAt;
+}
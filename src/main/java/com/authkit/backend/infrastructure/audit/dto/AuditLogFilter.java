@@ -0,0 +1,22 @@
+package com.authkit.backend.infrastructure.audit.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditLogFilter {
+    private String userId;
+    private String action;
+    private String entityType;
+    private String ipAddress;
+
+    /** Inclusive lower bound on createdAt. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /** Exclusive upper bound on createdAt. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
@@ -0,0 +1,14 @@
+package com.authkit.backend.infrastructure.audit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AuditLogPage {
+    private List<AuditLogDTO> items;
+    /** Pass back as {@code cursor} to fetch the next page; null on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,261 @@
+package com.authkit.backend.infrastructure.audit.service;
+
+import com.authkit.backend.infrastructure.audit.dto.AuditLogDTO;
+import com.authkit.backend.infrastructure.audit.dto.AuditLogFilter;
+import com.authkit.backend.infrastructure.audit.dto.AuditLogPage;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read side of the audit log for administrators.
+ * <p>
+ * Pages are ordered newest first and addressed by an opaque keyset cursor over
+ * (created_at, id), so a page costs the same no matter how deep it is. Every filter
+ * combination is served by one of the (column, created_at) indexes on audit_logs.
+ * Exports run oldest first over a forward-only streaming cursor and write each row to the
+ * response as it arrives, so memory use does not depend on the number of rows.
+ */
+@Slf4j
+@Service
+public class AuditLogQueryService {
+
+    public enum ExportFormat { NDJSON, CSV }
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, action, entity_type, entity_id, user_id, username, details, ip_address, created_at FROM audit_logs";
+    private static final String CSV_HEADER = "id,action,entityType,entityId,userId,username,details,ipAddress,createdAt\n";
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final RowMapper<AuditLogDTO> ROW_MAPPER = (rs, rowNum) -> AuditLogDTO.builder()
+            .id(rs.getLong("id"))
+            .action(rs.getString("action"))
+            .entityType(rs.getString("entity_type"))
+            .entityId(rs.getString("entity_id"))
+            .userId(rs.getString("user_id"))
+            .username(rs.getString("username"))
+            .details(rs.getString("details"))
+            .ipAddress(rs.getString("ip_address"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder exportedRows = new LongAdder();
+
+    public AuditLogQueryService(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        // MySQL only streams result sets row by row with this fetch size
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    public AuditLogPage search(AuditLogFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = where(filter, params);
+
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            params.addValue("cursorAt", Timestamp.valueOf(after.createdAt())).addValue("cursorId", after.id());
+            append(where, "(created_at < :cursorAt OR (created_at = :cursorAt AND id < :cursorId))");
+        }
+
+        // one extra row tells whether there is a next page
+        params.addValue("limit", limit + 1);
+        List<AuditLogDTO> rows = namedJdbcTemplate.query(
+                SELECT_COLUMNS + where + " ORDER BY created_at DESC, id DESC LIMIT :limit", params, ROW_MAPPER);
+        if (rows.size() <= limit)
+            return new AuditLogPage(rows, null);
+
+        List<AuditLogDTO> page = rows.subList(0, limit);
+        AuditLogDTO last = page.get(limit - 1);
+        return new AuditLogPage(List.copyOf(page), new Cursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public void export(AuditLogFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = SELECT_COLUMNS + where(filter, params) + " ORDER BY created_at, id";
+        long start = System.nanoTime();
+        long[] rows = {0};
+
+        try {
+            if (format == ExportFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                writer.write(CSV_HEADER);
+                streamingJdbcTemplate.query(sql, params, rs -> {
+                    writeCsvRow(writer, rs);
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0)
+                        flush(writer);
+                });
+                writer.flush();
+            } else {
+                JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+                generator.setRootValueSeparator(null);
+                streamingJdbcTemplate.query(sql, params, rs -> {
+                    writeJsonRow(generator, rs);
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0)
+                        flush(generator);
+                });
+                generator.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // usually the client going away; the cursor is closed on the way out
+            throw e.getCause();
+        } finally {
+            exports.increment();
+            exportedRows.add(rows[0]);
+            log.debug("Exported {} audit rows as {} in {} ms",
+                    rows[0], format, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    public long getExports() {
+        return exports.sum();
+    }
+
+    public long getExportedRows() {
+        return exportedRows.sum();
+    }
+
+    private static StringBuilder where(AuditLogFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder();
+        appendEquals(where, params, "user_id", "userId", filter.getUserId());
+        appendEquals(where, params, "action", "action", filter.getAction());
+        appendEquals(where, params, "entity_type", "entityType", filter.getEntityType());
+        appendEquals(where, params, "ip_address", "ipAddress", filter.getIpAddress());
+        if (filter.getFrom() != null) {
+            params.addValue("from", Timestamp.valueOf(filter.getFrom()));
+            append(where, "created_at >= :from");
+        }
+        if (filter.getTo() != null) {
+            params.addValue("to", Timestamp.valueOf(filter.getTo()));
+            append(where, "created_at < :to");
+        }
+        return where;
+    }
+
+    private static void appendEquals(StringBuilder where, MapSqlParameterSource params, String column, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            params.addValue(name, value.trim());
+            append(where, column + " = :" + name);
+        }
+    }
+
+    private static void append(StringBuilder where, String condition) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condition);
+    }
+
+    private static void writeJsonRow(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("action", rs.getString("action"));
+            generator.writeStringField("entityType", rs.getString("entity_type"));
+            generator.writeStringField("entityId", rs.getString("entity_id"));
+            generator.writeStringField("userId", rs.getString("user_id"));
+            generator.writeStringField("username", rs.getString("username"));
+            generator.writeStringField("details", rs.getString("details"));
+            generator.writeStringField("ipAddress", rs.getString("ip_address"));
+            generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            writer.write(Long.toString(rs.getLong("id")));
+            writeCsvField(writer, rs.getString("action"));
+            writeCsvField(writer, rs.getString("entity_type"));
+            writeCsvField(writer, rs.getString("entity_id"));
+            writeCsvField(writer, rs.getString("user_id"));
+            writeCsvField(writer, rs.getString("username"));
+            writeCsvField(writer, rs.getString("details"));
+            writeCsvField(writer, rs.getString("ip_address"));
+            writeCsvField(writer, rs.getTimestamp("created_at").toLocalDateTime().toString());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty())
+            return;
+
+        // keep spreadsheets from evaluating user-supplied values as formulas
+        boolean formula = "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        if (formula)
+            writer.write('\'');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void flush(Flushable flushable) {
+        try {
+            flushable.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new ApiException(ApiErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+}
@@ -11,6 +11,9 @@ import com.authkit.backend.infrastructure.auth.common.service.SessionService;
 import com.authkit.backend.infrastructure.user.service.UserService;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.pagination.CursorPage;
+import com.authkit.backend.shared.ratelimit.RateLimit;
+import com.authkit.backend.shared.ratelimit.RateLimitKey;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -37,6 +40,7 @@ public class AuthController {
         private final PasswordResetService passwordResetService;
         private final UserService userService;
 
+        @RateLimit(name = "register", capacity = 5, periodSeconds = 3600)
         @PostMapping("/register")
         @Operation(summary = "Register a new user", description = "Creates a new user account", responses = {
                         @ApiResponse(responseCode = "201", description = "Created - User successfully registered"),
@@ -46,6 +50,8 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(authService.register(request, httpRequest));
         }
 
+        @RateLimit(name = "login-ip", capacity = 20)
+        @RateLimit(name = "login-account", capacity = 5, key = {RateLimitKey.IP, RateLimitKey.EMAIL})
         @PostMapping("/login")
         @Operation(summary = "Authenticate user", description = "Authenticates the user", responses = {
                         @ApiResponse(responseCode = "200", description = "OK - Login successful"),
@@ -57,6 +63,7 @@ public class AuthController {
                 return ResponseEntity.ok(authService.login(request, httpRequest));
         }
 
+        @RateLimit(name = "availability", capacity = 30)
         @PostMapping("/validate-username")
         @Operation(summary = "Validate Username Availability", description = "Checks if the given username is available for registration. If the username is already taken, it returns an error.", responses = {
                         @ApiResponse(responseCode = "200", description = "OK - Username is available for registration"),
@@ -67,6 +74,7 @@ public class AuthController {
                 return ResponseEntity.ok().build();
         }
 
+        @RateLimit(name = "availability", capacity = 30)
         @PostMapping("/validate-email")
         @Operation(summary = "Validate Email Availability", description = "Checks if the given email is available for registration. If the email is already registered, it returns an error.", responses = {
                         @ApiResponse(responseCode = "200", description = "OK - Email is available for registration"),
@@ -77,6 +85,7 @@ public class AuthController {
                 return ResponseEntity.ok().build();
         }
 
+        @RateLimit(name = "refresh", capacity = 30)
         @PostMapping("/refresh")
         @Operation(summary = "Refresh access token", description = "Generates a new access token using a valid refresh token", responses = {
                         @ApiResponse(responseCode = "200", description = "OK - Token successfully refreshed"),
@@ -156,11 +165,33 @@ public class AuthController {
                 return ResponseEntity.ok(activeSessions);
         }
 
+        @GetMapping("/sessions/feed")
+        @Operation(summary = "Get active sessions by cursor", description = "Returns the active user sessions, newest first, without a total count. Pass nextCursor back as cursor to get the following page", responses = {
+                        @ApiResponse(responseCode = "200", description = "OK - Active sessions returned"),
+                        @ApiResponse(responseCode = "400", description = "Bad Request - Invalid cursor"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+        })
+        public ResponseEntity<CursorPage<SessionInfoResponse>> getActiveSessionFeed(@AuthenticationPrincipal UserDetails userDetails,
+                                                                                  HttpServletRequest httpRequest,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "20") int size) {
+                String authorizationHeader = httpRequest.getHeader("Authorization");
+                if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer "))
+                        throw new ApiException(ApiErrorCode.INVALID_ACCESS_TOKEN);
+                String currentAccessToken = authorizationHeader.substring(7);
+
+                return ResponseEntity.ok(sessionService.getActiveSessions(userDetails.getUsername(),
+                                currentAccessToken, cursor, size));
+        }
+
+        @RateLimit(name = "forgot-password-ip", capacity = 10, periodSeconds = 3600)
+        @RateLimit(name = "forgot-password-account", capacity = 3, periodSeconds = 3600, key = RateLimitKey.EMAIL)
         @PostMapping("/forgot-password")
         public void forgotPassword(@RequestBody ForgotPasswordRequest request) {
                 passwordResetService.handleForgotPassword(request.getEmail());
         }
 
+        @RateLimit(name = "reset-password", capacity = 10, periodSeconds = 3600)
         @PostMapping("/reset-password")
         public void resetPassword(@RequestBody ResetPasswordRequest request) {
                 PasswordResetToken token = passwordResetService.validateToken(request.getToken());
@@ -9,7 +9,11 @@ import com.authkit.backend.domain.model.UserToken;
 import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
 import com.authkit.backend.domain.repository.user.UserRepository;
 import com.authkit.backend.shared.security.JwtService;
+import com.authkit.backend.shared.security.PasswordUpgrader;
+import com.authkit.backend.shared.security.PrincipalCache;
+import com.authkit.backend.shared.security.TokenRevocationIndex;
 import com.authkit.backend.shared.security.UserDetailsImpl;
+import com.authkit.backend.shared.utils.HashUtil;
 import com.authkit.backend.shared.utils.LoginUtil;
 import com.authkit.backend.infrastructure.auth.common.dto.request.LoginRequest;
 import com.authkit.backend.infrastructure.auth.common.dto.request.RegisterRequest;
@@ -17,6 +21,7 @@ import com.authkit.backend.infrastructure.auth.common.dto.response.AuthResponse;
 import com.authkit.backend.infrastructure.auth.common.dto.response.TokensResponse;
 import com.authkit.backend.infrastructure.auth.verification.service.VerificationEmailService;
 import com.authkit.backend.infrastructure.utils.ValidationServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.domain.service.NotificationDomainService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.ArrayList;
@@ -38,14 +44,19 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserTokenRepository userTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordUpgrader passwordUpgrader;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final ValidationServiceHelper validationService;
     private final LoginUtil loginUtil;
     private final VerificationEmailService verificationEmailService;
     private final NotificationDomainService notificationDomainService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final PrincipalCache principalCache;
+    private final LoginAttemptService loginAttemptService;
 
     @Audited(action = "REGISTER", entityType = "USER")
+    @Transactional
     public TokensResponse register(RegisterRequest request, HttpServletRequest httpRequest) {
         validationService.validateEmail(request.getEmail());
         validationService.validateUsername(request.getUsername());
@@ -55,8 +66,9 @@ public class AuthService {
 
         User user = createUser(request);
         userRepository.save(user);
+        AuditContext.setActor(user);
         
-        // Send verification email
+        // Queued in this transaction, sent once it commits
         verificationEmailService.sendVerificationEmail(user);
 
         return generateAndPersistTokens(user, httpRequest);
@@ -64,18 +76,29 @@ public class AuthService {
 
     @Audited(action = "LOGIN", entityType = "USER")
     public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
+        String ip = httpRequest.getRemoteAddr();
+        String userAgent = httpRequest.getHeader("User-Agent");
+        loginAttemptService.checkNotBlocked(ip, request.getEmail());
+
         User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ApiException(ApiErrorCode.INVALID_CREDENTIALS));
+                .orElseThrow(() -> loginAttemptService.handleFailedLoginAttempt(ip, userAgent, request.getEmail()));
+        AuditContext.setActor(user);
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash()))
-            throw new ApiException(ApiErrorCode.INVALID_CREDENTIALS);
+            throw loginAttemptService.handleFailedLoginAttempt(ip, userAgent, request.getEmail());
+
+        loginAttemptService.clearLoginAttempts(ip, request.getEmail());
 
         if (user.getStatus() == UserStatus.DEACTIVATION_REQUESTED) {
             user.setStatus(UserStatus.ACTIVE);
             user.setDeletionRequestedAt(null);
             userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
         }
 
+        // after the last save of this entity, so it cannot write the old hash back
+        passwordUpgrader.upgradeIfNeeded(user, request.getPassword());
+
         // check if user has 2FA enabled
         boolean has2FA = user.getTwoFactorMethods().stream()
                 .anyMatch(method -> method.isEnabled() && method.isVerified());
@@ -131,19 +154,27 @@ public class AuthService {
     }
 
     private void updateAccessToken(String refreshToken, String newAccessToken, Date newAccessTokenExpiration) {
-        UserToken userToken = userTokenRepository.findByRefreshTokenAndRevokedFalse(refreshToken)
+        UserToken userToken = userTokenRepository.findByRefreshTokenHashAndRevokedFalse(HashUtil.sha256(refreshToken))
                 .orElseThrow(() -> new ApiException(ApiErrorCode.INVALID_REFRESH_TOKEN));
 
-        userToken.setAccessToken(newAccessToken);
+        byte[] previousAccessTokenHash = userToken.getAccessTokenHash();
+        Date previousAccessTokenExpiration = userToken.getAccessTokenExpiration();
+
+        userToken.setAccessTokenHash(HashUtil.sha256(newAccessToken));
         userToken.setAccessTokenExpiration(newAccessTokenExpiration);
         userToken.setUpdatedAt(new Date());
         userToken.setRevoked(false);
 
         userTokenRepository.save(userToken);
+
+        // the replaced access token is no longer attached to any session
+        tokenRevocationIndex.markRevoked(previousAccessTokenHash, previousAccessTokenExpiration);
+        tokenRevocationIndex.markLive(userToken.getAccessTokenHash(), newAccessTokenExpiration);
     }
 
     @Audited(action = "CREATE_SESSION", entityType = "USER")
     public TokensResponse generateAndPersistTokens(User user, HttpServletRequest httpRequest) {
+        AuditContext.setActor(user);
         UserDetailsImpl userDetails = new UserDetailsImpl(user);
         String accessToken = jwtService.generateToken(userDetails);
         String refreshToken = jwtService.generateRefreshToken(userDetails);
@@ -153,8 +184,8 @@ public class AuthService {
 
         UserToken userToken = new UserToken();
         userToken.setUser(user);
-        userToken.setAccessToken(accessToken);
-        userToken.setRefreshToken(refreshToken);
+        userToken.setAccessTokenHash(HashUtil.sha256(accessToken));
+        userToken.setRefreshTokenHash(HashUtil.sha256(refreshToken));
         userToken.setAccessTokenExpiration(accessTokenExpiration);
         userToken.setRefreshTokenExpiration(refreshTokenExpiration);
         userToken.setRevoked(false);
@@ -164,6 +195,7 @@ public class AuthService {
         userToken.setDeviceIp(httpRequest.getRemoteAddr());
 
         userTokenRepository.save(userToken);
+        tokenRevocationIndex.markLive(userToken.getAccessTokenHash(), accessTokenExpiration);
 
         /* 
         
@@ -4,56 +4,163 @@ import com.authkit.backend.domain.model.LoginAttempt;
 import com.authkit.backend.domain.repository.auth.common.LoginAttemptRepository;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
-import org.springframework.transaction.annotation.Transactional;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Brute-force tracking for the login endpoint.
+ * <p>
+ * Failure counts and blocks are held in memory, per (ip, email) and as a per-ip
+ * aggregate that catches one address trying many accounts. The login_attempt table is a
+ * write-behind copy of the (ip, email) counters, replayed on startup: failures are
+ * coalesced per key and flushed in batches as additive upserts, so flushes from several
+ * nodes add up instead of overwriting each other, and a successful login deletes the row.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class LoginAttemptService {
 
-    private final LoginAttemptRepository loginAttemptRepository;
+    private static final int FLUSH_BATCH_SIZE = 500;
 
-    @Transactional(noRollbackFor = ApiException.class)
-    public void handleFailedLoginAttempt(LoginAttempt loginAttempt) {
-        loginAttempt.setAttemptCount(loginAttempt.getAttemptCount() + 1);
-        loginAttempt.setLastAttemptAt(LocalDateTime.now());
+    private record AttemptKey(String ip, String email) {}
 
-        int waitSeconds = calculateWaitTime(loginAttempt.getAttemptCount());
-        if (waitSeconds > 0)
-            loginAttempt.setBlockedUntil(LocalDateTime.now().plusSeconds(waitSeconds));
+    private record AttemptState(int attempts, long lastAttemptAt, long blockedUntil, String userAgent) {}
 
-        loginAttemptRepository.save(loginAttempt);
+    private record IpState(int failures, long windowStart, long blockedUntil) {}
 
-        throw new ApiException(
-                ApiErrorCode.INVALID_CREDENTIALS,
-                Map.of("Retry-After", String.valueOf(waitSeconds))
-        );
+    // what the next flush has to write for a key: a delete, then the failures since
+    private record PendingWrite(boolean clear, int failures, long lastAttemptAt, long blockedUntil, String userAgent) {
+
+        static final PendingWrite CLEAR = new PendingWrite(true, 0, 0, 0, null);
+
+        PendingWrite then(PendingWrite next) {
+            if (next.clear())
+                return next;
+            return new PendingWrite(clear, failures + next.failures(),
+                    Math.max(lastAttemptAt, next.lastAttemptAt()),
+                    Math.max(blockedUntil, next.blockedUntil()),
+                    next.userAgent());
+        }
     }
 
-    private LoginAttempt createNewLoginAttempt(String ip, String userAgent, String email) {
-        LoginAttempt attempt = new LoginAttempt();
-        attempt.setIp(ip);
-        attempt.setUserAgent(userAgent);
-        attempt.setEmail(email);
-        attempt.setAttemptCount(0);
-        attempt.setLastAttemptAt(LocalDateTime.now());
-        attempt.setBlockedUntil(null);
-        return loginAttemptRepository.save(attempt);
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEntries;
+    private final long retentionMillis;
+    private final int ipMaxFailures;
+    private final long ipWindowMillis;
+    private final long ipBlockMillis;
+
+    private final Map<AttemptKey, AttemptState> attempts = new ConcurrentHashMap<>();
+    private final Map<String, IpState> ips = new ConcurrentHashMap<>();
+    private final Map<AttemptKey, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LoginAttemptService(LoginAttemptRepository loginAttemptRepository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.login-attempts.max-entries:100000}") int maxEntries,
+                               @Value("${app.login-attempts.retention-hours:24}") long retentionHours,
+                               @Value("${app.login-attempts.ip-max-failures:50}") int ipMaxFailures,
+                               @Value("${app.login-attempts.ip-window-seconds:600}") long ipWindowSeconds,
+                               @Value("${app.login-attempts.ip-block-seconds:900}") long ipBlockSeconds) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+        this.retentionMillis = retentionHours * 3_600_000;
+        this.ipMaxFailures = ipMaxFailures;
+        this.ipWindowMillis = ipWindowSeconds * 1000;
+        this.ipBlockMillis = ipBlockSeconds * 1000;
+    }
+
+    /**
+     * @throws ApiException {@link ApiErrorCode#TOO_MANY_LOGIN_ATTEMPTS} while the account
+     *                      or the address is blocked
+     */
+    public void checkNotBlocked(String ip, String email) {
+        long now = System.currentTimeMillis();
+        long blockedUntil = 0;
+
+        AttemptState state = attempts.get(key(ip, email));
+        if (state != null)
+            blockedUntil = state.blockedUntil();
+
+        IpState ipState = ips.get(ip);
+        if (ipState != null)
+            blockedUntil = Math.max(blockedUntil, ipState.blockedUntil());
+
+        if (blockedUntil > now) {
+            long waitSeconds = (blockedUntil - now + 999) / 1000;
+            throw new ApiException(ApiErrorCode.TOO_MANY_LOGIN_ATTEMPTS, Map.of("Retry-After", String.valueOf(waitSeconds)));
+        }
     }
 
-    public LoginAttempt getOrCreateLoginAttempt(String ip, String userAgent, String email) {
-        return loginAttemptRepository
-                .findByIpAndUserAgentAndEmail(ip, userAgent, email)
-                .orElseGet(() -> createNewLoginAttempt(ip, userAgent, email));
+    /**
+     * Counts a failed login from the address for the account.
+     *
+     * @return {@link ApiErrorCode#INVALID_CREDENTIALS} with the wait before the next attempt,
+     *         for the caller to throw
+     */
+    public ApiException handleFailedLoginAttempt(String ip, String userAgent, String email) {
+        long now = System.currentTimeMillis();
+        AttemptKey key = key(ip, email);
+
+        if (!attempts.containsKey(key))
+            makeRoom();
+
+        AttemptState state = attempts.compute(key, (k, existing) -> {
+            int count = existing == null ? 1 : existing.attempts() + 1;
+            int waitSeconds = calculateWaitTime(count);
+            long blockedUntil = waitSeconds > 0 ? now + waitSeconds * 1000L : 0;
+            return new AttemptState(count, now, blockedUntil, Objects.requireNonNullElse(userAgent, ""));
+        });
+        pending.merge(key, new PendingWrite(false, 1, now, state.blockedUntil(), state.userAgent()), PendingWrite::then);
+
+        ips.compute(ip, (k, existing) -> {
+            if (existing == null || now - existing.windowStart() >= ipWindowMillis)
+                return new IpState(1, now, existing == null ? 0 : existing.blockedUntil());
+            int failures = existing.failures() + 1;
+            long blockedUntil = failures >= ipMaxFailures ? now + ipBlockMillis : existing.blockedUntil();
+            return new IpState(failures, existing.windowStart(), blockedUntil);
+        });
+
+        return new ApiException(
+                ApiErrorCode.INVALID_CREDENTIALS,
+                Map.of("Retry-After", String.valueOf(calculateWaitTime(state.attempts())))
+        );
     }
 
-    @Transactional
     public void clearLoginAttempts(String ip, String email) {
-        loginAttemptRepository.deleteAllByIpAndEmail(ip, email);
+        AttemptKey key = key(ip, email);
+        // nothing to write when the account had no failures from this address
+        if (attempts.remove(key) != null)
+            pending.put(key, PendingWrite.CLEAR);
     }
 
     int calculateWaitTime(int attempts) {
@@ -68,4 +175,164 @@ public class LoginAttemptService {
             default -> 86400;
         };
     }
+
+    public int size() {
+        return attempts.size();
+    }
+
+    public int getPendingWrites() {
+        return pending.size();
+    }
+
+    public long getFlushedRows() {
+        return flushedRows.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LoginAttempt> snapshot = loginAttemptRepository
+                .findByLastAttemptAtAfterOrBlockedUntilAfter(now.minus(Duration.ofMillis(retentionMillis)), now);
+
+        for (LoginAttempt row : snapshot) {
+            AttemptState state = new AttemptState(
+                    row.getAttemptCount(),
+                    toMillis(row.getLastAttemptAt()),
+                    row.getBlockedUntil() == null ? 0 : toMillis(row.getBlockedUntil()),
+                    row.getUserAgent()
+            );
+            // older snapshots may hold one row per user agent; keep the worst
+            attempts.merge(key(row.getIp(), row.getEmail()), state,
+                    (a, b) -> a.attempts() >= b.attempts() ? a : b);
+        }
+        log.info("Replayed {} login attempt counters from {} rows", attempts.size(), snapshot.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-attempts.flush-ms:2000}")
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            Map<AttemptKey, PendingWrite> batch = new HashMap<>();
+            Iterator<AttemptKey> it = pending.keySet().iterator();
+            while (it.hasNext() && batch.size() < FLUSH_BATCH_SIZE) {
+                AttemptKey key = it.next();
+                PendingWrite write = pending.remove(key);
+                if (write != null)
+                    batch.put(key, write);
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // put the writes back in front of whatever arrived meanwhile, the next run retries them
+                batch.forEach((key, write) -> pending.merge(key, write, (newer, failed) -> failed.then(newer)));
+                log.warn("Could not flush {} login attempt counters: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        attempts.entrySet().removeIf(entry -> {
+            AttemptState state = entry.getValue();
+            boolean expired = state.blockedUntil() <= now && now - state.lastAttemptAt() >= retentionMillis;
+            if (expired)
+                evictions.increment();
+            return expired;
+        });
+        ips.values().removeIf(state -> state.blockedUntil() <= now && now - state.windowStart() >= ipWindowMillis);
+
+        // rows are shared with the other nodes, so they expire by their own timestamps
+        Timestamp nowTs = new Timestamp(now);
+        try {
+            jdbcTemplate.update("DELETE FROM login_attempt WHERE last_attempt_at < ? AND (blocked_until IS NULL OR blocked_until <= ?)",
+                    new Timestamp(now - retentionMillis), nowTs);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete expired login attempt rows: {}", e.getMessage());
+        }
+
+        log.debug("Login attempts: size={}, ips={}, pending={}, flushed={}, evictions={}",
+                size(), ips.size(), getPendingWrites(), getFlushedRows(), getEvictions());
+    }
+
+    // a delete for keys cleared since the last flush, then one additive upsert per key with new failures
+    private void writeBatch(Map<AttemptKey, PendingWrite> batch) {
+        List<Object[]> deletes = new ArrayList<>(batch.size());
+        List<Object[]> upserts = new ArrayList<>(batch.size());
+
+        batch.forEach((key, write) -> {
+            if (write.clear())
+                deletes.add(new Object[]{key.ip(), key.email()});
+            if (write.failures() > 0) {
+                Timestamp lastAttemptAt = new Timestamp(write.lastAttemptAt());
+                Timestamp blockedUntil = write.blockedUntil() == 0 ? null : new Timestamp(write.blockedUntil());
+                upserts.add(new Object[]{
+                        UUID.randomUUID().toString(),
+                        key.email(),
+                        key.ip(),
+                        write.userAgent(),
+                        write.failures(),
+                        lastAttemptAt,
+                        blockedUntil,
+                        write.userAgent(),
+                        write.failures(),
+                        lastAttemptAt,
+                        blockedUntil,
+                        blockedUntil
+                });
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deletes.isEmpty())
+                jdbcTemplate.batchUpdate("DELETE FROM login_attempt WHERE ip = ? AND email = ?", deletes);
+            if (!upserts.isEmpty())
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO login_attempt (id, email, ip, user_agent, attempt_count, last_attempt_at, blocked_until) "
+                                + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                                + "ON DUPLICATE KEY UPDATE user_agent = ?, "
+                                + "attempt_count = attempt_count + ?, "
+                                + "last_attempt_at = GREATEST(last_attempt_at, ?), "
+                                // GREATEST is NULL if either side is, so fall back to whichever is set
+                                + "blocked_until = COALESCE(GREATEST(blocked_until, ?), blocked_until, ?)",
+                        upserts);
+        });
+        flushedRows.add(batch.size());
+    }
+
+    private void makeRoom() {
+        if (attempts.size() < maxEntries)
+            return;
+
+        // blocked keys are the ones worth keeping, and keys with unflushed failures must stay
+        // until the next flush has counted them; the table still holds the rest. If everything
+        // left is dirty the map runs over its bound until that flush, at most flush-ms later.
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<AttemptKey, AttemptState>> it = attempts.entrySet().iterator();
+        while (attempts.size() >= maxEntries && it.hasNext()) {
+            Map.Entry<AttemptKey, AttemptState> entry = it.next();
+            if (entry.getValue().blockedUntil() > now || pending.containsKey(entry.getKey()))
+                continue;
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static AttemptKey key(String ip, String email) {
+        return new AttemptKey(ip, email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
@@ -2,13 +2,16 @@ package com.authkit.backend.infrastructure.auth.common.service;
 
 import com.authkit.backend.domain.model.PasswordResetToken;
 import com.authkit.backend.domain.repository.auth.common.PasswordResetTokenRepository;
+import com.authkit.backend.domain.repository.user.UserRepository;
 import com.authkit.backend.infrastructure.utils.EmailServiceHelper;
 import com.authkit.backend.infrastructure.utils.ResetLinkBuilderHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -20,14 +23,15 @@ public class PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final ResetLinkBuilderHelper resetLinkBuilderHelper;
     private final EmailServiceHelper emailService;
+    private final UserRepository userRepository;
 
     @Audited(action = "REQUEST_PASSWORD_RESET", entityType = "USER")
+    @Transactional
     public void handleForgotPassword(String email) {
+        userRepository.findByEmail(email).ifPresent(AuditContext::setActor);
         PasswordResetToken token = createToken(email);
         String resetLink = resetLinkBuilderHelper.buildResetPasswordLink(token.getToken());
-
-        String message = "Click the link to reset your password: " + resetLink;
-        emailService.sendEmail(email, "Password Reset", message);
+        emailService.sendPasswordResetEmail(email, resetLink);
     }
 
     public PasswordResetToken createToken(String email) {
@@ -5,12 +5,21 @@ import com.authkit.backend.domain.model.UserToken;
 import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
 import com.authkit.backend.infrastructure.auth.common.dto.response.SessionInfoResponse;
 import com.authkit.backend.infrastructure.utils.UserServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.pagination.CursorPage;
+import com.authkit.backend.shared.pagination.KeysetCursor;
+import com.authkit.backend.shared.security.TokenRevocationIndex;
+import com.authkit.backend.shared.utils.HashUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -21,47 +30,78 @@ public class SessionService {
 
     private final UserTokenRepository userTokenRepository;
     private final UserServiceHelper userServiceHelper;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     public List<SessionInfoResponse> getActiveSessions(String email, String currentAccessToken) {
         User user = userServiceHelper.getActiveUserByEmail(email);
         List<UserToken> tokens = userTokenRepository.findAllByUserAndRevokedFalse(user);
+        byte[] currentAccessTokenHash = HashUtil.sha256(currentAccessToken);
         return tokens.stream()
                 .map(token -> new SessionInfoResponse(
                         token.getId().toString(),
                         token.getCreatedAt().toString(),
                         token.getDeviceIp(),
                         token.getDeviceInfo(),
-                        token.getAccessToken().equals(currentAccessToken)
+                        Arrays.equals(token.getAccessTokenHash(), currentAccessTokenHash)
                 ))
                 .toList();
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getActiveSessions(String, String)}, newest first.
+     */
+    public CursorPage<SessionInfoResponse> getActiveSessions(String email, String currentAccessToken, String cursor, int size) {
+        User user = userServiceHelper.getActiveUserByEmail(email);
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        int limit = CursorPage.limit(size);
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+
+        List<UserToken> tokens = before == null
+                ? userTokenRepository.findLatestByUserAndRevokedFalse(user, firstRows)
+                : userTokenRepository.findByUserAndRevokedFalseBefore(user, Timestamp.valueOf(before.createdAt()), before.id(), firstRows);
+        byte[] currentAccessTokenHash = HashUtil.sha256(currentAccessToken);
+        return CursorPage.of(tokens, limit,
+                token -> new KeysetCursor(toLocalDateTime(token.getCreatedAt()), token.getId()),
+                token -> new SessionInfoResponse(
+                        token.getId().toString(),
+                        token.getCreatedAt().toString(),
+                        token.getDeviceIp(),
+                        token.getDeviceInfo(),
+                        Arrays.equals(token.getAccessTokenHash(), currentAccessTokenHash)
+                ));
+    }
+
     @Audited(action = "REVOKE_CURRENT_SESSION", entityType = "USER")
     public void revokeCurrentSession(String accessToken) {
-        UserToken userToken = userTokenRepository.findByAccessTokenAndRevokedFalse(accessToken)
+        UserToken userToken = userTokenRepository.findByAccessTokenHashAndRevokedFalse(HashUtil.sha256(accessToken))
                 .orElseThrow(() -> new ApiException(ApiErrorCode.INVALID_ACCESS_TOKEN));
+        AuditContext.setActor(userToken.getUser());
+        AuditContext.setEntityId(userToken.getId().toString());
 
         userToken.setRevoked(true);
         userToken.setUpdatedAt(new Date());
 
         userTokenRepository.save(userToken);
+        tokenRevocationIndex.markRevoked(userToken.getAccessTokenHash(), userToken.getAccessTokenExpiration());
     }
 
     @Audited(action = "REVOKE_SPECIFIC_SESSION", entityType = "USER")
     public void revokeSpecificSession(UUID sessionId, String email, String currentAccessToken) {
         User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
         UserToken userSession = getActiveSessionById(sessionId);
 
         if (!userSession.getUser().equals(user))
             throw new ApiException(ApiErrorCode.FORBIDDEN_ACTION);
 
-        if (userSession.getAccessToken().equals(currentAccessToken))
+        if (Arrays.equals(userSession.getAccessTokenHash(), HashUtil.sha256(currentAccessToken)))
             throw new ApiException(ApiErrorCode.CANNOT_REVOKE_OWN_SESSION);
 
         userSession.setRevoked(true);
         userSession.setUpdatedAt(new Date());
 
         userTokenRepository.save(userSession);
+        tokenRevocationIndex.markRevoked(userSession.getAccessTokenHash(), userSession.getAccessTokenExpiration());
     }
 
     public UserToken getActiveSessionById(UUID sessionId) {
@@ -72,20 +112,24 @@ public class SessionService {
     @Audited(action = "LOGOUT_ALL_BUT_CURRENT", entityType = "USER")
     public void logoutAllSessions(String email,String currentAccessToken) {
         User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
         List<UserToken> activeTokens = userTokenRepository.findAllByUserAndRevokedFalse(user);
+        byte[] currentAccessTokenHash = HashUtil.sha256(currentAccessToken);
 
         for (UserToken token : activeTokens) {
-            if (!token.getAccessToken().equals(currentAccessToken)) {
+            if (!Arrays.equals(token.getAccessTokenHash(), currentAccessTokenHash)) {
                 token.setRevoked(true);
                 token.setUpdatedAt(new Date());
             }
         }
 
         userTokenRepository.saveAll(activeTokens);
+        markRevoked(activeTokens);
     }
 
     @Audited(action = "REVOKE_ALL_SESSIONS", entityType = "USER")
     public void revokeAllUserSessions(User user) {
+        AuditContext.setActor(user);
         List<UserToken> activeTokens = userTokenRepository.findAllByUserAndRevokedFalse(user);
 
         for (UserToken token : activeTokens) {
@@ -94,5 +138,20 @@ public class SessionService {
         }
 
         userTokenRepository.saveAll(activeTokens);
+        markRevoked(activeTokens);
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        // loaded tokens carry a Timestamp, which keeps the sub-millisecond part the cursor needs
+        if (date instanceof Timestamp timestamp)
+            return timestamp.toLocalDateTime();
+        return new Timestamp(date.getTime()).toLocalDateTime();
+    }
+
+    private void markRevoked(List<UserToken> tokens) {
+        for (UserToken token : tokens) {
+            if (token.isRevoked())
+                tokenRevocationIndex.markRevoked(token.getAccessTokenHash(), token.getAccessTokenExpiration());
+        }
     }
 }
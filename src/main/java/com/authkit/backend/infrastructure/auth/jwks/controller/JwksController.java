@@ -0,0 +1,32 @@
+package com.authkit.backend.infrastructure.auth.jwks.controller;
+
+import com.authkit.backend.shared.security.SigningKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for verifying access tokens")
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "Get JSON Web Key Set", description = "Returns the public keys that can verify tokens issued by this server. Empty when tokens are signed with a shared secret.", responses = {
+            @ApiResponse(responseCode = "200", description = "OK - Key set returned")
+    })
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(SigningKeyRing.PUBLISH_AHEAD).cachePublic())
+                .body(Map.of("keys", signingKeyRing.publicJwks()));
+    }
+}
@@ -5,6 +5,9 @@ import com.authkit.backend.infrastructure.auth.common.dto.response.TokensRespons
 import com.authkit.backend.infrastructure.auth.passkey.dto.*;
 import com.authkit.backend.infrastructure.auth.passkey.service.PasskeyService;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
+import com.authkit.backend.shared.pagination.CursorPage;
+import com.authkit.backend.shared.ratelimit.RateLimit;
+import com.authkit.backend.shared.ratelimit.RateLimitKey;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -65,6 +68,8 @@ public class PasskeyController {
         return ResponseEntity.ok().build();
     }
 
+    @RateLimit(name = "passkey-verify-ip", capacity = 20)
+    @RateLimit(name = "passkey-verify-account", capacity = 5, key = RateLimitKey.EMAIL)
     @PostMapping("/verify/start")
     @Operation(
         summary = "Start passkey verification",
@@ -81,6 +86,7 @@ public class PasskeyController {
         return ResponseEntity.ok(passkeyService.startVerification(request.getEmail()));
     }
 
+    @RateLimit(name = "passkey-verify-finish", capacity = 10, key = RateLimitKey.USER)
     @PostMapping("/verify/finish")
     @PreAuthorize("isAuthenticated()")
     @Operation(
@@ -116,6 +122,25 @@ public class PasskeyController {
             .map(PasskeyResponse::fromEntity));
     }
 
+    @GetMapping("/feed")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "List passkeys by cursor",
+        description = "Returns the authenticated user's passkeys, newest first, without a total count. Pass nextCursor back as cursor to get the following page",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "OK - Passkeys returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - User not authenticated")
+        }
+    )
+    public ResponseEntity<CursorPage<PasskeyResponse>> listPasskeyFeed(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(passkeyService.listPasskeys(cursor, size)
+            .map(PasskeyResponse::fromEntity));
+    }
+
     @DeleteMapping
     @PreAuthorize("isAuthenticated()")
     @Operation(
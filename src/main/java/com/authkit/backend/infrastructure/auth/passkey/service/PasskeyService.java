@@ -8,9 +8,12 @@ import com.authkit.backend.infrastructure.auth.common.dto.response.TokensRespons
 import com.authkit.backend.infrastructure.auth.common.service.AuthService;
 import com.authkit.backend.infrastructure.auth.passkey.dto.*;
 import com.authkit.backend.infrastructure.utils.UserServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.pagination.CursorPage;
+import com.authkit.backend.shared.pagination.KeysetCursor;
 import com.authkit.backend.shared.security.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -75,6 +79,7 @@ public class PasskeyService {
     public PasskeyRegistrationResponse startRegistration(PasskeyRegistrationRequest request) {
         log.debug("Starting passkey registration for request: {}", request);
         User user = getAuthenticatedUser();
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         String challenge = generateChallenge();
@@ -94,6 +99,7 @@ public class PasskeyService {
     @Transactional
     public void finishRegistration(String credentialId, String publicKey, String deviceName, String deviceType) {
         User user = getAuthenticatedUser();
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         Passkey passkey = new Passkey();
@@ -110,6 +116,7 @@ public class PasskeyService {
     @Audited(action = "START_PASSKEY_VERIFICATION", entityType = "USER")
     public PasskeyVerificationResponse startVerification(String email) {
         User user = userServiceHelper.getUserByEmail(email);
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         // Get all enabled passkeys for the user
@@ -141,6 +148,7 @@ public class PasskeyService {
         }
 
         User user = passkey.getUser();
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         // Update last used timestamp
@@ -154,14 +162,27 @@ public class PasskeyService {
     @Audited(action = "LIST_PASSKEYS", entityType = "USER")
     public Page<Passkey> listPasskeys(Pageable pageable) {
         User user = getAuthenticatedUser();
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
         return passkeyRepository.findByUserAndEnabledTrue(user, pageable);
     }
 
+    @Audited(action = "LIST_PASSKEYS", entityType = "USER")
+    public CursorPage<Passkey> listPasskeys(String cursor, int size) {
+        User user = getAuthenticatedUser();
+        AuditContext.setActor(user);
+        userServiceHelper.checkUserStatus(user);
+
+        int limit = CursorPage.limit(size);
+        List<Passkey> rows = passkeyRepository.findByUserAndEnabledTrueBefore(user, KeysetCursor.decode(cursor), limit + 1);
+        return CursorPage.of(rows, limit, p -> new KeysetCursor(p.getCreatedAt(), p.getId()), p -> p);
+    }
+
     @Audited(action = "DELETE_PASSKEY", entityType = "USER")
     @Transactional
     public void deletePasskey(PasskeyDeleteRequest request) {
         User user = getAuthenticatedUser();
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         Passkey passkey = passkeyRepository.findByIdAndUserAndEnabledTrue(request.getPasskeyId(), user)
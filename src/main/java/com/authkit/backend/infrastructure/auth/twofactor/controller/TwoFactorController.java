@@ -13,6 +13,8 @@ import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorSetupReque
 import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorSetupResponse;
 import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorVerificationRequest;
 import com.authkit.backend.infrastructure.auth.twofactor.service.TwoFactorService;
+import com.authkit.backend.shared.ratelimit.RateLimit;
+import com.authkit.backend.shared.ratelimit.RateLimitKey;
 
 import java.util.List;
 
@@ -31,6 +33,7 @@ public class TwoFactorController {
         return ResponseEntity.ok(twoFactorService.setup2FA(request, httpRequest));
     }
 
+    @RateLimit(name = "two-factor-verify", capacity = 5, periodSeconds = 300, key = RateLimitKey.USER)
     @PostMapping("/verify")
     public ResponseEntity<TokensResponse> verify2FA(
             @RequestBody TwoFactorVerificationRequest request,
@@ -38,6 +41,7 @@ public class TwoFactorController {
         return ResponseEntity.ok(twoFactorService.verify2FA(request, httpRequest));
     }
 
+    @RateLimit(name = "two-factor-disable", capacity = 5, periodSeconds = 300, key = RateLimitKey.USER)
     @PostMapping("/disable")
     public ResponseEntity<Void> disable2FA(
             @RequestBody RemoveTwoFactorRequest request, HttpServletRequest httpRequest) {
@@ -11,6 +11,7 @@ import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorMethodResp
 import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorSetupRequest;
 import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorSetupResponse;
 import com.authkit.backend.infrastructure.auth.twofactor.dto.TwoFactorVerificationRequest;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
@@ -45,6 +46,7 @@ public class TwoFactorService {
         String username = jwtService.extractUsernameFromRequest(httpRequest);
         User user = userRepository.findByEmail(username)
             .orElseThrow(() -> new ApiException(ApiErrorCode.AUTH_EMAIL_NOT_FOUND));
+        AuditContext.setActor(user);
 
         // Check if method is already enabled
         Optional<UserTwoFactorMethod> existingMethod = user.getTwoFactorMethods().stream()
@@ -105,6 +107,7 @@ public class TwoFactorService {
 
         User user = userRepository.findByEmail(username)
             .orElseThrow(() -> new ApiException(ApiErrorCode.AUTH_EMAIL_NOT_FOUND));
+        AuditContext.setActor(user);
 
         // Try to find a method that needs verification (setup)
         Optional<UserTwoFactorMethod> totpMethodOpt = user.getTwoFactorMethods().stream()
@@ -146,6 +149,7 @@ public class TwoFactorService {
         String username = jwtService.extractUsernameFromRequest(httpRequest);
         User user = userRepository.findByEmail(username)
             .orElseThrow(() -> new ApiException(ApiErrorCode.AUTH_EMAIL_NOT_FOUND));
+        AuditContext.setActor(user);
 
         // Find the method to disable
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) 
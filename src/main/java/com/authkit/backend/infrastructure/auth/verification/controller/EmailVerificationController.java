@@ -7,6 +7,8 @@ import com.authkit.backend.infrastructure.auth.verification.dto.response.ResendV
 import com.authkit.backend.infrastructure.auth.verification.service.EmailVerificationService;
 import com.authkit.backend.shared.dto.response.ApiResponse;
 import com.authkit.backend.shared.security.JwtService;
+import com.authkit.backend.shared.ratelimit.RateLimit;
+import com.authkit.backend.shared.ratelimit.RateLimitKey;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +28,7 @@ public class EmailVerificationController {
     private final EmailVerificationService emailVerificationService;
     private final JwtService jwtService;
 
+    @RateLimit(name = "verify-email-token", capacity = 10)
     @PostMapping("/token")
     public ResponseEntity<TokensResponse> verifyEmail(
             @Valid @RequestBody VerifyEmailTokenRequest request,
@@ -33,6 +36,7 @@ public class EmailVerificationController {
         return ResponseEntity.ok(emailVerificationService.verifyEmail(request.getToken(), httpRequest));
     }
 
+    @RateLimit(name = "verify-email-code", capacity = 5, periodSeconds = 300, key = RateLimitKey.USER)
     @PostMapping("/code")
     public ResponseEntity<Void> verifyEmailWithCode(
             @Valid @RequestBody VerifyEmailCodeRequest request,
@@ -42,6 +46,7 @@ public class EmailVerificationController {
         return ResponseEntity.ok().build();
     }
 
+    @RateLimit(name = "verify-email-resend", capacity = 5, periodSeconds = 3600, key = RateLimitKey.USER)
     @PostMapping("/resend")
     public ResponseEntity<ApiResponse<ResendVerificationResponse>> resendVerificationEmail(HttpServletRequest request) {
         String email = jwtService.extractUsernameFromRequest(request);
@@ -11,8 +11,10 @@ import com.authkit.backend.domain.repository.user.UserRepository;
 import com.authkit.backend.shared.exception.ApiException;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.security.JwtService;
+import com.authkit.backend.shared.security.PrincipalCache;
 import com.authkit.backend.infrastructure.auth.common.dto.response.TokensResponse;
 import com.authkit.backend.infrastructure.auth.common.service.AuthService;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.domain.service.NotificationDomainService;
 
@@ -36,6 +38,7 @@ public class EmailVerificationService {
     private final AuthService authService;
     private final VerificationEmailService verificationEmailService;
     private final NotificationDomainService notificationDomainService;
+    private final PrincipalCache principalCache;
     private static final int TOKEN_EXPIRATION_HOURS = 24;
 
     // Retry-after durations in seconds
@@ -52,6 +55,7 @@ public class EmailVerificationService {
 
     @Audited(action = "SEND_VERIFICATION_EMAIL", entityType = "USER")
     public void sendVerificationEmail(User user) {
+        AuditContext.setActor(user);
         verificationEmailService.sendVerificationEmail(user);
     }
 
@@ -65,6 +69,7 @@ public class EmailVerificationService {
 
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new ApiException(ApiErrorCode.USER_NOT_FOUND));
+        AuditContext.setActor(user);
 
         if (user.getStatus() == UserStatus.ACTIVE) {
             throw new ApiException(ApiErrorCode.ACCOUNT_ALREADY_VERIFIED);
@@ -79,6 +84,7 @@ public class EmailVerificationService {
 
         user.setStatus(UserStatus.ACTIVE);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         createVerifiedNotification(user);
 
@@ -96,6 +102,7 @@ public class EmailVerificationService {
     public void verifyEmailWithCode(String email, String code) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new ApiException(ApiErrorCode.USER_NOT_FOUND));
+        AuditContext.setActor(user);
 
         if (user.getStatus() == UserStatus.ACTIVE) {
             throw new ApiException(ApiErrorCode.ACCOUNT_ALREADY_VERIFIED);
@@ -114,6 +121,7 @@ public class EmailVerificationService {
 
         user.setStatus(UserStatus.ACTIVE);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         createVerifiedNotification(user);
 
@@ -137,6 +145,7 @@ public class EmailVerificationService {
     public Map<String, Object> resendVerificationEmail(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new ApiException(ApiErrorCode.USER_NOT_FOUND));
+        AuditContext.setActor(user);
 
         if (user.getStatus() != UserStatus.PENDING_VERIFICATION) {
             throw new ApiException(ApiErrorCode.ACCOUNT_NOT_VERIFIED);
@@ -5,13 +5,10 @@ import com.authkit.backend.domain.model.VerificationToken;
 import com.authkit.backend.domain.repository.auth.verification.VerificationTokenRepository;
 import com.authkit.backend.infrastructure.utils.EmailServiceHelper;
 import com.authkit.backend.infrastructure.utils.VerificationLinkBuilderHelper;
-import com.authkit.backend.shared.exception.ApiException;
-import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.mail.MailException;
-import jakarta.mail.MessagingException;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -27,6 +24,7 @@ public class VerificationEmailService {
     private static final int VERIFICATION_CODE_LENGTH = 6;
     private static final int TOKEN_EXPIRATION_HOURS = 24;
 
+    @Transactional
     public void sendVerificationEmail(User user) {
         String verificationToken = jwtService.generateVerificationToken(user);
         String verificationCode = generateVerificationCode();
@@ -56,17 +54,13 @@ public class VerificationEmailService {
     }
 
     private void sendVerificationEmail(User user, String verificationToken, String verificationCode) {
-        try {
-            String verificationUrl = verificationLinkBuilderHelper.buildVerificationLink(verificationToken);
-            
-            emailService.sendVerificationEmail(
-                user.getEmail(),
-                user.getName(),
-                verificationUrl,
-                verificationCode
-            );
-        } catch (MailException | MessagingException e) {
-            throw new ApiException(ApiErrorCode.INTERNAL_ERROR);
-        }
+        String verificationUrl = verificationLinkBuilderHelper.buildVerificationLink(verificationToken);
+
+        emailService.sendVerificationEmail(
+            user.getEmail(),
+            user.getName(),
+            verificationUrl,
+            verificationCode
+        );
     }
 } 
\ No newline at end of file
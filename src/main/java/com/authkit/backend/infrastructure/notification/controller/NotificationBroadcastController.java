@@ -0,0 +1,63 @@
+package com.authkit.backend.infrastructure.notification.controller;
+
+import com.authkit.backend.infrastructure.notification.dto.BroadcastRequest;
+import com.authkit.backend.infrastructure.notification.dto.NotificationBroadcastDTO;
+import com.authkit.backend.infrastructure.notification.service.NotificationBroadcastService;
+import com.authkit.backend.shared.dto.response.ApiResponse;
+import com.authkit.backend.shared.security.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/admin/notifications/broadcasts")
+@RequiredArgsConstructor
+@Tag(name = "Notification broadcasts", description = "Administrator endpoints for notifying many users at once")
+public class NotificationBroadcastController {
+
+    private final NotificationBroadcastService broadcastService;
+    private final JwtService jwtService;
+
+    @PostMapping
+    @Operation(
+            summary = "Broadcast a notification",
+            description = "Queues a notification for every selected user and returns at once. Poll the broadcast to follow its progress."
+    )
+    public ResponseEntity<ApiResponse<NotificationBroadcastDTO>> broadcast(
+            HttpServletRequest request,
+            @RequestBody BroadcastRequest broadcastRequest) {
+        String email = jwtService.extractUsernameFromRequest(request);
+        NotificationBroadcastDTO broadcast = NotificationBroadcastDTO.fromEntity(broadcastService.broadcast(email, broadcastRequest));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(broadcast));
+    }
+
+    @GetMapping("/{broadcastId}")
+    @Operation(summary = "Get broadcast progress")
+    public ResponseEntity<ApiResponse<NotificationBroadcastDTO>> getBroadcast(@PathVariable UUID broadcastId) {
+        return ResponseEntity.ok(ApiResponse.success(NotificationBroadcastDTO.fromEntity(broadcastService.getBroadcast(broadcastId))));
+    }
+
+    @PostMapping("/{broadcastId}/cancel")
+    @Operation(summary = "Cancel a broadcast", description = "Users notified so far keep their notification.")
+    public ResponseEntity<ApiResponse<NotificationBroadcastDTO>> cancelBroadcast(
+            HttpServletRequest request,
+            @PathVariable UUID broadcastId) {
+        String email = jwtService.extractUsernameFromRequest(request);
+        return ResponseEntity.ok(ApiResponse.success(NotificationBroadcastDTO.fromEntity(broadcastService.cancelBroadcast(email, broadcastId))));
+    }
+
+    @PostMapping("/{broadcastId}/resume")
+    @Operation(summary = "Resume a failed broadcast", description = "Continues after the last user that was notified.")
+    public ResponseEntity<ApiResponse<NotificationBroadcastDTO>> resumeBroadcast(
+            HttpServletRequest request,
+            @PathVariable UUID broadcastId) {
+        String email = jwtService.extractUsernameFromRequest(request);
+        return ResponseEntity.ok(ApiResponse.success(NotificationBroadcastDTO.fromEntity(broadcastService.resumeBroadcast(email, broadcastId))));
+    }
+}
@@ -1,19 +1,24 @@
 package com.authkit.backend.infrastructure.notification.controller;
 
 import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.infrastructure.notification.dto.AffectedCountDTO;
 import com.authkit.backend.infrastructure.notification.dto.NotificationDTO;
 import com.authkit.backend.infrastructure.notification.dto.UnreadCountDTO;
 import com.authkit.backend.infrastructure.notification.service.NotificationService;
 import com.authkit.backend.shared.dto.response.ApiResponse;
+import com.authkit.backend.shared.pagination.CursorPage;
 import com.authkit.backend.shared.security.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -38,6 +43,20 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(notificationDTOs));
     }
 
+    @GetMapping("/feed")
+    @Operation(
+            summary = "List notifications by cursor",
+            description = "Returns the user's notifications, newest first, without a total count. Pass nextCursor back as cursor to get the following page."
+    )
+    public ResponseEntity<ApiResponse<CursorPage<NotificationDTO>>> getUserNotificationFeed(
+            HttpServletRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        String email = jwtService.extractUsernameFromRequest(request);
+        CursorPage<Notification> notifications = notificationService.getUserNotifications(email, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(notifications.map(NotificationDTO::fromEntity)));
+    }
+
     @GetMapping("/unread/count")
     public ResponseEntity<UnreadCountDTO> getUnreadNotificationCount(HttpServletRequest request) {
         String email = jwtService.extractUsernameFromRequest(request);
@@ -45,6 +64,14 @@ public class NotificationController {
         return ResponseEntity.ok(UnreadCountDTO.builder().count(count).build());
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            HttpServletRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String email = jwtService.extractUsernameFromRequest(request);
+        return notificationService.openNotificationStream(email, lastEventId);
+    }
+
     @PostMapping("/{notificationId}/read")
     public ResponseEntity<Void> markNotificationAsRead(
             @PathVariable UUID notificationId,
@@ -55,10 +82,10 @@ public class NotificationController {
     }
 
     @PostMapping("/read-all")
-    public ResponseEntity<Void> markAllNotificationsAsRead(HttpServletRequest request) {
+    public ResponseEntity<AffectedCountDTO> markAllNotificationsAsRead(HttpServletRequest request) {
         String email = jwtService.extractUsernameFromRequest(request);
-        notificationService.markAllNotificationsAsRead(email);
-        return ResponseEntity.ok().build();
+        int affected = notificationService.markAllNotificationsAsRead(email);
+        return ResponseEntity.ok(AffectedCountDTO.builder().affected(affected).build());
     }
 
     @DeleteMapping("/{notificationId}")
@@ -0,0 +1,10 @@
+package com.authkit.backend.infrastructure.notification.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class AffectedCountDTO {
+    private long affected;
+}
@@ -0,0 +1,21 @@
+package com.authkit.backend.infrastructure.notification.dto;
+
+import com.authkit.backend.domain.enums.TwoFactorMethod;
+import com.authkit.backend.domain.enums.UserStatus;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.Set;
+
+@Data
+public class BroadcastRequest {
+
+    private String code;
+    private Map<String, Object> params;
+    private String type;
+
+    /** Recipients must be in one of these statuses; defaults to ACTIVE. */
+    private Set<UserStatus> statuses;
+    /** When set, only users with this method enabled are notified. */
+    private TwoFactorMethod twoFactorMethod;
+}
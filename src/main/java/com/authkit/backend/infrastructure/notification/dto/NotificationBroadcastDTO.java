@@ -0,0 +1,63 @@
+package com.authkit.backend.infrastructure.notification.dto;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.enums.TwoFactorMethod;
+import com.authkit.backend.domain.enums.UserStatus;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+public class NotificationBroadcastDTO {
+    private UUID id;
+    private String code;
+    private Map<String, Object> params;
+    private String type;
+    private Set<UserStatus> statuses;
+    private TwoFactorMethod twoFactorMethod;
+    private BroadcastStatus status;
+    private long estimatedRecipients;
+    private long deliveredRecipients;
+    /** Share of the estimate delivered so far, 0-100. */
+    private double progress;
+    private String requestedBy;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static NotificationBroadcastDTO fromEntity(NotificationBroadcast broadcast) {
+        long estimated = broadcast.getEstimatedRecipients();
+        double progress;
+        if (broadcast.getStatus() == BroadcastStatus.COMPLETED)
+            progress = 100;
+        else if (estimated == 0)
+            progress = 0;
+        else
+            // users added since the estimate can push deliveries past it
+            progress = Math.min(100, 100.0 * broadcast.getDeliveredRecipients() / estimated);
+        return NotificationBroadcastDTO.builder()
+                .id(broadcast.getId())
+                .code(broadcast.getCode().getCode())
+                .params(broadcast.getParams())
+                .type(broadcast.getType())
+                .statuses(broadcast.getUserStatuses())
+                .twoFactorMethod(broadcast.getTwoFactorMethod())
+                .status(broadcast.getStatus())
+                .estimatedRecipients(estimated)
+                .deliveredRecipients(broadcast.getDeliveredRecipients())
+                .progress(progress)
+                .requestedBy(broadcast.getRequestedBy())
+                .error(broadcast.getError())
+                .createdAt(broadcast.getCreatedAt())
+                .startedAt(broadcast.getStartedAt())
+                .finishedAt(broadcast.getFinishedAt())
+                .build();
+    }
+}
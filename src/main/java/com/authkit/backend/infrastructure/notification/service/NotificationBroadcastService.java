@@ -0,0 +1,66 @@
+package com.authkit.backend.infrastructure.notification.service;
+
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import com.authkit.backend.domain.model.User;
+import com.authkit.backend.domain.repository.user.UserSelection;
+import com.authkit.backend.domain.service.NotificationDomainService;
+import com.authkit.backend.infrastructure.notification.dto.BroadcastRequest;
+import com.authkit.backend.infrastructure.utils.UserServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
+import com.authkit.backend.infrastructure.utils.audit.Audited;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationBroadcastService {
+
+    private final NotificationDomainService notificationDomainService;
+    private final UserServiceHelper userServiceHelper;
+
+    @Audited(action = "BROADCAST_NOTIFICATION", entityType = "NOTIFICATION")
+    public NotificationBroadcast broadcast(String email, BroadcastRequest request) {
+        if (request == null || !StringUtils.hasText(request.getCode()) || !StringUtils.hasText(request.getType())) {
+            throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
+        }
+
+        NotificationCode code;
+        try {
+            code = NotificationCode.fromCode(request.getCode());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
+        }
+
+        User admin = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(admin);
+        NotificationBroadcast broadcast = notificationDomainService.broadcast(
+                new UserSelection(request.getStatuses(), request.getTwoFactorMethod()),
+                code, request.getParams(), request.getType(), admin.getEmail());
+        AuditContext.setEntityId(broadcast.getId().toString());
+        return broadcast;
+    }
+
+    public NotificationBroadcast getBroadcast(UUID broadcastId) {
+        return notificationDomainService.getBroadcast(broadcastId);
+    }
+
+    @Audited(action = "CANCEL_BROADCAST", entityType = "NOTIFICATION")
+    public NotificationBroadcast cancelBroadcast(String email, UUID broadcastId) {
+        AuditContext.setActor(userServiceHelper.getActiveUserByEmail(email));
+        AuditContext.setEntityId(broadcastId.toString());
+        return notificationDomainService.cancelBroadcast(broadcastId);
+    }
+
+    @Audited(action = "RESUME_BROADCAST", entityType = "NOTIFICATION")
+    public NotificationBroadcast resumeBroadcast(String email, UUID broadcastId) {
+        AuditContext.setActor(userServiceHelper.getActiveUserByEmail(email));
+        AuditContext.setEntityId(broadcastId.toString());
+        return notificationDomainService.resumeBroadcast(broadcastId);
+    }
+}
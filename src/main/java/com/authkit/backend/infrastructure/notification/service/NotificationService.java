@@ -5,13 +5,16 @@ import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.service.NotificationDomainService;
 import com.authkit.backend.domain.enums.NotificationCode;
 import com.authkit.backend.infrastructure.utils.UserServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiException;
 import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.pagination.CursorPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.util.StringUtils;
 
 import java.util.UUID;
@@ -23,6 +26,7 @@ public class NotificationService {
 
     private final NotificationDomainService notificationDomainService;
     private final UserServiceHelper userServiceHelper;
+    private final NotificationStreamHub notificationStreamHub;
 
     @Audited(action = "CREATE_NOTIFICATION", entityType = "NOTIFICATION")
     public Notification createNotification(UUID userId, String title, String message, String type) {
@@ -34,6 +38,7 @@ public class NotificationService {
         }
 
         User user = userServiceHelper.getUserById(userId);
+        AuditContext.setActor(user);
         NotificationCode notificationCode = NotificationCode.fromCode(type);
         
         // Create params map with title and message
@@ -51,9 +56,21 @@ public class NotificationService {
         }
 
         User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
         return notificationDomainService.getUserNotifications(user.getId(), pageable);
     }
 
+    @Audited(action = "GET_NOTIFICATIONS", entityType = "NOTIFICATION")
+    public CursorPage<Notification> getUserNotifications(String email, String cursor, int size) {
+        if (!StringUtils.hasText(email)) {
+            throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
+        }
+
+        User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
+        return notificationDomainService.getUserNotifications(user.getId(), cursor, size);
+    }
+
     @Audited(action = "MARK_NOTIFICATION_AS_READ", entityType = "NOTIFICATION")
     public void markNotificationAsRead(String email, UUID notificationId) {
         if (!StringUtils.hasText(email) || notificationId == null) {
@@ -61,17 +78,19 @@ public class NotificationService {
         }
 
         User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
         notificationDomainService.markNotificationAsRead(user.getId(), notificationId);
     }
 
     @Audited(action = "MARK_ALL_NOTIFICATIONS_AS_READ", entityType = "NOTIFICATION")
-    public void markAllNotificationsAsRead(String email) {
+    public int markAllNotificationsAsRead(String email) {
         if (!StringUtils.hasText(email)) {
             throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
         }
 
         User user = userServiceHelper.getActiveUserByEmail(email);
-        notificationDomainService.markAllNotificationsAsRead(user.getId());
+        AuditContext.setActor(user);
+        return notificationDomainService.markAllNotificationsAsRead(user.getId());
     }
 
     public long getUnreadNotificationCount(String email) {
@@ -79,8 +98,17 @@ public class NotificationService {
             throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
         }
 
-        User user = userServiceHelper.getActiveUserByEmail(email);
-        return notificationDomainService.getUnreadNotificationCount(user.getId());
+        UUID userId = userServiceHelper.getActiveUserIdByEmail(email);
+        return notificationDomainService.getUnreadNotificationCount(userId);
+    }
+
+    public SseEmitter openNotificationStream(String email, String lastEventId) {
+        if (!StringUtils.hasText(email)) {
+            throw new ApiException(ApiErrorCode.VALIDATION_ERROR);
+        }
+
+        UUID userId = userServiceHelper.getActiveUserIdByEmail(email);
+        return notificationStreamHub.open(userId, lastEventId);
     }
 
     @Audited(action = "DELETE_NOTIFICATION", entityType = "NOTIFICATION")
@@ -90,12 +118,14 @@ public class NotificationService {
         }
 
         User user = userServiceHelper.getActiveUserByEmail(email);
+        AuditContext.setActor(user);
         notificationDomainService.deleteNotification(user.getId(), notificationId);
     }
 
     @Audited(action = "DELETE_ALL_NOTIFICATIONS", entityType = "NOTIFICATION")
-    public void deleteAllNotifications(String email) {
+    public int deleteAllNotifications(String email) {
         User user = userServiceHelper.getActiveUserByEmail(email);
-        notificationDomainService.deleteAllNotifications(user.getId());
+        AuditContext.setActor(user);
+        return notificationDomainService.deleteAllNotifications(user.getId());
     }
 } 
\ No newline at end of file
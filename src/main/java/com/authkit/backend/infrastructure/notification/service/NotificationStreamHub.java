@@ -0,0 +1,328 @@
+package com.authkit.backend.infrastructure.notification.service;
+
+import com.authkit.backend.domain.event.NotificationCreatedEvent;
+import com.authkit.backend.domain.event.UnreadCountChangedEvent;
+import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.domain.service.NotificationDomainService;
+import com.authkit.backend.infrastructure.notification.dto.NotificationDTO;
+import com.authkit.backend.infrastructure.notification.dto.UnreadCountDTO;
+import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.pagination.KeysetCursor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user fan-out of notification events to open Server-Sent Events streams.
+ * <p>
+ * Streams are servlet async requests, so an idle connection holds no thread at all. Each
+ * stream has its own queue of sends, drained by one virtual thread at a time while there
+ * is work, so events reach a client in the order they were queued and a slow client only
+ * ever holds up its own stream. A stream that falls more than
+ * {@code app.notifications.stream.max-pending} sends behind is closed; the client resumes
+ * from {@code Last-Event-ID}.
+ * <p>
+ * New notifications are pushed once their transaction commits, followed by the new
+ * unread count. Event ids encode the notification's (createdAt, id) position. When a
+ * client reconnects with {@code Last-Event-ID}, the stream is registered first and live
+ * notifications for it are held back while the missed ones are read and sent; the held
+ * ones follow in position order, without the ones the replay already covered, and only
+ * then the unread count. A comment is sent every
+ * {@code app.notifications.stream.heartbeat-ms} to keep proxies from closing idle streams
+ * and to detect dead ones.
+ */
+@Slf4j
+@Component
+public class NotificationStreamHub {
+
+    private final NotificationDomainService notificationDomainService;
+    private final long timeoutMillis;
+    private final int maxStreamsPerUser;
+    private final int maxReplay;
+    private final int maxPending;
+
+    private final Map<UUID, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public NotificationStreamHub(NotificationDomainService notificationDomainService,
+                                 @Value("${app.notifications.stream.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${app.notifications.stream.max-per-user:5}") int maxStreamsPerUser,
+                                 @Value("${app.notifications.stream.max-replay:100}") int maxReplay,
+                                 @Value("${app.notifications.stream.max-pending:256}") int maxPending) {
+        this.notificationDomainService = notificationDomainService;
+        this.timeoutMillis = timeoutMillis;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.maxReplay = maxReplay;
+        this.maxPending = maxPending;
+    }
+
+    public SseEmitter open(UUID userId, String lastEventId) {
+        boolean resuming = lastEventId != null && !lastEventId.isBlank();
+        Stream stream = new Stream(userId, newEmitter(timeoutMillis), resuming);
+        List<Stream> evicted = new ArrayList<>();
+        streams.compute(userId, (key, userStreams) -> {
+            if (userStreams == null)
+                userStreams = new CopyOnWriteArraySet<>();
+            // the oldest stream is usually a tab that went away without closing
+            for (Stream existing : userStreams) {
+                if (userStreams.size() < maxStreamsPerUser)
+                    break;
+                userStreams.remove(existing);
+                evicted.add(existing);
+            }
+            userStreams.add(stream);
+            return userStreams;
+        });
+        open.addAndGet(1 - evicted.size());
+        evicted.forEach(Stream::complete);
+
+        stream.emitter.onCompletion(() -> remove(stream));
+        stream.emitter.onTimeout(() -> remove(stream));
+        stream.emitter.onError(error -> remove(stream));
+
+        stream.submit(() -> {
+            if (resuming)
+                replay(stream, lastEventId);
+            sendUnreadCount(stream);
+        });
+        return stream.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        Notification notification = event.notification();
+        Set<Stream> userStreams = streams.get(notification.getUserId());
+        if (userStreams == null || userStreams.isEmpty())
+            return;
+
+        for (Stream stream : userStreams)
+            stream.deliver(notification);
+    }
+
+    @EventListener
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        Set<Stream> userStreams = streams.get(event.userId());
+        if (userStreams == null || userStreams.isEmpty())
+            return;
+
+        // queued behind the notification it follows; the count is read on the stream's thread
+        for (Stream stream : userStreams)
+            stream.submit(() -> sendUnreadCount(stream));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.values().forEach(userStreams -> {
+            for (Stream stream : userStreams)
+                stream.submit(() -> send(stream, SseEmitter.event().comment("heartbeat")));
+        });
+        log.debug("Notification streams: open={}, users={}, delivered={}, failed={}, overflowed={}",
+                getOpenStreams(), streams.size(), getDelivered(), getFailed(), getOverflowed());
+    }
+
+    public int getOpenStreams() {
+        return open.get();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(userStreams -> userStreams.forEach(Stream::complete));
+        senders.shutdown();
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void replay(Stream stream, String lastEventId) {
+        try {
+            KeysetCursor after = KeysetCursor.decode(lastEventId);
+            List<Notification> missed = notificationDomainService.getNotificationsAfter(
+                    stream.userId, after.createdAt(), after.id(), maxReplay);
+            for (Notification notification : missed) {
+                if (!sendNotification(stream, notification))
+                    return;
+                stream.replayed.add(notification.getId());
+            }
+        } catch (ApiException e) {
+            // not an id we sent; the client still gets everything from now on
+        } finally {
+            // whatever went live meanwhile, in position order
+            for (Notification notification : stream.release()) {
+                if (!sendNotification(stream, notification))
+                    break;
+            }
+        }
+    }
+
+    private boolean sendNotification(Stream stream, Notification notification) {
+        // committed around the reconnect, so both the replay and its live event carry it
+        if (stream.replayed.contains(notification.getId()))
+            return true;
+        return send(stream, SseEmitter.event()
+                .id(position(notification).encode())
+                .name("notification")
+                .data(NotificationDTO.fromEntity(notification)));
+    }
+
+    private void sendUnreadCount(Stream stream) {
+        long count = notificationDomainService.getUnreadNotificationCount(stream.userId);
+        send(stream, SseEmitter.event()
+                .name("unread-count")
+                .data(UnreadCountDTO.builder().count(count).build()));
+    }
+
+    private boolean send(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (stream.closed)
+            return false;
+        try {
+            stream.emitter.send(event);
+            delivered.increment();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the stream already completed
+            failed.increment();
+            remove(stream);
+            stream.closed = true;
+            stream.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(Stream stream) {
+        stream.closed = true;
+        streams.computeIfPresent(stream.userId, (key, userStreams) -> {
+            if (userStreams.remove(stream))
+                open.decrementAndGet();
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private static KeysetCursor position(Notification notification) {
+        return new KeysetCursor(notification.getCreatedAt(), notification.getId());
+    }
+
+    /**
+     * One open stream and its queue of sends. Tasks run one after another on whichever
+     * virtual thread found the queue idle.
+     */
+    private final class Stream {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // only touched by tasks of this stream, which never run concurrently
+        private final Set<UUID> replayed = new HashSet<>();
+
+        // live notifications held back while the replay runs, guarded by this
+        private boolean replaying;
+        private final TreeMap<KeysetCursor, Notification> held = new TreeMap<>();
+
+        Stream(UUID userId, SseEmitter emitter, boolean replaying) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.replaying = replaying;
+        }
+
+        void deliver(Notification notification) {
+            synchronized (this) {
+                if (replaying) {
+                    held.put(position(notification), notification);
+                    return;
+                }
+            }
+            submit(() -> sendNotification(this, notification));
+        }
+
+        /**
+         * Ends the replay phase.
+         *
+         * @return the notifications held back meanwhile, in position order
+         */
+        synchronized List<Notification> release() {
+            replaying = false;
+            List<Notification> released = new ArrayList<>(held.values());
+            held.clear();
+            return released;
+        }
+
+        void submit(Runnable task) {
+            if (closed)
+                return;
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                overflowed.increment();
+                remove(this);
+                complete();
+                return;
+            }
+            queue.add(task);
+            if (draining.compareAndSet(false, true))
+                senders.execute(this::drain);
+        }
+
+        private void drain() {
+            do {
+                Runnable task;
+                while ((task = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        log.warn("Notification stream task failed for user {}: {}", userId, e.getMessage());
+                    }
+                }
+                draining.set(false);
+                // a task queued after the last poll but before the flag was cleared
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void complete() {
+            closed = true;
+            emitter.complete();
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,6 +21,17 @@ public interface JpaPasskeyRepository extends JpaRepository<Passkey, UUID> {
     @Query("SELECT p FROM Passkey p WHERE p.user = :user AND p.enabled = true")
     Page<Passkey> findByUserAndEnabledTrue(@Param("user") User user, Pageable pageable);
     
+    @Query("SELECT p FROM Passkey p WHERE p.user = :user AND p.enabled = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<Passkey> findLatestByUserAndEnabledTrue(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT p FROM Passkey p WHERE p.user = :user AND p.enabled = true "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Passkey> findByUserAndEnabledTrueBefore(@Param("user") User user,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") UUID id,
+                                                 Pageable pageable);
+    
     @Query("SELECT p FROM Passkey p WHERE p.id = :id AND p.user = :user AND p.enabled = true")
     Optional<Passkey> findByIdAndUserAndEnabledTrue(@Param("id") UUID id, @Param("user") User user);
     
@@ -3,11 +3,14 @@ package com.authkit.backend.infrastructure.repository.auth.passkey;
 import com.authkit.backend.domain.model.Passkey;
 import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.repository.auth.passkey.PasskeyRepository;
+import com.authkit.backend.shared.pagination.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,6 +35,13 @@ public class PasskeyRepositoryImpl implements PasskeyRepository {
         return jpaPasskeyRepository.findByUserAndEnabledTrue(user, pageable);
     }
 
+    @Override
+    public List<Passkey> findByUserAndEnabledTrueBefore(User user, KeysetCursor before, int limit) {
+        if (before == null)
+            return jpaPasskeyRepository.findLatestByUserAndEnabledTrue(user, PageRequest.of(0, limit));
+        return jpaPasskeyRepository.findByUserAndEnabledTrueBefore(user, before.createdAt(), before.id(), PageRequest.of(0, limit));
+    }
+
     @Override
     public Optional<Passkey> findByIdAndUserAndEnabledTrue(UUID id, User user) {
         return jpaPasskeyRepository.findByIdAndUserAndEnabledTrue(id, user);
@@ -0,0 +1,120 @@
+package com.authkit.backend.infrastructure.repository.notification;
+
+import com.authkit.backend.domain.repository.notification.NotificationCounterRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Counters in notification_unread_counters, mapped by
+ * {@link com.authkit.backend.domain.model.NotificationUnreadCounter}.
+ * <p>
+ * A delta for a user without a counter creates it from a count taken in the writer's
+ * transaction. If a reader creates the same counter at the same time from an older count,
+ * whichever insert comes second turns into adding the delta or is ignored, so the change
+ * is counted once either way.
+ */
+@Repository
+public class JdbcNotificationCounterRepository implements NotificationCounterRepository {
+
+    // unread is qualified because the SELECT feeding the insert is over notifications
+    private static final String INSERT_COUNTED = "INSERT INTO notification_unread_counters (user_id, unread) "
+            + "SELECT n.user_id, COUNT(*) FROM notifications n "
+            + "WHERE n.user_id IN (:userIds) AND n.read_status = false "
+            + "AND NOT EXISTS (SELECT 1 FROM notification_unread_counters c WHERE c.user_id = n.user_id) "
+            + "GROUP BY n.user_id "
+            + "ON DUPLICATE KEY UPDATE unread = GREATEST(notification_unread_counters.unread + :delta, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public JdbcNotificationCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public OptionalLong findUnread(UUID userId) {
+        List<Long> unread = jdbcTemplate.queryForList(
+                "SELECT unread FROM notification_unread_counters WHERE user_id = ?", Long.class, userId.toString());
+        return unread.isEmpty() ? OptionalLong.empty() : OptionalLong.of(unread.get(0));
+    }
+
+    @Override
+    public void initialize(UUID userId, long unread) {
+        jdbcTemplate.update("INSERT IGNORE INTO notification_unread_counters (user_id, unread) VALUES (?, ?)",
+                userId.toString(), unread);
+    }
+
+    @Override
+    public void add(UUID userId, long delta) {
+        int updated = jdbcTemplate.update(
+                "UPDATE notification_unread_counters SET unread = GREATEST(unread + ?, 0) WHERE user_id = ?",
+                delta, userId.toString());
+        if (updated == 0)
+            insertCounted(List.of(userId), delta);
+    }
+
+    @Override
+    public void addAll(List<UUID> userIds, long delta) {
+        if (userIds.isEmpty())
+            return;
+
+        int updated = namedJdbcTemplate.update(
+                "UPDATE notification_unread_counters SET unread = GREATEST(unread + :delta, 0) WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource()
+                        .addValue("delta", delta)
+                        .addValue("userIds", userIds.stream().map(UUID::toString).toList()));
+        if (updated < userIds.size())
+            insertCounted(userIds, delta);
+    }
+
+    @Override
+    public Map<UUID, Long> findPage(UUID after, int limit) {
+        Map<UUID, Long> page = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, unread FROM notification_unread_counters WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                rs -> {
+                    page.put(UUID.fromString(rs.getString("user_id")), rs.getLong("unread"));
+                },
+                after == null ? "" : after.toString(), limit);
+        return page;
+    }
+
+    @Override
+    public boolean compareAndSet(UUID userId, long expected, long unread) {
+        return jdbcTemplate.update("UPDATE notification_unread_counters SET unread = ? WHERE user_id = ? AND unread = ?",
+                unread, userId.toString(), expected) == 1;
+    }
+
+    @Override
+    public Map<UUID, Long> countUnreadNotifications(List<UUID> userIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (userIds.isEmpty())
+            return counts;
+
+        namedJdbcTemplate.query(
+                "SELECT user_id, COUNT(*) AS unread FROM notifications "
+                        + "WHERE user_id IN (:userIds) AND read_status = false GROUP BY user_id",
+                new MapSqlParameterSource("userIds", userIds.stream().map(UUID::toString).toList()),
+                rs -> {
+                    counts.put(UUID.fromString(rs.getString("user_id")), rs.getLong("unread"));
+                });
+        return counts;
+    }
+
+    // users with no unread notifications get no row here; the next read counts them
+    private void insertCounted(List<UUID> userIds, long delta) {
+        namedJdbcTemplate.update(INSERT_COUNTED, new MapSqlParameterSource()
+                .addValue("delta", delta)
+                .addValue("userIds", userIds.stream().map(UUID::toString).toList()));
+    }
+}
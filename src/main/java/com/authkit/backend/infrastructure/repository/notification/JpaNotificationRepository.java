@@ -8,7 +8,9 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,13 +20,48 @@ public interface JpaNotificationRepository extends JpaRepository<Notification, U
     @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC")
     Page<Notification> findByUserId(@Param("userId") UUID userId, Pageable pageable);
 
-    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.readStatus = :readStatus")
-    List<Notification> findByUserIdAndReadStatus(@Param("userId") UUID userId, @Param("readStatus") boolean readStatus);
+    @Query("SELECT COUNT(n) > 0 FROM Notification n WHERE n.id = :id AND n.userId = :userId")
+    boolean existsByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId "
+            + "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) "
+            + "ORDER BY n.createdAt, n.id")
+    List<Notification> findByUserIdAfter(@Param("userId") UUID userId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatestByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByUserIdBefore(@Param("userId") UUID userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") UUID id,
+                                          Pageable pageable);
 
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.readStatus = :readStatus")
     long countByUserIdAndReadStatus(@Param("userId") UUID userId, @Param("readStatus") boolean readStatus);
 
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.userId = :userId")
-    void deleteAllByUserId(@Param("userId") UUID userId);
+    @Query("UPDATE Notification n SET n.readStatus = true WHERE n.id = :id AND n.userId = :userId AND n.readStatus = false")
+    int markAsReadByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.userId = :userId AND n.readStatus = :readStatus")
+    int deleteByIdAndUserIdAndReadStatus(@Param("id") UUID id, @Param("userId") UUID userId, @Param("readStatus") boolean readStatus);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notifications SET read_status = true WHERE user_id = :userId AND read_status = false LIMIT :limit",
+            nativeQuery = true)
+    int markUnreadAsReadByUserId(@Param("userId") String userId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE user_id = :userId AND read_status = :readStatus LIMIT :limit",
+            nativeQuery = true)
+    int deleteByUserIdAndReadStatus(@Param("userId") String userId, @Param("readStatus") boolean readStatus, @Param("limit") int limit);
 } 
\ No newline at end of file
@@ -1,20 +1,41 @@
 package com.authkit.backend.infrastructure.repository.notification;
 
+import com.authkit.backend.domain.enums.NotificationCode;
 import com.authkit.backend.domain.model.Notification;
 import com.authkit.backend.domain.repository.notification.NotificationRepository;
+import com.authkit.backend.shared.pagination.KeysetCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
 public class NotificationRepositoryImpl implements NotificationRepository {
 
+    // rows per INSERT statement, well below MySQL's placeholder and packet limits
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO notifications (id, user_id, code, params, type, read_status, created_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, false, ?)";
+
     private final JpaNotificationRepository jpaNotificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
     @Override
     public Notification save(Notification notification) {
@@ -22,8 +43,31 @@ public class NotificationRepositoryImpl implements NotificationRepository {
     }
 
     @Override
-    public List<Notification> saveAll(List<Notification> notifications) {
-        return jpaNotificationRepository.saveAll(notifications);
+    public List<Notification> insertForUsers(List<UUID> userIds, NotificationCode code, Map<String, Object> params, String type) {
+        String json = toJson(params);
+        // the precision the column keeps, so the returned notifications match their rows
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Notification> stored = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds)
+            stored.add(Notification.stored(UUID.randomUUID(), userId, code, params, type, now));
+
+        for (int from = 0; from < stored.size(); from += ROWS_PER_STATEMENT) {
+            List<Notification> rows = stored.subList(from, Math.min(from + ROWS_PER_STATEMENT, stored.size()));
+            String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW));
+            jdbcTemplate.update(sql, ps -> {
+                int i = 1;
+                for (Notification notification : rows) {
+                    ps.setBytes(i++, toBytes(notification.getId()));
+                    ps.setString(i++, notification.getUserId().toString());
+                    ps.setString(i++, code.name());
+                    ps.setString(i++, json);
+                    ps.setString(i++, type);
+                    ps.setTimestamp(i++, createdAt);
+                }
+            });
+        }
+        return stored;
     }
 
     @Override
@@ -32,8 +76,20 @@ public class NotificationRepositoryImpl implements NotificationRepository {
     }
 
     @Override
-    public List<Notification> findByUserIdAndReadStatus(UUID userId, boolean readStatus) {
-        return jpaNotificationRepository.findByUserIdAndReadStatus(userId, readStatus);
+    public boolean existsByIdAndUserId(UUID id, UUID userId) {
+        return jpaNotificationRepository.existsByIdAndUserId(id, userId);
+    }
+
+    @Override
+    public List<Notification> findByUserIdAfter(UUID userId, LocalDateTime createdAt, UUID id, int limit) {
+        return jpaNotificationRepository.findByUserIdAfter(userId, createdAt, id, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Notification> findByUserIdBefore(UUID userId, KeysetCursor before, int limit) {
+        if (before == null)
+            return jpaNotificationRepository.findLatestByUserId(userId, PageRequest.of(0, limit));
+        return jpaNotificationRepository.findByUserIdBefore(userId, before.createdAt(), before.id(), PageRequest.of(0, limit));
     }
 
     @Override
@@ -47,7 +103,41 @@ public class NotificationRepositoryImpl implements NotificationRepository {
     }
 
     @Override
-    public void deleteAllByUserId(UUID userId) {
-        jpaNotificationRepository.deleteAllByUserId(userId);
+    public int markAsReadByIdAndUserId(UUID id, UUID userId) {
+        return jpaNotificationRepository.markAsReadByIdAndUserId(id, userId);
+    }
+
+    @Override
+    public int deleteByIdAndUserIdAndReadStatus(UUID id, UUID userId, boolean readStatus) {
+        return jpaNotificationRepository.deleteByIdAndUserIdAndReadStatus(id, userId, readStatus);
+    }
+
+    @Override
+    public int markUnreadAsReadByUserId(UUID userId, int limit) {
+        // user_id is CHAR(36), so native statements bind the textual form
+        return jpaNotificationRepository.markUnreadAsReadByUserId(userId.toString(), limit);
+    }
+
+    @Override
+    public int deleteByUserIdAndReadStatus(UUID userId, boolean readStatus, int limit) {
+        return jpaNotificationRepository.deleteByUserIdAndReadStatus(userId.toString(), readStatus, limit);
+    }
+
+    private String toJson(Map<String, Object> params) {
+        if (params == null)
+            return null;
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Notification params are not serializable", e);
+        }
+    }
+
+    // id has no explicit column type, so Hibernate stores it as BINARY(16) in big-endian order
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
     }
 } 
\ No newline at end of file
@@ -7,9 +7,11 @@ import com.authkit.backend.infrastructure.user.dto.UserResponse;
 import com.authkit.backend.infrastructure.user.dto.UserSearchResult;
 import com.authkit.backend.infrastructure.utils.UserServiceHelper;
 import com.authkit.backend.infrastructure.utils.ValidationServiceHelper;
+import com.authkit.backend.infrastructure.utils.audit.AuditContext;
 import com.authkit.backend.infrastructure.utils.audit.Audited;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.security.PrincipalCache;
 import com.authkit.backend.shared.utils.HashUtil;
 import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.repository.user.UserRepository;
@@ -33,6 +35,7 @@ public class UserService {
     private final UserServiceHelper userServiceHelper;
     private final SessionService sessionService;
     private final ValidationServiceHelper validationService;
+    private final PrincipalCache principalCache;
 
     public UserResponse getUserInfo(String email) {
         User user = userServiceHelper.getUserByEmail(email);
@@ -85,6 +88,7 @@ public class UserService {
     @Audited(action = "UPDATE_PROFILE", entityType = "USER")
     public void updateUserData(String email, String newName, String newUsername, String newSurname) {
         User user = userServiceHelper.getUserByEmail(email);
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         if (newName != null && !newName.trim().isEmpty())
@@ -93,11 +97,14 @@ public class UserService {
             updateSurname(user, newSurname);
         if (newUsername != null && !newUsername.trim().isEmpty())
             updateUsername(user, newUsername);
+
+        principalCache.invalidate(user.getEmail());
     }
 
     @Audited(action = "RESET_PASSWORD", entityType = "USER")
     public void updatePasswordByEmail(String email, String newPassword) {
         User user = userServiceHelper.getUserByEmail(email);
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
         updateUserPassword(user, newPassword);
     }
@@ -105,6 +112,7 @@ public class UserService {
     @Audited(action = "UPDATE_PASSWORD", entityType = "USER")
     public void updateUserPassword(String email, String currentPassword, String newPassword) {
         User user = userServiceHelper.getUserByEmail(email);
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
         if (!passwordEncoder.matches(currentPassword, user.getPasswordHash()))
             throw new ApiException(ApiErrorCode.INVALID_CREDENTIALS);
@@ -115,11 +123,13 @@ public class UserService {
     @Audited(action = "REQUEST_ACCOUNT_DELETION", entityType = "USER")
     public void requestAccountDeletion(String email) {
         User user = userServiceHelper.getUserByEmail(email);
+        AuditContext.setActor(user);
         userServiceHelper.checkUserStatus(user);
 
         user.setStatus(UserStatus.DEACTIVATION_REQUESTED);
         user.setDeletionRequestedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         sessionService.revokeAllUserSessions(user);
     }
@@ -167,6 +177,7 @@ public class UserService {
 
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         eventPublisher.publishEvent(new PasswordChangedEvent(user));
     }
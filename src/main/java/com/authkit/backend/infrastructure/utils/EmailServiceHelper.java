@@ -1,126 +1,105 @@
 package com.authkit.backend.infrastructure.utils;
 
+import com.authkit.backend.domain.model.EmailOutboxMessage;
+import com.authkit.backend.domain.repository.email.EmailOutboxRepository;
+import com.authkit.backend.infrastructure.utils.email.EmailQueuedEvent;
+import com.authkit.backend.infrastructure.utils.email.EmailTemplateEngine;
+import com.authkit.backend.infrastructure.utils.email.EmailTemplateEngine.RenderedEmail;
+import com.authkit.backend.infrastructure.utils.email.EmailTemplates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.MessagingException;
 
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+
+/**
+ * Emails are not sent from here but queued in the email outbox, inside the caller's
+ * transaction, and delivered by the {@link com.authkit.backend.infrastructure.utils.email.EmailOutboxWorker}.
+ * An email is therefore only sent if the change that triggered it commits, and a slow
+ * mail server never holds up a request.
+ */
 @Service
 public class EmailServiceHelper {
 
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EmailTemplateEngine templateEngine;
+
     private static final String FROM_EMAIL = "noreply@marcoswiendl.com";
     private static final String FROM_NAME = "AuthKit";
+    private static final String CHARSET = "UTF-8";
+    private static final InternetAddress FROM = fromAddress();
 
-    public void sendEmail(String to, String subject, String text) throws MailException {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(FROM_NAME + " <" + FROM_EMAIL + ">");
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+    public void sendEmail(String to, String subject, String text) {
+        enqueue(to, subject, text, false);
     }
 
-    public void sendHtmlEmail(String to, String subject, String htmlText) throws MailException, MessagingException {
+    public void sendHtmlEmail(String to, String subject, String htmlText) {
+        enqueue(to, subject, htmlText, true);
+    }
+
+    /**
+     * Builds the message the outbox worker hands to the mail server.
+     */
+    public MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-        helper.setFrom(FROM_NAME + " <" + FROM_EMAIL + ">");
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlText, true);
-        mailSender.send(mimeMessage);
+        mimeMessage.setFrom(FROM);
+        mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(message.getRecipient()));
+
+        String encodedSubject = templateEngine.encodedSubject(message.getSubject());
+        if (encodedSubject != null)
+            mimeMessage.setHeader("Subject", encodedSubject);
+        else
+            mimeMessage.setSubject(message.getSubject(), CHARSET);
+
+        // a single part is enough, none of the emails have attachments or alternatives
+        mimeMessage.setText(message.getBody(), CHARSET, message.isHtml() ? "html" : "plain");
+        return mimeMessage;
+    }
+
+    public void sendVerificationEmail(String to, String name, String verificationUrl, String verificationCode) {
+        sendTemplate(to, EmailTemplates.VERIFICATION, Map.of(
+                "name", name,
+                "verificationUrl", verificationUrl,
+                "verificationCode", verificationCode));
+    }
+
+    public void sendPasswordResetEmail(String to, String resetLink) {
+        sendTemplate(to, EmailTemplates.PASSWORD_RESET, Map.of("resetLink", resetLink));
+    }
+
+    // rendered in the language of the current request
+    private void sendTemplate(String to, String template, Map<String, String> params) {
+        RenderedEmail email = templateEngine.render(template, LocaleContextHolder.getLocale(), params);
+        enqueue(to, email.subject(), email.body(), email.html());
+    }
+
+    // joins the caller's transaction when there is one
+    private void enqueue(String to, String subject, String body, boolean html) {
+        EmailOutboxMessage message = outboxRepository.save(new EmailOutboxMessage(to, subject, body, html));
+        eventPublisher.publishEvent(new EmailQueuedEvent(message.getId()));
     }
 
-    public void sendVerificationEmail(String to, String name, String verificationUrl, String verificationCode) throws MailException, MessagingException {
-        String subject = "Verify your email address";
-        String htmlContent = String.format("""
-            <html>
-            <head>
-                <style>
-                    body {
-                        font-family: Arial, sans-serif;
-                        margin: 0;
-                        padding: 0;
-                        background-color: #f4f4f4;
-                    }
-                    .container {
-                        max-width: 600px;
-                        margin: 20px auto;
-                        background-color: #ffffff;
-                        border-radius: 8px;
-                        overflow: hidden;
-                        box-shadow: 0 2px 8px rgba(0, 0, 0, 0.1);
-                    }
-                    .header {
-                        background-color: #000000;
-                        color: #ffffff;
-                        padding: 16px 24px;
-                        font-size: 20px;
-                        font-weight: bold;
-                    }
-                    .content {
-                        padding: 24px;
-                        color: #333333;
-                    }
-                    h1 {
-                        color: #111111;
-                        font-size: 24px;
-                        margin-top: 0;
-                    }
-                    p {
-                        line-height: 1.6;
-                    }
-                    .button {
-                        display: inline-block;
-                        margin-top: 20px;
-                        padding: 12px 24px;
-                        background-color: #007bff;
-                        color: #ffffff;
-                        text-decoration: none;
-                        border-radius: 4px;
-                        font-weight: bold;
-                    }
-                    .code-box {
-                        background-color: #f0f0f0;
-                        border: 1px dashed #999;
-                        padding: 10px;
-                        font-size: 18px;
-                        text-align: center;
-                        margin: 16px 0;
-                        font-weight: bold;
-                    }
-                    .footer {
-                        font-size: 12px;
-                        color: #999999;
-                        text-align: center;
-                        padding: 16px;
-                    }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">AuthKit</div>
-                    <div class="content">
-                        <h1>Welcome to AuthKit, %s!</h1>
-                        <p>Thank you for registering. To complete your registration, please verify your email address by clicking the button below:</p>
-                        <p><a href="%s" class="button">Verify Email Address</a></p>
-                        <p>Or use this verification code:</p>
-                        <div class="code-box">%s</div>
-                        <p>This link will expire in 24 hours.</p>
-                        <p>If you did not create an account, please ignore this email.</p>
-                    </div>
-                    <div class="footer">© 2025 AuthKit. All rights reserved.</div>
-                </div>
-            </body>
-            </html>
-            """, name, verificationUrl, verificationCode);
-    
-        sendHtmlEmail(to, subject, htmlContent);
+    private static InternetAddress fromAddress() {
+        try {
+            return new InternetAddress(FROM_EMAIL, FROM_NAME, CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -5,6 +5,7 @@ import com.authkit.backend.domain.repository.user.UserRepository;
 import com.authkit.backend.domain.enums.UserStatus;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
+import com.authkit.backend.shared.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +16,7 @@ import java.util.UUID;
 public class UserServiceHelper {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     public User getActiveUserByEmail(String email) {
         User user = getUserByEmail(email);
@@ -22,6 +24,21 @@ public class UserServiceHelper {
         return user;
     }
 
+    /**
+     * Resolves an active user's id through the principal cache, which the authentication
+     * filter has usually just filled, so hot read paths skip the user lookup.
+     */
+    public UUID getActiveUserIdByEmail(String email) {
+        PrincipalCache.Principal principal = principalCache.get(email, key -> userRepository.findByEmail(key)
+                .map(PrincipalCache.Principal::of)
+                .orElse(null));
+        if (principal == null)
+            throw new ApiException(ApiErrorCode.USER_NOT_FOUND);
+
+        checkUserStatus(principal.status());
+        return principal.id();
+    }
+
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new ApiException(ApiErrorCode.USER_NOT_FOUND));
@@ -33,11 +50,15 @@ public class UserServiceHelper {
     }
 
     public void checkUserStatus(User user) {
-        if (user.getStatus() == UserStatus.PENDING_VERIFICATION)
+        checkUserStatus(user.getStatus());
+    }
+
+    private void checkUserStatus(UserStatus status) {
+        if (status == UserStatus.PENDING_VERIFICATION)
             throw new ApiException(ApiErrorCode.ACCOUNT_NOT_VERIFIED);
-        if (user.getStatus() == UserStatus.DEACTIVATION_REQUESTED)
+        if (status == UserStatus.DEACTIVATION_REQUESTED)
             throw new ApiException(ApiErrorCode.ACCOUNT_DEACTIVATED);
-        if (user.getStatus() == UserStatus.LOCKED)
+        if (status == UserStatus.LOCKED)
             throw new ApiException(ApiErrorCode.ACCOUNT_LOCKED);
     }
 
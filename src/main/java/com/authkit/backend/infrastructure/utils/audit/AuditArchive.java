@@ -0,0 +1,226 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local archive of audit rows removed from the database.
+ * <p>
+ * Rows are written as gzip-compressed NDJSON, at most {@code app.audit.archive.chunk-rows}
+ * per file, under {@code app.audit.archive.dir}. A chunk is written to a temporary file,
+ * synced and renamed, and only then recorded in {@code index.ndjson}, one JSON line per
+ * chunk with its scope, row count, id and time range, size and SHA-256. The index is the
+ * source of truth: a chunk file it does not list was left by an interrupted run and can be
+ * deleted.
+ */
+@Slf4j
+@Component
+public class AuditArchive {
+
+    public record Row(long id, String action, String entityType, String entityId, String userId,
+                      String username, String details, String ipAddress, LocalDateTime createdAt) {
+    }
+
+    private static final String INDEX_FILE = "index.ndjson";
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+    private final Path directory;
+    private final int chunkRows;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public AuditArchive(@Value("${app.audit.archive.dir:audit-archive}") String directory,
+                        @Value("${app.audit.archive.chunk-rows:50000}") int chunkRows) {
+        this.directory = Path.of(directory);
+        this.chunkRows = Math.max(chunkRows, 1);
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Opens a new chunk. The caller writes at most {@link #getChunkRows()} rows, read with
+     * that {@code LIMIT}, and then seals it; a chunk that is closed without being sealed
+     * leaves nothing behind.
+     */
+    public Chunk open(String scope) {
+        try {
+            Files.createDirectories(directory);
+            String name = scope + "-" + LocalDateTime.now().format(FILE_STAMP) + "-" + sequence.incrementAndGet() + ".ndjson.gz";
+            return new Chunk(scope, name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the highest row id already archived under the scope, or 0
+     */
+    public long lastArchivedId(String scope) {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index))
+            return 0;
+
+        long last = 0;
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank())
+                    continue;
+                JsonNode entry = objectMapper.readTree(line);
+                if (scope.equals(entry.path("scope").asText()))
+                    last = Math.max(last, entry.path("maxId").asLong());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return last;
+    }
+
+    private synchronized void appendToIndex(ObjectNode entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(line));
+            channel.force(true);
+        }
+    }
+
+    public final class Chunk implements AutoCloseable {
+
+        private final String scope;
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final GZIPOutputStream gzip;
+        private final JsonGenerator generator;
+
+        private int rows;
+        private long minId = Long.MAX_VALUE;
+        private long maxId;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private boolean sealed;
+
+        private Chunk(String scope, String name) throws IOException {
+            this.scope = scope;
+            this.target = directory.resolve(name);
+            this.temporary = directory.resolve(name + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            OutputStream file = new DigestOutputStream(Channels.newOutputStream(channel), digest);
+            this.gzip = new GZIPOutputStream(file, 64 * 1024);
+            this.generator = jsonFactory.createGenerator(gzip, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        public void write(Row row) {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.id());
+                generator.writeStringField("action", row.action());
+                generator.writeStringField("entityType", row.entityType());
+                generator.writeStringField("entityId", row.entityId());
+                generator.writeStringField("userId", row.userId());
+                generator.writeStringField("username", row.username());
+                generator.writeStringField("details", row.details());
+                generator.writeStringField("ipAddress", row.ipAddress());
+                generator.writeStringField("createdAt", row.createdAt().toString());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            rows++;
+            minId = Math.min(minId, row.id());
+            maxId = Math.max(maxId, row.id());
+            if (from == null || row.createdAt().isBefore(from))
+                from = row.createdAt();
+            if (to == null || row.createdAt().isAfter(to))
+                to = row.createdAt();
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Makes the chunk durable and records it in the index. Once this returns, the
+         * archived rows may be removed from the database.
+         */
+        public void seal() {
+            try {
+                generator.flush();
+                gzip.finish();
+                channel.force(true);
+                generator.close();
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+                ObjectNode entry = objectMapper.createObjectNode()
+                        .put("file", target.getFileName().toString())
+                        .put("scope", scope)
+                        .put("rows", rows)
+                        .put("minId", rows == 0 ? 0 : minId)
+                        .put("maxId", maxId)
+                        .put("from", from == null ? null : from.toString())
+                        .put("to", to == null ? null : to.toString())
+                        .put("bytes", Files.size(target))
+                        .put("sha256", HexFormat.of().formatHex(digest.digest()))
+                        .put("archivedAt", LocalDateTime.now().toString());
+                appendToIndex(entry);
+                sealed = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (sealed)
+                return;
+            try {
+                generator.close();
+                channel.close();
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                log.warn("Could not discard unsealed audit archive chunk {}", temporary, e);
+            }
+        }
+    }
+}
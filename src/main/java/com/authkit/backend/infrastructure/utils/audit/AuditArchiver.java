@@ -0,0 +1,208 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import com.authkit.backend.config.SchedulingConfig;
+import com.authkit.backend.infrastructure.utils.audit.AuditPartitionManager.AuditPartition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enforces {@link AuditRetentionPolicy} and moves expired rows into the {@link AuditArchive}.
+ * <p>
+ * Rows are always archived before they are removed. Whole monthly partitions past the
+ * longest retention are streamed out in id order and then dropped, which is resumable from
+ * the index if a run is interrupted. Actions with a shorter retention are purged from the
+ * live partitions in chunks, one archive file per chunk. When the table is not partitioned
+ * every action goes through the chunked purge. Each run stops after
+ * {@code app.audit.archive.max-run-minutes} and picks up where it left off next time.
+ */
+@Slf4j
+@Component
+public class AuditArchiver {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, action, entity_type, entity_id, user_id, username, details, ip_address, created_at FROM audit_logs ";
+    private static final RowMapper<AuditArchive.Row> ROW_MAPPER = (rs, rowNum) -> new AuditArchive.Row(
+            rs.getLong("id"),
+            rs.getString("action"),
+            rs.getString("entity_type"),
+            rs.getString("entity_id"),
+            rs.getString("user_id"),
+            rs.getString("username"),
+            rs.getString("details"),
+            rs.getString("ip_address"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final AuditPartitionManager partitionManager;
+    private final AuditRetentionPolicy retentionPolicy;
+    private final AuditArchive archive;
+    private final long maxRunNanos;
+
+    private final LongAdder archivedRows = new LongAdder();
+    private final LongAdder purgedRows = new LongAdder();
+    private final LongAdder droppedPartitions = new LongAdder();
+
+    public AuditArchiver(JdbcTemplate jdbcTemplate,
+                         AuditPartitionManager partitionManager,
+                         AuditRetentionPolicy retentionPolicy,
+                         AuditArchive archive,
+                         @Value("${app.audit.archive.max-run-minutes:60}") long maxRunMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        // MySQL only streams result sets row by row with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.partitionManager = partitionManager;
+        this.retentionPolicy = retentionPolicy;
+        this.archive = archive;
+        this.maxRunNanos = TimeUnit.MINUTES.toNanos(maxRunMinutes);
+    }
+
+    @Async(SchedulingConfig.MAINTENANCE_EXECUTOR)
+    @Scheduled(cron = "${app.audit.archive.cron:0 30 2 * * *}")
+    public void run() {
+        boolean ran = partitionManager.runExclusively(() -> {
+            long deadline = System.nanoTime() + maxRunNanos;
+            long archivedBefore = archivedRows.sum();
+
+            partitionManager.rollover();
+            purgeShortRetentionActions(deadline);
+            if (partitionManager.isPartitioned())
+                archiveExpiredPartitions(deadline);
+
+            log.info("Audit archiver: archived={}, purged={}, droppedPartitions={} (this run archived {})",
+                    getArchivedRows(), getPurgedRows(), getDroppedPartitions(), archivedRows.sum() - archivedBefore);
+        });
+
+        if (!ran)
+            log.debug("Audit archiver skipped, another node holds the maintenance lock");
+    }
+
+    public long getArchivedRows() {
+        return archivedRows.sum();
+    }
+
+    public long getPurgedRows() {
+        return purgedRows.sum();
+    }
+
+    public long getDroppedPartitions() {
+        return droppedPartitions.sum();
+    }
+
+    private void purgeShortRetentionActions(long deadline) {
+        int longest = retentionPolicy.longestRetentionDays();
+        boolean partitioned = partitionManager.isPartitioned();
+
+        // group the actions present in the table by retention, skipping those left to partition drops
+        Map<Integer, List<String>> actionsByDays = new TreeMap<>();
+        for (String action : jdbcTemplate.queryForList("SELECT DISTINCT action FROM audit_logs", String.class)) {
+            int days = retentionPolicy.retentionDays(action);
+            if (days == AuditRetentionPolicy.FOREVER || (partitioned && days == longest))
+                continue;
+            actionsByDays.computeIfAbsent(days, d -> new ArrayList<>()).add(action);
+        }
+
+        for (Map.Entry<Integer, List<String>> group : actionsByDays.entrySet()) {
+            LocalDateTime cutoff = LocalDate.now().minusDays(group.getKey()).atStartOfDay();
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("actions", group.getValue())
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("limit", archive.getChunkRows());
+
+            while (System.nanoTime() < deadline) {
+                List<AuditArchive.Row> rows = namedJdbcTemplate.query(
+                        SELECT_COLUMNS + "WHERE action IN (:actions) AND created_at < :cutoff "
+                                + "ORDER BY created_at, id LIMIT :limit",
+                        params, ROW_MAPPER);
+                if (rows.isEmpty())
+                    break;
+
+                try (AuditArchive.Chunk chunk = archive.open("retention-" + group.getKey() + "d")) {
+                    rows.forEach(chunk::write);
+                    chunk.seal();
+                }
+                archivedRows.add(rows.size());
+
+                int deleted = namedJdbcTemplate.update(
+                        "DELETE FROM audit_logs WHERE created_at < :cutoff AND id IN (:ids)",
+                        new MapSqlParameterSource()
+                                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                                .addValue("ids", rows.stream().map(AuditArchive.Row::id).toList()));
+                purgedRows.add(deleted);
+
+                if (rows.size() < archive.getChunkRows())
+                    break;
+            }
+        }
+    }
+
+    private void archiveExpiredPartitions(long deadline) {
+        int longest = retentionPolicy.longestRetentionDays();
+        if (longest == AuditRetentionPolicy.FOREVER)
+            return;
+
+        LocalDate cutoff = LocalDate.now().minusDays(longest);
+        for (AuditPartition partition : partitionManager.listPartitions()) {
+            if (partition.month() == null || partition.upperBound().isAfter(cutoff))
+                break;
+            if (System.nanoTime() >= deadline)
+                return;
+
+            if (!archivePartition(partition, deadline))
+                return;
+            partitionManager.dropPartition(partition);
+            droppedPartitions.increment();
+            log.info("Archived and dropped audit_logs partition {}", partition.name());
+        }
+    }
+
+    /**
+     * @return true once every row of the partition is in the archive
+     */
+    private boolean archivePartition(AuditPartition partition, long deadline) {
+        // the partition is closed to new rows, so an id cursor sees each row exactly once
+        String sql = SELECT_COLUMNS + "PARTITION (" + partition.name() + ") WHERE id > ? ORDER BY id LIMIT ?";
+        long lastId = archive.lastArchivedId(partition.name());
+
+        while (System.nanoTime() < deadline) {
+            try (AuditArchive.Chunk chunk = archive.open(partition.name())) {
+                long[] cursor = {lastId};
+                streamingJdbcTemplate.query(sql, rs -> {
+                    AuditArchive.Row row = ROW_MAPPER.mapRow(rs, rs.getRow());
+                    chunk.write(row);
+                    cursor[0] = row.id();
+                }, lastId, archive.getChunkRows());
+
+                if (chunk.getRows() == 0)
+                    return true;
+                chunk.seal();
+                archivedRows.add(chunk.getRows());
+                if (chunk.getRows() < archive.getChunkRows())
+                    return true;
+                lastId = cursor[0];
+            }
+        }
+        return false;
+    }
+}
@@ -1,21 +1,22 @@
 package com.authkit.backend.infrastructure.utils.audit;
 
-import com.authkit.backend.domain.model.User;
-import com.authkit.backend.domain.repository.user.UserRepository;
-import com.authkit.backend.infrastructure.auth.common.dto.request.LoginRequest;
-import com.authkit.backend.infrastructure.auth.common.dto.request.RegisterRequest;
-import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
-import com.authkit.backend.shared.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes an audit record after each successful {@link Audited} call. The acting user comes
+ * from the {@link AuditContext} the audited method fills in, so the aspect itself does not
+ * touch the database.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
@@ -23,122 +24,68 @@ import org.springframework.stereotype.Component;
 public class AuditAspect {
 
     private final AuditService auditService;
-    private final UserRepository userRepository;
-    private final UserTokenRepository userTokenRepository;
-    private final JwtService jwtService;
+    private final AuditEntityIds auditEntityIds;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder overheadNanos = new LongAdder();
 
     @Around("@annotation(audited)")
     public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
-        String entityId = extractEntityId(joinPoint.getArgs()[0]);
-        
-        // For session-related actions, get user before executing the method
-        User user = null;
-        if (audited.action().startsWith("REVOKE") || audited.action().equals("LOGOUT")) {
-            user = userTokenRepository.findByAccessTokenAndRevokedFalse(entityId)
-                .map(token -> token.getUser())
-                .orElseGet(() -> {
-                    log.warn("No active token found for: {}", entityId);
-                    return null;
-                });
-            
-            if (user == null) {
-                log.warn("Could not find user for entityId: {} and action: {}", entityId, audited.action());
-                return joinPoint.proceed();
-            }
+        AuditContext.Frame frame = AuditContext.open();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            AuditContext.close(frame);
         }
-        
-        // Execute the method
-        Object result = joinPoint.proceed();
-        
-        // If we already have the user (session actions), use it
-        // Otherwise, try to find the user after the method execution
-        if (user == null) {
-            user = extractUser(entityId, audited.action());
-            if (user == null) {
-                log.warn("Could not find user for entityId: {} and action: {}", entityId, audited.action());
-                return result;
-            }
+
+        long startedAt = System.nanoTime();
+        AuditContext.Actor actor = frame.actor();
+        if (actor == null) {
+            skipped.increment();
+            log.warn("No actor recorded for audited action: {}", audited.action());
+            return result;
         }
-        
+
+        String entityId = frame.entityId() != null
+                ? frame.entityId()
+                : auditEntityIds.extract(audited.action(), joinPoint.getArgs());
+        if (entityId == null)
+            entityId = actor.email();
+
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         String methodName = signature.getMethod().getName();
-        
+
         auditService.logAction(
             audited.action(),
             audited.entityType(),
             entityId,
             String.format("Method %s executed", methodName),
-            user.getId().toString(),
-            user.getUsername()
+            actor.userId(),
+            actor.username()
         );
-        
+
+        recorded.increment();
+        overheadNanos.add(System.nanoTime() - startedAt);
         return result;
     }
 
-    private String extractEntityId(Object firstParam) {
-        if (firstParam instanceof LoginRequest loginRequest) {
-            return loginRequest.getEmail();
-        } else if (firstParam instanceof RegisterRequest registerRequest) {
-            return registerRequest.getEmail();
-        } else if (firstParam instanceof User user) {
-            return user.getEmail();
-        } else if (firstParam instanceof String) {
-            return (String) firstParam;
-        } else {
-            return String.valueOf(firstParam);
-        }
+    public long getRecorded() {
+        return recorded.sum();
     }
 
-    private User extractUser(String entityId, String action) {
-        try {
-            // For session-related actions, extract user from token
-            if (action.startsWith("REVOKE") || action.equals("LOGOUT")) {
-                return userTokenRepository.findByAccessTokenAndRevokedFalse(entityId)
-                    .map(token -> token.getUser())
-                    .orElseGet(() -> {
-                        log.warn("No active token found for: {}", entityId);
-                        return null;
-                    });
-            }
-            
-            // For verification actions, try to extract email from JWT token
-            if (action.equals("VERIFY_EMAIL")) {
-                try {
-                    String email = jwtService.extractUsername(entityId);
-                    if (email != null) {
-                        return userRepository.findByEmail(email)
-                            .orElseGet(() -> {
-                                log.warn("No user found for email from token: {}", email);
-                                return null;
-                            });
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to extract email from token: {}", entityId);
-                }
-            }
-            
-            // For passkey actions, get user from security context
-            if (action.startsWith("START_PASSKEY") || action.startsWith("FINISH_PASSKEY")) {
-                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-                if (authentication != null && authentication.isAuthenticated()) {
-                    String email = authentication.getName();
-                    return userRepository.findByEmail(email)
-                        .orElseGet(() -> {
-                            log.warn("No user found for email from security context: {}", email);
-                            return null;
-                        });
-                }
-            }
-            
-            // For other actions, try to find user by email
-            return userRepository.findByEmail(entityId)
-                .orElseGet(() -> {
-                    log.warn("No user found for email: {}", entityId);
-                    return null;
-                });
-        } catch (Exception e) {
-            log.error("Error extracting user for entityId: {} and action: {}", entityId, action, e);
-            return null;
-        }
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getAverageOverheadMicros() {
+        long count = recorded.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(overheadNanos.sum() / count);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void logStats() {
+        log.debug("Audit aspect: recorded={}, skipped={}, avgOverheadUs={}", getRecorded(), getSkipped(), getAverageOverheadMicros());
     }
-} 
\ No newline at end of file
+}
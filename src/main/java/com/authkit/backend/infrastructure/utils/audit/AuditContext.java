@@ -0,0 +1,75 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import com.authkit.backend.domain.model.User;
+
+/**
+ * Lets an audited method hand the aspect what it already loaded, so the aspect does
+ * not have to look it up again.
+ * <p>
+ * {@link AuditAspect} opens a frame around each audited call; nested audited calls get
+ * their own frame. Outside an audited call the setters do nothing.
+ */
+public final class AuditContext {
+
+    public record Actor(String userId, String username, String email) {
+
+        static Actor of(User user) {
+            return new Actor(user.getId().toString(), user.getUsername(), user.getEmail());
+        }
+    }
+
+    static final class Frame {
+        private final Frame parent;
+        private Actor actor;
+        private String entityId;
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+
+        Actor actor() {
+            return actor;
+        }
+
+        String entityId() {
+            return entityId;
+        }
+    }
+
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    private AuditContext() {
+    }
+
+    /**
+     * Records the user acting in the current audited call.
+     */
+    public static void setActor(User user) {
+        Frame frame = CURRENT.get();
+        if (frame != null && user != null && user.getId() != null)
+            frame.actor = Actor.of(user);
+    }
+
+    /**
+     * Overrides the entity id the aspect would extract from the arguments, for calls whose
+     * arguments must not end up in the log (raw tokens) or do not identify the entity.
+     */
+    public static void setEntityId(String entityId) {
+        Frame frame = CURRENT.get();
+        if (frame != null)
+            frame.entityId = entityId;
+    }
+
+    static Frame open() {
+        Frame frame = new Frame(CURRENT.get());
+        CURRENT.set(frame);
+        return frame;
+    }
+
+    static void close(Frame frame) {
+        if (frame.parent == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(frame.parent);
+    }
+}
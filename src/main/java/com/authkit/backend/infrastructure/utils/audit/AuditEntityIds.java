@@ -0,0 +1,60 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import com.authkit.backend.domain.model.User;
+import com.authkit.backend.infrastructure.auth.common.dto.request.LoginRequest;
+import com.authkit.backend.infrastructure.auth.common.dto.request.RegisterRequest;
+import com.authkit.backend.infrastructure.auth.passkey.dto.PasskeyDeleteRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Typed entity-id extractors for audited actions, registered per action. Actions without
+ * one use the first argument when it is a String or UUID; when nothing applies, the
+ * aspect falls back to the actor's email.
+ */
+@Component
+public class AuditEntityIds {
+
+    private static final Function<Object[], String> NONE = args -> null;
+
+    private final Map<String, Function<Object[], String>> extractors = new HashMap<>();
+
+    public AuditEntityIds() {
+        register("LOGIN", 0, LoginRequest.class, LoginRequest::getEmail);
+        register("REGISTER", 0, RegisterRequest.class, RegisterRequest::getEmail);
+        register("CREATE_SESSION", 0, User.class, User::getEmail);
+        register("SEND_VERIFICATION_EMAIL", 0, User.class, User::getEmail);
+        register("REVOKE_ALL_SESSIONS", 0, User.class, User::getEmail);
+        register("MARK_NOTIFICATION_AS_READ", 1, UUID.class, UUID::toString);
+        register("DELETE_NOTIFICATION", 1, UUID.class, UUID::toString);
+        register("DELETE_PASSKEY", 0, PasskeyDeleteRequest.class, request -> String.valueOf(request.getPasskeyId()));
+
+        // the first argument is a raw token; the service supplies the entity id instead
+        extractors.put("VERIFY_EMAIL", NONE);
+        extractors.put("REVOKE_CURRENT_SESSION", NONE);
+    }
+
+    public String extract(String action, Object[] args) {
+        Function<Object[], String> extractor = extractors.get(action);
+        if (extractor != null)
+            return extractor.apply(args);
+
+        if (args.length == 0)
+            return null;
+        if (args[0] instanceof String value)
+            return value;
+        if (args[0] instanceof UUID value)
+            return value.toString();
+        return null;
+    }
+
+    private <T> void register(String action, int index, Class<T> type, Function<T, String> getter) {
+        extractors.put(action, args -> index < args.length && type.isInstance(args[index])
+                ? getter.apply(type.cast(args[index]))
+                : null);
+    }
+}
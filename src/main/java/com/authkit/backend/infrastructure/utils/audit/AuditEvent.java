@@ -0,0 +1,20 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * An audit record captured on the request thread, waiting in the {@link AuditPipeline}
+ * to be written to audit_logs.
+ */
+public record AuditEvent(
+        String action,
+        String entityType,
+        String entityId,
+        String userId,
+        String username,
+        String details,
+        String ipAddress,
+        LocalDateTime createdAt,
+        long capturedAtNanos
+) {
+}
@@ -0,0 +1,235 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Keeps audit_logs range-partitioned by month on created_at.
+ * <p>
+ * On startup an unpartitioned table is converted once: the primary key becomes
+ * (id, created_at), since MySQL requires the partition column in every unique key, and
+ * one partition is created per month from the oldest row onwards. The conversion copies
+ * the whole table under a metadata lock, so it only runs on its own for tables of up to
+ * {@code app.audit.partitioning.auto-convert-max-rows} (estimated); a larger table stays
+ * as it is until the conversion is asked for once with
+ * {@code app.audit.partitioning.convert=true}, in a maintenance window. Partitions are named
+ * {@code pYYYYMM}; a trailing {@code pmax} partition catches anything beyond the last
+ * month. {@link #rollover()} keeps {@code app.audit.partitioning.months-ahead} empty
+ * months in front of the current one by splitting them off {@code pmax}, which is cheap
+ * while it is empty.
+ */
+@Slf4j
+@Component
+public class AuditPartitionManager implements ApplicationRunner {
+
+    public record AuditPartition(String name, YearMonth month, long estimatedRows) {
+
+        /**
+         * @return the first instant no longer covered by this partition
+         */
+        public LocalDate upperBound() {
+            return month.plusMonths(1).atDay(1);
+        }
+    }
+
+    static final String OVERFLOW_PARTITION = "pmax";
+    private static final String LOCK_NAME = "audit_logs_maintenance";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final long autoConvertMaxRows;
+    private final boolean convertRequested;
+
+    private volatile boolean partitioned;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.audit.partitioning.enabled:true}") boolean enabled,
+                                 @Value("${app.audit.partitioning.months-ahead:3}") int monthsAhead,
+                                 @Value("${app.audit.partitioning.auto-convert-max-rows:100000}") long autoConvertMaxRows,
+                                 @Value("${app.audit.partitioning.convert:false}") boolean convertRequested) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(monthsAhead, 1);
+        this.autoConvertMaxRows = autoConvertMaxRows;
+        this.convertRequested = convertRequested;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            boolean ran = runExclusively(() -> {
+                ensureActionIndex();
+                if (!enabled)
+                    return;
+                if (!hasPartitions() && !convertIfAllowed())
+                    return;
+                partitioned = true;
+                rollover();
+            });
+            if (!ran)
+                log.info("Another node holds the audit_logs maintenance lock, leaving the partitioning to it");
+        } catch (RuntimeException e) {
+            log.error("Could not partition audit_logs, retention falls back to row deletes", e);
+        }
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * Makes sure the current month and the configured months ahead have their own partition.
+     */
+    public void rollover() {
+        // another node may have converted the table while this one started
+        if (!partitioned)
+            partitioned = enabled && hasPartitions();
+        if (!partitioned)
+            return;
+
+        YearMonth last = null;
+        for (AuditPartition partition : listPartitions())
+            if (partition.month() != null)
+                last = partition.month();
+
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        YearMonth next = last == null ? YearMonth.now() : last.plusMonths(1);
+        for (YearMonth month = next; !month.isAfter(target); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION " + OVERFLOW_PARTITION + " INTO ("
+                    + partitionDefinition(month) + ", "
+                    + "PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Created audit_logs partition {}", partitionName(month));
+        }
+    }
+
+    /**
+     * @return the monthly partitions in ascending order, followed by the overflow partition
+     */
+    public List<AuditPartition> listPartitions() {
+        return jdbcTemplate.query(
+                "SELECT partition_name, table_rows FROM information_schema.partitions "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'audit_logs' AND partition_name IS NOT NULL "
+                        + "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> {
+                    String name = rs.getString("partition_name");
+                    YearMonth month = OVERFLOW_PARTITION.equals(name) ? null : YearMonth.parse(name, PARTITION_NAME);
+                    return new AuditPartition(name, month, rs.getLong("table_rows"));
+                });
+    }
+
+    public void dropPartition(AuditPartition partition) {
+        if (partition.month() == null)
+            throw new IllegalArgumentException("The overflow partition cannot be dropped");
+        jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + partition.name());
+    }
+
+    /**
+     * Runs the task while holding a MySQL named lock, so only one node converts, rolls over
+     * or archives at a time. Skips the task if another node already holds the lock.
+     *
+     * @return false if the lock was busy
+     */
+    public boolean runExclusively(Runnable task) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (PreparedStatement acquire = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                acquire.setString(1, LOCK_NAME);
+                try (ResultSet rs = acquire.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1)
+                        return false;
+                }
+            }
+
+            try {
+                task.run();
+                return true;
+            } finally {
+                try (PreparedStatement release = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, LOCK_NAME);
+                    release.execute();
+                }
+            }
+        }));
+    }
+
+    private boolean hasPartitions() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.partitions "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'audit_logs' AND partition_name IS NOT NULL",
+                Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * @return false if the table was left unpartitioned because it is too large to convert unasked
+     */
+    private boolean convertIfAllowed() {
+        long estimatedRows = estimatedRows();
+        if (estimatedRows > autoConvertMaxRows && !convertRequested) {
+            log.warn("audit_logs holds about {} rows, more than app.audit.partitioning.auto-convert-max-rows={}; "
+                            + "not partitioning it on startup. Set app.audit.partitioning.convert=true once, "
+                            + "in a maintenance window, to convert it. Retention falls back to row deletes until then",
+                    estimatedRows, autoConvertMaxRows);
+            return false;
+        }
+        convert();
+        return true;
+    }
+
+    private long estimatedRows() {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'audit_logs'",
+                Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    private void convert() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM audit_logs", Timestamp.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1))
+            partitions.add(partitionDefinition(month));
+        partitions.add("PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        log.info("Partitioning audit_logs by month from {} to {}", first, last);
+        // one statement, so the table is copied once
+        jdbcTemplate.execute("ALTER TABLE audit_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at) "
+                + "PARTITION BY RANGE COLUMNS (created_at) " + partitions);
+    }
+
+    // per-action retention deletes rows by action and age; created here as well as declared
+    // on the entity, since the schema is not necessarily managed by Hibernate
+    private void ensureActionIndex() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'audit_logs' AND index_name = 'idx_audit_logs_action_created_at'",
+                Integer.class);
+        if (count == null || count == 0)
+            jdbcTemplate.execute("CREATE INDEX idx_audit_logs_action_created_at ON audit_logs (action, created_at)");
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private static String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+}
@@ -0,0 +1,252 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit writes off the request thread.
+ * <p>
+ * Events go into a fixed-size ring buffer that many request threads publish to and a
+ * single writer thread drains. The writer inserts them with one multi-row INSERT per
+ * batch once {@code app.audit.flush-size} events are waiting or the oldest has waited
+ * {@code app.audit.flush-interval-ms}. When the buffer is full, {@code drop} discards the
+ * event and {@code block} waits up to {@code app.audit.block-timeout-ms} for room before
+ * discarding it. Whatever is buffered is written on shutdown.
+ */
+@Slf4j
+@Component
+public class AuditPipeline {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_logs (action, entity_type, entity_id, user_id, username, details, ip_address, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long BLOCK_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    // next sequence to claim, shared by producers
+    private final AtomicLong tail = new AtomicLong();
+    // next sequence to drain, only advanced by the writer
+    private final AtomicLong head = new AtomicLong();
+    private final String fullBatchSql;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+    private volatile long lastLagNanos;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public AuditPipeline(JdbcTemplate jdbcTemplate,
+                         @Value("${app.audit.buffer-size:8192}") int bufferSize,
+                         @Value("${app.audit.flush-size:200}") int flushSize,
+                         @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMillis,
+                         @Value("${app.audit.overflow-policy:drop}") String overflowPolicy,
+                         @Value("${app.audit.block-timeout-ms:50}") long blockTimeoutMillis) {
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushSize = Math.min(flushSize, capacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase());
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.fullBatchSql = insertSql(this.flushSize);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return false if the event was dropped because the buffer stayed full
+     */
+    public boolean submit(AuditEvent event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() >= slots.length()) {
+                if (overflowPolicy == OverflowPolicy.BLOCK && running && System.nanoTime() < deadline) {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(BLOCK_PAUSE_NANOS);
+                    continue;
+                }
+                dropped.increment();
+                return false;
+            }
+
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.set((int) sequence & mask, event);
+                enqueued.increment();
+                if (sequence - head.get() + 1 >= flushSize)
+                    LockSupport.unpark(writer);
+                return true;
+            }
+        }
+    }
+
+    public long getQueueDepth() {
+        return tail.get() - head.get();
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getLastLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastLagNanos);
+    }
+
+    public long getMaxLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void logStats() {
+        log.debug("Audit pipeline: queued={}, enqueued={}, written={}, dropped={}, failed={}, lastLagMs={}, maxLagMs={}",
+                getQueueDepth(), getEnqueued(), getWritten(), getDropped(), getFailed(), getLastLagMillis(), getMaxLagMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (getQueueDepth() > 0)
+            log.warn("Audit pipeline stopped with {} events unwritten", getQueueDepth());
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(flushSize);
+        long oldestAt = 0;
+
+        while (true) {
+            boolean stopping = !running;
+            AuditEvent event;
+            while (batch.size() < flushSize && (event = poll()) != null) {
+                if (batch.isEmpty())
+                    oldestAt = event.capturedAtNanos();
+                batch.add(event);
+            }
+
+            boolean due = batch.size() >= flushSize
+                    || (!batch.isEmpty() && System.nanoTime() - oldestAt >= flushIntervalNanos);
+            if (!batch.isEmpty() && (due || stopping)) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+
+            if (stopping && getQueueDepth() == 0)
+                return;
+
+            // woken early by producers once a full batch is waiting
+            long wait = batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - (System.nanoTime() - oldestAt);
+            LockSupport.parkNanos(this, Math.max(wait, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    private AuditEvent poll() {
+        long sequence = head.get();
+        if (sequence == tail.get())
+            return null;
+
+        int index = (int) sequence & mask;
+        // claimed by a producer that has not stored its event yet
+        AuditEvent event = slots.get(index);
+        if (event == null)
+            return null;
+
+        slots.set(index, null);
+        head.lazySet(sequence + 1);
+        return event;
+    }
+
+    private void write(List<AuditEvent> batch) {
+        String sql = batch.size() == flushSize ? fullBatchSql : insertSql(batch.size());
+        Object[] args = new Object[batch.size() * 8];
+        int i = 0;
+        for (AuditEvent event : batch) {
+            args[i++] = event.action();
+            args[i++] = event.entityType();
+            args[i++] = event.entityId();
+            args[i++] = event.userId();
+            args[i++] = event.username();
+            args[i++] = event.details();
+            args[i++] = event.ipAddress();
+            args[i++] = Timestamp.valueOf(event.createdAt());
+        }
+
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                jdbcTemplate.update(sql, args);
+                written.add(batch.size());
+
+                long lag = System.nanoTime() - batch.get(0).capturedAtNanos();
+                lastLagNanos = lag;
+                maxLagNanos.accumulate(lag);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    failed.add(batch.size());
+                    log.error("Dropping {} audit events after {} failed writes", batch.size(), attempt, e);
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+            }
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0)
+                sql.append(", ");
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How long audit rows are kept, per action.
+ * <p>
+ * {@code app.audit.retention.default-days} applies to every action without an entry under
+ * {@code app.audit.retention.actions}, e.g. {@code app.audit.retention.actions.login=90}.
+ * Action keys are matched ignoring case, dashes and underscores. A value of 0 keeps the
+ * action forever.
+ */
+@Component
+public class AuditRetentionPolicy {
+
+    public static final int FOREVER = 0;
+
+    private final int defaultDays;
+    private final Map<String, Integer> actionDays = new HashMap<>();
+
+    public AuditRetentionPolicy(Environment environment,
+                                @Value("${app.audit.retention.default-days:365}") int defaultDays) {
+        this.defaultDays = Math.max(defaultDays, FOREVER);
+        Binder.get(environment)
+                .bind("app.audit.retention.actions", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of())
+                .forEach((action, days) -> actionDays.put(normalize(action), Math.max(days, FOREVER)));
+    }
+
+    public int retentionDays(String action) {
+        return actionDays.getOrDefault(normalize(action), defaultDays);
+    }
+
+    /**
+     * @return the longest configured retention, or {@link #FOREVER} if any action is kept forever
+     */
+    public int longestRetentionDays() {
+        if (defaultDays == FOREVER || actionDays.containsValue(FOREVER))
+            return FOREVER;
+        return actionDays.values().stream().mapToInt(Integer::intValue).reduce(defaultDays, Math::max);
+    }
+
+    private static String normalize(String action) {
+        return action.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,30 +1,31 @@
 package com.authkit.backend.infrastructure.utils.audit;
 
-import com.authkit.backend.domain.model.AuditLog;
-import com.authkit.backend.domain.repository.AuditLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditPipeline auditPipeline;
     private final HttpServletRequest request;
 
     public void logAction(String action, String entityType, String entityId, String details, String userId, String username) {
-        AuditLog auditLog = AuditLog.builder()
-                .action(action)
-                .entityType(entityType)
-                .entityId(entityId)
-                .userId(userId)
-                .username(username)
-                .details(details)
-                .ipAddress(getClientIp())
-                .build();
-
-        auditLogRepository.save(auditLog);
+        // the request is only reachable from this thread, so capture everything now
+        auditPipeline.submit(new AuditEvent(
+                action,
+                entityType,
+                entityId,
+                userId,
+                username,
+                details,
+                getClientIp(),
+                LocalDateTime.now(),
+                System.nanoTime()
+        ));
     }
 
     private String getClientIp() {
@@ -34,4 +35,4 @@ public class AuditService {
         }
         return request.getRemoteAddr();
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,287 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import com.authkit.backend.domain.enums.EmailOutboxStatus;
+import com.authkit.backend.domain.model.EmailOutboxMessage;
+import com.authkit.backend.domain.repository.email.EmailOutboxRepository;
+import com.authkit.backend.infrastructure.utils.EmailServiceHelper;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the email outbox with a pool of {@code app.email.outbox.workers} threads.
+ * <p>
+ * Each worker claims up to {@code app.email.outbox.batch-size} due messages with
+ * {@code FOR UPDATE SKIP LOCKED}, so workers on any number of nodes never claim the same
+ * message, and sends the batch over one connection from the {@link SmtpTransportPool}.
+ * A claim is a lease: the outcome of a send is only recorded while the worker still holds
+ * it, so a message requeued after its lease ran out is not overwritten by a late result.
+ * A failed message is retried with exponential backoff and jitter, starting at
+ * {@code app.email.outbox.initial-backoff-ms} and capped at {@code app.email.outbox.max-backoff-ms};
+ * after {@code app.email.outbox.max-attempts} tries, or straight away if it cannot even be
+ * built, it is dead-lettered. Workers are woken when a message is queued and otherwise poll
+ * every {@code app.email.outbox.poll-ms}.
+ */
+@Slf4j
+@Component
+public class EmailOutboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PURGE_CHUNK_ROWS = 5000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailServiceHelper emailServiceHelper;
+    private final SmtpTransportPool transportPool;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+    private final int retentionDays;
+
+    private final ExecutorService pool;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean stopping;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+
+    public EmailOutboxWorker(EmailOutboxRepository outboxRepository,
+                             EmailServiceHelper emailServiceHelper,
+                             SmtpTransportPool transportPool,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.email.outbox.workers:4}") int workers,
+                             @Value("${app.email.outbox.batch-size:50}") int batchSize,
+                             @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${app.email.outbox.initial-backoff-ms:30000}") long initialBackoffMillis,
+                             @Value("${app.email.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                             @Value("${app.email.outbox.lease-ms:300000}") long leaseMillis,
+                             @Value("${app.email.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.emailServiceHelper = emailServiceHelper;
+        this.transportPool = transportPool;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+        this.retentionDays = retentionDays;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:1000}")
+    public void poll() {
+        wake();
+    }
+
+    /**
+     * Requeues messages abandoned by a dead worker and purges old sent ones.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = outboxRepository.releaseExpired(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING, now);
+        if (released > 0)
+            log.warn("Requeued {} outbox emails whose sender stopped mid-send", released);
+
+        LocalDateTime before = now.minusDays(retentionDays);
+        int purged;
+        do {
+            purged = outboxRepository.deleteSentBefore(before, PURGE_CHUNK_ROWS);
+        } while (purged == PURGE_CHUNK_ROWS);
+
+        log.debug("Email outbox: pending={}, dead={}, sent={}, retried={}, deadLettered={}, batches={}, leasesLost={}",
+                outboxRepository.countByStatus(EmailOutboxStatus.PENDING),
+                outboxRepository.countByStatus(EmailOutboxStatus.DEAD),
+                getSent(), getRetried(), getDeadLettered(), getBatches(), getLeasesLost());
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getLeasesLost() {
+        return leasesLost.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void wake() {
+        // start one more worker unless all are busy; a running worker drains until the queue is empty
+        int current;
+        do {
+            current = active.get();
+            if (stopping || current >= workers)
+                return;
+        } while (!active.compareAndSet(current, current + 1));
+
+        try {
+            pool.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            active.decrementAndGet();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!stopping) {
+                String leaseOwner = UUID.randomUUID().toString();
+                List<EmailOutboxMessage> batch = claim(leaseOwner);
+                if (batch.isEmpty())
+                    return;
+                send(batch, leaseOwner);
+                batches.increment();
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox worker failed, the next poll starts a new one", e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private List<EmailOutboxMessage> claim(String leaseOwner) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.lockDue(now, batchSize);
+            if (ids.isEmpty())
+                return List.of();
+
+            outboxRepository.markSending(ids, EmailOutboxStatus.SENDING, leaseOwner, now.plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis)));
+            return outboxRepository.findAllById(ids);
+        });
+    }
+
+    private void send(List<EmailOutboxMessage> batch, String leaseOwner) {
+        Map<MimeMessage, EmailOutboxMessage> prepared = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                prepared.put(emailServiceHelper.toMimeMessage(message), message);
+            } catch (MessagingException | MailException e) {
+                // retrying will not fix a message that cannot be built
+                fail(message, leaseOwner, e, true);
+            }
+        }
+        if (prepared.isEmpty())
+            return;
+
+        List<Long> delivered = new ArrayList<>();
+        try {
+            Map<MimeMessage, MailException> failures = transportPool.send(new ArrayList<>(prepared.keySet()));
+            prepared.forEach((mimeMessage, message) -> {
+                MailException failure = failures.get(mimeMessage);
+                if (failure == null)
+                    delivered.add(message.getId());
+                else
+                    fail(message, leaseOwner, failure, failure instanceof MailPreparationException);
+            });
+        } catch (MailException e) {
+            // nothing was sent, the relay could not be reached
+            prepared.values().forEach(message -> fail(message, leaseOwner, e, false));
+        }
+
+        if (!delivered.isEmpty()) {
+            int recorded = outboxRepository.markSent(delivered, EmailOutboxStatus.SENDING, leaseOwner,
+                    EmailOutboxStatus.SENT, LocalDateTime.now());
+            sent.add(delivered.size());
+            if (recorded < delivered.size()) {
+                // requeued while this send ran long, so they may go out once more
+                leasesLost.add(delivered.size() - recorded);
+                log.warn("{} of {} sent outbox emails had been requeued before their send completed",
+                        delivered.size() - recorded, delivered.size());
+            }
+        }
+    }
+
+    private void fail(EmailOutboxMessage message, String leaseOwner, Exception e, boolean permanent) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH)
+            error = error.substring(0, MAX_ERROR_LENGTH);
+
+        // attempts already counts the one that just failed
+        if (permanent || message.getAttempts() >= maxAttempts) {
+            if (!markFailed(message, leaseOwner, EmailOutboxStatus.DEAD, message.getNextAttemptAt(), error))
+                return;
+            deadLettered.increment();
+            log.warn("Dead-lettered outbox email {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), message.getAttempts(), error);
+            return;
+        }
+
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis(message.getAttempts())));
+        if (markFailed(message, leaseOwner, EmailOutboxStatus.PENDING, nextAttemptAt, error))
+            retried.increment();
+    }
+
+    private boolean markFailed(EmailOutboxMessage message, String leaseOwner, EmailOutboxStatus status,
+                               LocalDateTime nextAttemptAt, String error) {
+        if (outboxRepository.markFailed(message.getId(), EmailOutboxStatus.SENDING, leaseOwner, status, nextAttemptAt, error) == 1)
+            return true;
+        // requeued meanwhile; its next owner records the outcome
+        leasesLost.increment();
+        return false;
+    }
+
+    private long backoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMillis);
+        // spread retries so a relay outage does not end in a thundering herd
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
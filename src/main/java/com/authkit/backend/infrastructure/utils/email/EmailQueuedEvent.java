@@ -0,0 +1,8 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+/**
+ * Published when a message is added to the email outbox, so the workers can pick it up
+ * as soon as its transaction commits instead of on their next poll.
+ */
+public record EmailQueuedEvent(Long messageId) {
+}
@@ -0,0 +1,170 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import jakarta.mail.internet.MimeUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders the emails defined in {@link EmailTemplates}.
+ * <p>
+ * Every template is parsed once, at startup, into a list of literal and placeholder
+ * segments, so rendering is a single pass that appends segments to a per-thread buffer
+ * reused from one email to the next. Values put into HTML templates are escaped.
+ * Subjects have no placeholders, so their MIME-encoded form is computed once as well.
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+
+    public record RenderedEmail(String subject, String body, boolean html) {}
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private record Segment(String literal, String parameter) {}
+
+    private record Template(String name, boolean html, String subject, Segment[] segments, int literalLength) {}
+
+    private final Map<String, Map<Locale, Template>> templates = new HashMap<>();
+    private final Map<String, String> encodedSubjects = new HashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final LongAdder rendered = new LongAdder();
+
+    public EmailTemplateEngine() {
+        for (EmailTemplates.Source source : EmailTemplates.ALL) {
+            Template template = compile(source);
+            templates.computeIfAbsent(source.name(), name -> new HashMap<>()).put(source.locale(), template);
+            encodedSubjects.put(source.subject(), encodeSubject(source.subject()));
+        }
+        for (String name : templates.keySet()) {
+            if (!templates.get(name).containsKey(Locale.ENGLISH))
+                throw new IllegalStateException("Email template " + name + " has no English variant");
+        }
+        log.debug("Compiled {} email templates", EmailTemplates.ALL.size());
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown template or a missing parameter
+     */
+    public RenderedEmail render(String name, Locale locale, Map<String, String> params) {
+        Template template = resolve(name, locale);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.literalLength() + 256);
+
+        try {
+            for (Segment segment : template.segments()) {
+                if (segment.literal() != null) {
+                    buffer.append(segment.literal());
+                    continue;
+                }
+
+                String value = params.get(segment.parameter());
+                if (value == null)
+                    throw new IllegalArgumentException("Missing parameter " + segment.parameter() + " for email template " + name);
+                if (template.html())
+                    appendEscaped(buffer, value);
+                else
+                    buffer.append(value);
+            }
+            rendered.increment();
+            return new RenderedEmail(template.subject(), buffer.toString(), template.html());
+        } finally {
+            // do not keep an unusually large buffer around for the rest of the thread's life
+            if (buffer.capacity() > MAX_RETAINED_BUFFER)
+                buffers.remove();
+        }
+    }
+
+    /**
+     * @return the RFC 2047 encoded form of a template subject, or null if the subject is
+     *         not one of the templates'
+     */
+    public String encodedSubject(String subject) {
+        return encodedSubjects.get(subject);
+    }
+
+    public long getRendered() {
+        return rendered.sum();
+    }
+
+    private Template resolve(String name, Locale locale) {
+        Map<Locale, Template> variants = templates.get(name);
+        if (variants == null)
+            throw new IllegalArgumentException("Unknown email template " + name);
+
+        if (locale != null) {
+            Template template = variants.get(locale);
+            if (template == null)
+                template = variants.get(Locale.of(locale.getLanguage()));
+            if (template != null)
+                return template;
+        }
+        return variants.get(Locale.ENGLISH);
+    }
+
+    private static Template compile(EmailTemplates.Source source) {
+        String body = source.body();
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+
+        while (position < body.length()) {
+            int open = body.indexOf("{{", position);
+            if (open < 0)
+                break;
+            int close = body.indexOf("}}", open + 2);
+            if (close < 0)
+                throw new IllegalStateException("Unclosed placeholder in email template " + source.name());
+
+            if (open > position) {
+                segments.add(new Segment(body.substring(position, open), null));
+                literalLength += open - position;
+            }
+            segments.add(new Segment(null, body.substring(open + 2, close).trim()));
+            position = close + 2;
+        }
+        if (position < body.length()) {
+            segments.add(new Segment(body.substring(position), null));
+            literalLength += body.length() - position;
+        }
+
+        return new Template(source.name(), source.html(), source.subject(), segments.toArray(Segment[]::new), literalLength);
+    }
+
+    private static String encodeSubject(String subject) {
+        try {
+            return MimeUtility.fold(9, MimeUtility.encodeText(subject, StandardCharsets.UTF_8.name(), null));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder buffer, String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                buffer.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        buffer.append(value, start, value.length());
+    }
+}
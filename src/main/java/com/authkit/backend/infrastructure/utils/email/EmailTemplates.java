@@ -0,0 +1,127 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Source text of every email template, one entry per template and locale. Placeholders
+ * are written {@code {{name}}}; in HTML templates their values are escaped when rendered.
+ * The English variant of a template is the fallback for any locale without its own.
+ */
+public final class EmailTemplates {
+
+    public static final String VERIFICATION = "verification";
+    public static final String PASSWORD_RESET = "password-reset";
+
+    static final Locale PORTUGUESE = Locale.of("pt");
+
+    record Source(String name, Locale locale, boolean html, String subject, String body) {}
+
+    private static final String LAYOUT = """
+            <html>
+            <head>
+                <style>
+                    body {
+                        font-family: Arial, sans-serif;
+                        margin: 0;
+                        padding: 0;
+                        background-color: #f4f4f4;
+                    }
+                    .container {
+                        max-width: 600px;
+                        margin: 20px auto;
+                        background-color: #ffffff;
+                        border-radius: 8px;
+                        overflow: hidden;
+                        box-shadow: 0 2px 8px rgba(0, 0, 0, 0.1);
+                    }
+                    .header {
+                        background-color: #000000;
+                        color: #ffffff;
+                        padding: 16px 24px;
+                        font-size: 20px;
+                        font-weight: bold;
+                    }
+                    .content {
+                        padding: 24px;
+                        color: #333333;
+                    }
+                    h1 {
+                        color: #111111;
+                        font-size: 24px;
+                        margin-top: 0;
+                    }
+                    p {
+                        line-height: 1.6;
+                    }
+                    .button {
+                        display: inline-block;
+                        margin-top: 20px;
+                        padding: 12px 24px;
+                        background-color: #007bff;
+                        color: #ffffff;
+                        text-decoration: none;
+                        border-radius: 4px;
+                        font-weight: bold;
+                    }
+                    .code-box {
+                        background-color: #f0f0f0;
+                        border: 1px dashed #999;
+                        padding: 10px;
+                        font-size: 18px;
+                        text-align: center;
+                        margin: 16px 0;
+                        font-weight: bold;
+                    }
+                    .footer {
+                        font-size: 12px;
+                        color: #999999;
+                        text-align: center;
+                        padding: 16px;
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">AuthKit</div>
+                    <div class="content">
+            @content
+                    </div>
+                    <div class="footer">@footer</div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    static final List<Source> ALL = List.of(
+            html(VERIFICATION, Locale.ENGLISH, "Verify your email address", """
+                            <h1>Welcome to AuthKit, {{name}}!</h1>
+                            <p>Thank you for registering. To complete your registration, please verify your email address by clicking the button below:</p>
+                            <p><a href="{{verificationUrl}}" class="button">Verify Email Address</a></p>
+                            <p>Or use this verification code:</p>
+                            <div class="code-box">{{verificationCode}}</div>
+                            <p>This link will expire in 24 hours.</p>
+                            <p>If you did not create an account, please ignore this email.</p>""",
+                    "© 2025 AuthKit. All rights reserved."),
+            html(VERIFICATION, PORTUGUESE, "Verifique seu endereço de e-mail", """
+                            <h1>Bem-vindo ao AuthKit, {{name}}!</h1>
+                            <p>Obrigado por se cadastrar. Para concluir o cadastro, verifique seu endereço de e-mail clicando no botão abaixo:</p>
+                            <p><a href="{{verificationUrl}}" class="button">Verificar endereço de e-mail</a></p>
+                            <p>Ou use este código de verificação:</p>
+                            <div class="code-box">{{verificationCode}}</div>
+                            <p>Este link expira em 24 horas.</p>
+                            <p>Se você não criou uma conta, ignore este e-mail.</p>""",
+                    "© 2025 AuthKit. Todos os direitos reservados."),
+            new Source(PASSWORD_RESET, Locale.ENGLISH, false, "Password Reset",
+                    "Click the link to reset your password: {{resetLink}}"),
+            new Source(PASSWORD_RESET, PORTUGUESE, false, "Redefinição de senha",
+                    "Clique no link para redefinir sua senha: {{resetLink}}")
+    );
+
+    private EmailTemplates() {
+    }
+
+    private static Source html(String name, Locale locale, String subject, String content, String footer) {
+        return new Source(name, locale, true, subject, LAYOUT.replace("@content", content).replace("@footer", footer));
+    }
+}
@@ -0,0 +1,26 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+/**
+ * Opens authenticated connections to the SMTP relay for the {@link SmtpTransportPool}.
+ */
+@FunctionalInterface
+public interface SmtpConnectionFactory {
+
+    Transport connect() throws MessagingException;
+
+    /**
+     * Connections over the session's transport protocol, logging in when {@code username}
+     * is set.
+     */
+    static SmtpConnectionFactory of(Session session, String host, int port, String username, String password) {
+        return () -> {
+            Transport transport = session.getTransport();
+            transport.connect(host, port, username, password);
+            return transport;
+        };
+    }
+}
@@ -0,0 +1,282 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps up to {@code app.email.smtp.pool-size} authenticated connections to the configured
+ * relay open and sends many messages over each, so a burst of emails does not pay for a TCP
+ * connect, TLS handshake and AUTH per message.
+ * <p>
+ * A connection is closed after {@code app.email.smtp.max-messages-per-connection} messages,
+ * since relays commonly cap that, or after sitting idle for {@code app.email.smtp.idle-ms}.
+ * Sends to the relay are spaced to at most {@code app.email.smtp.max-per-second} messages
+ * across all connections (0 for no cap), so a large queue does not get us throttled or
+ * blocked by the provider.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private record PooledTransport(Transport transport, int sent, long lastUsed) {
+
+        PooledTransport used(int messages) {
+            return new PooledTransport(transport, sent + messages, System.nanoTime());
+        }
+    }
+
+    private final SmtpConnectionFactory connectionFactory;
+    private final int poolSize;
+    private final int maxMessagesPerConnection;
+    private final long idleNanos;
+    private final long intervalNanos;
+
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicLong nextSendAt = new AtomicLong(System.nanoTime());
+    private volatile boolean closed;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private long lastReportSent;
+    private long lastReportAt = System.nanoTime();
+
+    public SmtpTransportPool(SmtpConnectionFactory connectionFactory,
+                             @Value("${app.email.smtp.pool-size:4}") int poolSize,
+                             @Value("${app.email.smtp.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.email.smtp.idle-ms:30000}") long idleMillis,
+                             @Value("${app.email.smtp.max-per-second:0}") int maxPerSecond) {
+        this.connectionFactory = connectionFactory;
+        this.poolSize = poolSize;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.intervalNanos = maxPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxPerSecond : 0;
+        this.permits = new Semaphore(poolSize, true);
+    }
+
+    /**
+     * Sends the messages over one pooled connection, blocking while all connections are in use.
+     *
+     * @return the messages that were not sent, with the cause: a {@link MailPreparationException}
+     *         if the message itself is broken, a {@link MailSendException} otherwise
+     * @throws MailSendException if no connection to the relay could be opened
+     */
+    public Map<MimeMessage, MailException> send(List<MimeMessage> messages) {
+        Map<MimeMessage, MailException> failures = new LinkedHashMap<>();
+        if (messages.isEmpty())
+            return failures;
+
+        long waitStart = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+        waitNanos.add(System.nanoTime() - waitStart);
+
+        PooledTransport connection = null;
+        try {
+            connection = borrow();
+            int batchSent = 0;
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                try {
+                    message.saveChanges();
+                } catch (MessagingException e) {
+                    failures.put(message, new MailPreparationException(e));
+                    continue;
+                }
+
+                try {
+                    if (connection.sent() + batchSent >= maxMessagesPerConnection) {
+                        close(connection);
+                        connection = open();
+                        batchSent = 0;
+                    }
+                    batchSent += sendOne(connection, message, failures);
+                } catch (MailSendException e) {
+                    // the connection broke; carry on over a new one unless the relay is unreachable
+                    failures.putIfAbsent(message, e);
+                    try {
+                        connection = open();
+                        batchSent = 0;
+                    } catch (MailSendException unreachable) {
+                        messages.subList(i + 1, messages.size()).forEach(unsent -> failures.putIfAbsent(unsent, unreachable));
+                        connection = null;
+                        break;
+                    }
+                }
+            }
+
+            sent.add(messages.size() - failures.size());
+            failed.add(failures.size());
+            if (connection != null)
+                release(connection.used(batchSent));
+            connection = null;
+            return failures;
+        } finally {
+            if (connection != null)
+                close(connection);
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle too long and logs the pool metrics.
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (PooledTransport connection : idle) {
+            if (now - connection.lastUsed() > idleNanos && idle.remove(connection)) {
+                close(connection);
+                evicted++;
+            }
+        }
+
+        long totalSent = getSent();
+        long perSecond = (totalSent - lastReportSent) * TimeUnit.SECONDS.toNanos(1) / Math.max(1, now - lastReportAt);
+        lastReportSent = totalSent;
+        lastReportAt = now;
+        log.debug("SMTP pool: idle={}, inUse={}, evicted={}, opened={}, reused={}, sent={}, failed={}, perSecond={}, waitMs={}, throttledMs={}",
+                getIdle(), getInUse(), evicted, getOpened(), getReused(), totalSent, getFailed(), perSecond,
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()), TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum()));
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public int getInUse() {
+        return poolSize - permits.availablePermits();
+    }
+
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null)
+            close(connection);
+    }
+
+    private PooledTransport borrow() {
+        // most recently used first, so the connections beyond what the load needs go idle and get evicted
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.transport().isConnected() && System.nanoTime() - connection.lastUsed() <= idleNanos) {
+                reused.increment();
+                return connection;
+            }
+            close(connection);
+        }
+        return open();
+    }
+
+    private void release(PooledTransport connection) {
+        if (closed || connection.sent() >= maxMessagesPerConnection)
+            close(connection);
+        else
+            idle.offerFirst(connection);
+    }
+
+    private PooledTransport open() {
+        try {
+            Transport transport = connectionFactory.connect();
+            opened.increment();
+            return new PooledTransport(transport, 0, System.nanoTime());
+        } catch (MessagingException e) {
+            throw new MailSendException("Could not connect to the SMTP relay", e);
+        }
+    }
+
+    /**
+     * @return 1 if the message was sent, 0 if the relay rejected it
+     * @throws MailSendException if the connection broke, after closing it
+     */
+    private int sendOne(PooledTransport connection, MimeMessage message, Map<MimeMessage, MailException> failures) {
+        pace();
+        try {
+            connection.transport().sendMessage(message, message.getAllRecipients());
+            return 1;
+        } catch (SendFailedException e) {
+            // rejected recipients; the connection is still usable
+            failures.put(message, new MailSendException("Failed to send message", e));
+            return 0;
+        } catch (MessagingException e) {
+            // most likely the relay dropped the connection
+            failures.put(message, new MailSendException("Failed to send message", e));
+            close(connection);
+            throw new MailSendException("SMTP connection broken", e);
+        }
+    }
+
+    private void close(PooledTransport connection) {
+        try {
+            connection.transport().close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    // reserves the next send slot and waits for it, spacing sends evenly across all connections
+    private void pace() {
+        if (intervalNanos == 0)
+            return;
+
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSendAt.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos));
+        long delay = slot - now;
+        if (delay <= 0)
+            return;
+
+        throttledNanos.add(delay);
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            // send anyway rather than leave the batch half done
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -54,11 +54,13 @@ public enum ApiErrorCode {
     SESSION_NOT_FOUND(404, "SESSION_NOT_FOUND" , "Session not found" , "The session was not found in the database." ),
     NOTIFICATION_NOT_FOUND(404, "NOTIFICATION_NOT_FOUND", "Notification not found", "The notification was not found in the database."),
     PASSKEY_NOT_FOUND(404, "PASSKEY_NOT_FOUND", "Passkey not found", "The requested passkey could not be found"),
+    BROADCAST_NOT_FOUND(404, "BROADCAST_NOT_FOUND", "Broadcast not found", "The notification broadcast was not found in the database."),
 
     // 409 - Conflict
     EMAIL_ALREADY_REGISTERED(409, "EMAIL_ALREADY_REGISTERED", "Email already registered", "An account with this email already exists."),
     ALREADY_USED_TOKEN(409, "ALREADY_USED_TOKEN", "Already Used Token", "The token provided has already been used and is no longer valid."),
     USERNAME_ALREADY_TAKEN(409, "USERNAME_ALREADY_TAKEN", "Username Already Taken", "The username you have chosen is already in use. Please select a different username."),
+    BROADCAST_STATE_CONFLICT(409, "BROADCAST_STATE_CONFLICT", "Broadcast state conflict", "The notification broadcast is not in a state that allows this action."),
 
     // 429 - Too Many Requests
     TOO_MANY_REQUESTS(429, "TOO_MANY_REQUESTS", "Too many requests", "You have exceeded the number of allowed requests. Please try again later."),
@@ -66,7 +68,10 @@ public enum ApiErrorCode {
     TOO_MANY_2FA_ATTEMPTS(429, "TOO_MANY_2FA_ATTEMPTS", "Too many 2FA attempts", "Too many failed attempts. Please try again later"),
 
     // 500 - Internal Server Error
-    INTERNAL_ERROR(500, "INTERNAL_ERROR", "Unexpected error", "An unexpected error occurred");
+    INTERNAL_ERROR(500, "INTERNAL_ERROR", "Unexpected error", "An unexpected error occurred"),
+
+    // 503 - Service Unavailable
+    SERVICE_UNAVAILABLE(503, "SERVICE_UNAVAILABLE", "Service temporarily unavailable", "The server is too busy to handle this request. Please try again after the time indicated in the 'Retry-After' header.");
 
     private final int httpStatus;
     private final String code;
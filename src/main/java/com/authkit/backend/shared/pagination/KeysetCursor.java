@@ -0,0 +1,54 @@
+package com.authkit.backend.shared.pagination;
+
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position of a row in a (createdAt, id) ordering, handed to clients as an opaque string.
+ * The timestamp is kept at the microsecond precision the database stores, so the position
+ * compares equal to the row it was taken from. Ids compare by their canonical text, which
+ * is the order the database sorts them in.
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) implements Comparable<KeysetCursor> {
+
+    private static final Comparator<KeysetCursor> ORDER = Comparator.comparing(KeysetCursor::createdAt)
+            .thenComparing(cursor -> cursor.id().toString());
+
+    public KeysetCursor {
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    public int compareTo(KeysetCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded position, or null for a missing cursor
+     * @throws ApiException if the cursor is not one this API handed out
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ApiException(ApiErrorCode.INVALID_REQUEST);
+        }
+    }
+}
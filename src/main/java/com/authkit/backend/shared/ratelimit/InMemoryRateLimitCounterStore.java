@@ -0,0 +1,49 @@
+package com.authkit.backend.shared.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counter store held in this JVM, for single-node deployments and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory")
+public class InMemoryRateLimitCounterStore implements RateLimitCounterStore {
+
+    private record CounterKey(String policy, long window, String key) {
+    }
+
+    private final Map<CounterKey, Integer> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Reservation> reserve(String policy, long window, int limit, List<LeaseRequest> requests) {
+        List<Reservation> reservations = new ArrayList<>(requests.size());
+        for (LeaseRequest request : requests) {
+            int[] granted = new int[1];
+            int reserved = counters.compute(new CounterKey(policy, window, request.key()), (key, used) -> {
+                int current = used == null ? 0 : used;
+                granted[0] = Math.max(0, Math.min(request.tokens(), limit - current));
+                return current + granted[0];
+            });
+            reservations.add(new Reservation(granted[0], reserved));
+        }
+        return reservations;
+    }
+
+    @Override
+    public void release(String policy, long window, List<LeaseRequest> unused) {
+        for (LeaseRequest request : unused)
+            counters.computeIfPresent(new CounterKey(policy, window, request.key()),
+                    (key, used) -> Math.max(0, used - request.tokens()));
+    }
+
+    @Override
+    public void purge(String policy, long beforeWindow) {
+        counters.keySet().removeIf(key -> key.policy().equals(policy) && key.window() < beforeWindow);
+    }
+}
@@ -0,0 +1,109 @@
+package com.authkit.backend.shared.ratelimit;
+
+import com.authkit.backend.shared.utils.HashUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Counter store in the application database, shared by every node that points at it.
+ * <p>
+ * Keys are stored as SHA-256 digests, so addresses and emails never reach the table, and
+ * the rows of a batch are locked in digest order so concurrent batches cannot deadlock.
+ * The statements use the MySQL dialect, which H2 also accepts in MySQL mode. The table is
+ * mapped by {@link com.authkit.backend.domain.model.RateLimitCounter}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitCounterStore implements RateLimitCounterStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public JdbcRateLimitCounterStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public List<Reservation> reserve(String policy, long window, int limit, List<LeaseRequest> requests) {
+        if (requests.isEmpty())
+            return List.of();
+
+        List<String> digests = requests.stream().map(request -> digest(request.key())).toList();
+        TreeSet<String> ordered = new TreeSet<>(digests);
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO rate_limit_counters (policy, window_index, bucket_key, used) VALUES (?, ?, ?, 0) "
+                            + "ON DUPLICATE KEY UPDATE used = used",
+                    ordered.stream().map(digest -> new Object[]{policy, window, digest}).toList()
+            );
+
+            Map<String, Integer> used = new HashMap<>();
+            namedJdbcTemplate.query(
+                    "SELECT bucket_key, used FROM rate_limit_counters "
+                            + "WHERE policy = :policy AND window_index = :window AND bucket_key IN (:keys) "
+                            + "ORDER BY bucket_key FOR UPDATE",
+                    new MapSqlParameterSource()
+                            .addValue("policy", policy)
+                            .addValue("window", window)
+                            .addValue("keys", ordered),
+                    rs -> {
+                        used.put(rs.getString("bucket_key"), rs.getInt("used"));
+                    }
+            );
+
+            List<Reservation> reservations = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                String digest = digests.get(i);
+                int current = used.getOrDefault(digest, 0);
+                int granted = Math.max(0, Math.min(requests.get(i).tokens(), limit - current));
+                used.put(digest, current + granted);
+                reservations.add(new Reservation(granted, current + granted));
+            }
+
+            jdbcTemplate.batchUpdate(
+                    "UPDATE rate_limit_counters SET used = ? WHERE policy = ? AND window_index = ? AND bucket_key = ?",
+                    ordered.stream().map(digest -> new Object[]{used.get(digest), policy, window, digest}).toList()
+            );
+            return reservations;
+        });
+    }
+
+    @Override
+    public void release(String policy, long window, List<LeaseRequest> unused) {
+        if (unused.isEmpty())
+            return;
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE rate_limit_counters SET used = GREATEST(used - ?, 0) "
+                        + "WHERE policy = ? AND window_index = ? AND bucket_key = ?",
+                unused.stream()
+                        .map(request -> new Object[]{request.tokens(), policy, window, digest(request.key())})
+                        .toList()
+        );
+    }
+
+    @Override
+    public void purge(String policy, long beforeWindow) {
+        jdbcTemplate.update("DELETE FROM rate_limit_counters WHERE policy = ? AND window_index < ?", policy, beforeWindow);
+    }
+
+    private static String digest(String key) {
+        return HexFormat.of().formatHex(HashUtil.sha256(key));
+    }
+}
@@ -0,0 +1,250 @@
+package com.authkit.backend.shared.ratelimit;
+
+import com.authkit.backend.shared.ratelimit.RateLimitCounterStore.LeaseRequest;
+import com.authkit.backend.shared.ratelimit.RateLimitCounterStore.Reservation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window limiter whose budget is shared by every node through a
+ * {@link RateLimitCounterStore}.
+ * <p>
+ * A node does not ask the store on every request. It reserves a lease of several tokens
+ * for a key and spends them locally. The once-a-second {@link #sweep()} talks to the
+ * store in batches: it renews leases of busy keys before they run out and gives back the
+ * unused part of leases of keys that went quiet, so other nodes can have it. Because
+ * tokens are reserved before they are spent, the cluster never admits more than the
+ * limit per window.
+ * <p>
+ * A lease is never smaller than {@link #MIN_LEASE} tokens (capped at half the capacity),
+ * so small policies don't go to the store on every request, and a key's lease is only
+ * handed back after a quarter of the window without requests. When a lease runs dry one
+ * request refills it from the store, outside the lease's lock; concurrent requests for the
+ * same key wait for that refill instead of queueing their own.
+ * <p>
+ * If the store cannot be reached, the node falls back to granting from its own share,
+ * which caps each node at the limit until the store comes back.
+ * <p>
+ * At most {@code maxLeases} keys hold a lease at once. Past that, a new key is charged one
+ * token at a time straight against the store, so spraying keys costs store round trips
+ * but not memory; such requests are rejected while the store is unreachable, since there
+ * is no local share to grant them from.
+ */
+@Slf4j
+public class LeasedRateLimiter implements RateLimiter {
+
+    private static final int MIN_LEASE = 4;
+    private static final long MIN_IDLE_MILLIS = 1000;
+
+    private static final class Lease {
+        final long window;
+        int granted;
+        int used;
+        int reserved;
+        boolean exhausted;
+        boolean retired;
+        long lastUsedAt;
+        // set while a reservation for this lease is in flight
+        CompletableFuture<Void> refill;
+
+        Lease(long window) {
+            this.window = window;
+        }
+
+        int available() {
+            return granted - used;
+        }
+    }
+
+    private final String policy;
+    private final int capacity;
+    private final long periodMillis;
+    private final int leaseSize;
+    private final long idleMillis;
+    private final int maxLeases;
+    private final RateLimitCounterStore store;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private volatile long purgedBefore;
+
+    /**
+     * @param leaseSize tokens reserved from the store at a time, raised to {@link #MIN_LEASE} for small policies
+     * @param maxLeases number of keys holding a lease at once
+     */
+    public LeasedRateLimiter(String policy, int capacity, long periodMillis, int leaseSize, int maxLeases,
+                             RateLimitCounterStore store) {
+        this.policy = policy;
+        this.capacity = capacity;
+        this.periodMillis = periodMillis;
+        this.leaseSize = Math.max(1, Math.min(capacity, Math.max(leaseSize, Math.min(MIN_LEASE, (capacity + 1) / 2))));
+        this.idleMillis = Math.max(MIN_IDLE_MILLIS, periodMillis / 4);
+        this.maxLeases = maxLeases;
+        this.store = store;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            long window = now / periodMillis;
+            if (leases.size() >= maxLeases && !leases.containsKey(key))
+                return acquireDirectly(key, window, now);
+
+            Lease lease = leases.compute(key, (k, existing) ->
+                    existing == null || existing.window != window ? new Lease(window) : existing);
+
+            CompletableFuture<Void> pending;
+            int grantedSoFar;
+            synchronized (lease) {
+                // handed back by the sweeper after we looked it up
+                if (lease.retired)
+                    continue;
+
+                lease.lastUsedAt = now;
+                if (lease.available() > 0 || lease.exhausted) {
+                    boolean allowed = lease.available() > 0;
+                    if (allowed)
+                        lease.used++;
+                    return decision(allowed, lease, now);
+                }
+
+                pending = lease.refill;
+                if (pending == null)
+                    lease.refill = new CompletableFuture<>();
+                grantedSoFar = lease.granted;
+            }
+
+            if (pending != null)
+                pending.join();
+            else
+                refill(key, lease, grantedSoFar);
+        }
+    }
+
+    @Override
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        long window = now / periodMillis;
+
+        List<LeaseRequest> releases = new ArrayList<>();
+        List<LeaseRequest> renewals = new ArrayList<>();
+        List<Lease> renewed = new ArrayList<>();
+
+        for (Iterator<Map.Entry<String, Lease>> it = leases.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Lease> entry = it.next();
+            Lease lease = entry.getValue();
+            synchronized (lease) {
+                if (lease.window != window) {
+                    // the window is over, so its counter no longer matters
+                    lease.retired = true;
+                    it.remove();
+                } else if (lease.refill != null) {
+                    // a request is already reserving for this key
+                    continue;
+                } else if (now - lease.lastUsedAt >= idleMillis) {
+                    if (lease.available() > 0)
+                        releases.add(new LeaseRequest(entry.getKey(), lease.available()));
+                    lease.retired = true;
+                    it.remove();
+                } else if (lease.available() <= leaseSize / 2) {
+                    // exhausted leases are retried too, in case other nodes gave tokens back
+                    renewals.add(new LeaseRequest(entry.getKey(), leaseSize));
+                    renewed.add(lease);
+                    lease.refill = new CompletableFuture<>();
+                }
+            }
+        }
+
+        List<Reservation> reservations = List.of();
+        try {
+            store.release(policy, window, releases);
+            reservations = store.reserve(policy, window, capacity, renewals);
+
+            if (window > purgedBefore) {
+                store.purge(policy, window);
+                purgedBefore = window;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not sync rate-limit leases for {}: {}", policy, e.getMessage());
+        } finally {
+            for (int i = 0; i < renewed.size(); i++)
+                finishRefill(renewed.get(i), i < reservations.size() ? reservations.get(i) : null);
+        }
+    }
+
+    private RateLimitDecision acquireDirectly(String key, long window, long now) {
+        long resetMillis = (window + 1) * periodMillis - now;
+        long resetSeconds = (resetMillis + 999) / 1000;
+        try {
+            Reservation reservation = store.reserve(policy, window, capacity, List.of(new LeaseRequest(key, 1))).get(0);
+            boolean allowed = reservation.granted() > 0;
+            return new RateLimitDecision(
+                    allowed,
+                    capacity,
+                    Math.max(0, capacity - reservation.reserved()),
+                    resetSeconds,
+                    allowed ? 0 : resetSeconds
+            );
+        } catch (RuntimeException e) {
+            log.warn("Rate-limit store unavailable for {} with the lease table full, rejecting: {}", policy, e.getMessage());
+            return new RateLimitDecision(false, capacity, 0, resetSeconds, resetSeconds);
+        }
+    }
+
+    private void refill(String key, Lease lease, int grantedSoFar) {
+        Reservation reservation = null;
+        try {
+            reservation = reserve(key, lease.window, grantedSoFar);
+        } finally {
+            finishRefill(lease, reservation);
+        }
+    }
+
+    private void finishRefill(Lease lease, Reservation reservation) {
+        CompletableFuture<Void> refill;
+        synchronized (lease) {
+            if (reservation != null)
+                apply(lease, leaseSize, reservation);
+            refill = lease.refill;
+            lease.refill = null;
+        }
+        if (refill != null)
+            refill.complete(null);
+    }
+
+    // never called while holding the lease's lock
+    private Reservation reserve(String key, long window, int grantedSoFar) {
+        try {
+            return store.reserve(policy, window, capacity, List.of(new LeaseRequest(key, leaseSize))).get(0);
+        } catch (RuntimeException e) {
+            log.warn("Rate-limit store unavailable for {}, limiting locally: {}", policy, e.getMessage());
+            int granted = Math.max(0, Math.min(leaseSize, capacity - grantedSoFar));
+            return new Reservation(granted, grantedSoFar + granted);
+        }
+    }
+
+    private static void apply(Lease lease, int requested, Reservation reservation) {
+        lease.granted += reservation.granted();
+        lease.reserved = reservation.reserved();
+        lease.exhausted = reservation.granted() < requested;
+    }
+
+    private RateLimitDecision decision(boolean allowed, Lease lease, long now) {
+        int unreserved = lease.exhausted ? 0 : Math.max(0, capacity - lease.reserved);
+        long resetMillis = (lease.window + 1) * periodMillis - now;
+        long resetSeconds = (resetMillis + 999) / 1000;
+        return new RateLimitDecision(
+                allowed,
+                capacity,
+                Math.min(capacity, lease.available() + unreserved),
+                resetSeconds,
+                allowed ? 0 : resetSeconds
+        );
+    }
+}
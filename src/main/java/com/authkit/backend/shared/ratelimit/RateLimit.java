@@ -0,0 +1,25 @@
+package com.authkit.backend.shared.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a rate-limit policy on a controller method. A method may carry several, each
+ * with its own bucket; handlers without one fall under the default per-user policy.
+ * <p>
+ * Capacity and period can be overridden with
+ * {@code app.rate-limit.policies.<name>.capacity} and {@code .period-seconds}. Policies
+ * that share a name share one bucket.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+    String name();
+    int capacity();
+    long periodSeconds() default 60;
+    RateLimitKey[] key() default RateLimitKey.IP;
+}
@@ -0,0 +1,37 @@
+package com.authkit.backend.shared.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Enforces the policies keyed on the request body, once it has been deserialized.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class RateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimitPolicyRegistry registry;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.getMethod() != null && registry.hasBodyPolicies(methodParameter.getMethod());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        registry.enforce(registry.policiesFor(parameter.getMethod()), true, body,
+                attributes.getRequest(), attributes.getResponse());
+        return body;
+    }
+}
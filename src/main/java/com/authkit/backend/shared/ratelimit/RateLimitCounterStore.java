@@ -0,0 +1,41 @@
+package com.authkit.backend.shared.ratelimit;
+
+import java.util.List;
+
+/**
+ * Counters shared by every node, one per policy, key and fixed window, from which
+ * {@link LeasedRateLimiter} reserves tokens in batches.
+ * <p>
+ * Selected with {@code app.rate-limit.store}: {@code memory} or {@code jdbc}. Without
+ * it, each node limits on its own with {@link TokenBucketLimiter}.
+ */
+public interface RateLimitCounterStore {
+
+    /**
+     * Atomically reserves up to the requested tokens on each counter, never letting one
+     * go past {@code limit}.
+     *
+     * @return one reservation per request, in the same order
+     */
+    List<Reservation> reserve(String policy, long window, int limit, List<LeaseRequest> requests);
+
+    /**
+     * Gives back tokens that were reserved but not used.
+     */
+    void release(String policy, long window, List<LeaseRequest> unused);
+
+    /**
+     * Drops the counters of windows before the given one.
+     */
+    void purge(String policy, long beforeWindow);
+
+    record LeaseRequest(String key, int tokens) {
+    }
+
+    /**
+     * @param granted  tokens handed to the caller
+     * @param reserved counter value after the reservation, across all nodes
+     */
+    record Reservation(int granted, int reserved) {
+    }
+}
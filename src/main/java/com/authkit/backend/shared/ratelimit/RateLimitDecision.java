@@ -0,0 +1,7 @@
+package com.authkit.backend.shared.ratelimit;
+
+/**
+ * Outcome of a single rate-limit check, with the values for the RateLimit-* headers.
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+}
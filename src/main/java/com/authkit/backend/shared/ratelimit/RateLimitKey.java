@@ -0,0 +1,14 @@
+package com.authkit.backend.shared.ratelimit;
+
+/**
+ * Request attributes a rate-limit bucket can be keyed on. Several can be combined into a
+ * composite key.
+ */
+public enum RateLimitKey {
+    /** Client address as seen by the servlet container. */
+    IP,
+    /** Subject of the verified access token, or the client address for anonymous requests. */
+    USER,
+    /** {@code email} property of the request body. */
+    EMAIL
+}
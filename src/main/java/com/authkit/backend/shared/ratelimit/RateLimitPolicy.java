@@ -0,0 +1,64 @@
+package com.authkit.backend.shared.ratelimit;
+
+import com.authkit.backend.shared.security.VerifiedToken;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Locale;
+
+/**
+ * A {@link RateLimit} compiled against its handler method: the bucket it draws from and
+ * how to build its key from a request.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RateLimitPolicy {
+
+    private final String name;
+    private final RateLimiter limiter;
+    private final RateLimitKey[] keys;
+    // getEmail() of the request body type, only set when the key includes EMAIL
+    private final MethodHandle emailAccessor;
+    // the default policy leaves anonymous requests alone
+    private final boolean authenticatedOnly;
+
+    public boolean needsBody() {
+        return emailAccessor != null;
+    }
+
+    /**
+     * @return the bucket key, or {@code null} when the policy does not apply to this request
+     */
+    public String resolveKey(HttpServletRequest request, Object body) {
+        String user = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE) instanceof VerifiedToken token
+                ? token.getSubject()
+                : null;
+        if (authenticatedOnly && user == null)
+            return null;
+
+        StringBuilder key = new StringBuilder(64);
+        for (RateLimitKey part : keys) {
+            if (!key.isEmpty())
+                key.append('|');
+            switch (part) {
+                case IP -> key.append("ip:").append(request.getRemoteAddr());
+                case USER -> key.append(user != null ? "user:" + user : "ip:" + request.getRemoteAddr());
+                case EMAIL -> key.append("email:").append(email(body));
+            }
+        }
+        return key.toString();
+    }
+
+    private String email(Object body) {
+        if (body == null)
+            return "";
+        try {
+            String email = (String) emailAccessor.invoke(body);
+            return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not read email for rate-limit policy " + name, e);
+        }
+    }
+}
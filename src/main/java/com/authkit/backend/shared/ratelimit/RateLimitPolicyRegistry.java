@@ -0,0 +1,224 @@
+package com.authkit.backend.shared.ratelimit;
+
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles the {@link RateLimit} annotations of every request mapping once at startup
+ * into a handler-method lookup, so enforcing them needs no reflection per request.
+ */
+@Slf4j
+@Component
+public class RateLimitPolicyRegistry implements SmartInitializingSingleton {
+
+    private static final String DEFAULT_POLICY = "default";
+    private static final String POLICY_PREFIX = "app.rate-limit.policies.";
+    // the sweeper runs every second, so each hand goes round its table once a minute
+    private static final int SWEEP_TICKS = 60;
+    private static final RateLimitPolicy[] NONE = new RateLimitPolicy[0];
+
+    private record Definition(int capacity, long periodSeconds, String declaredOn) {
+
+        boolean conflictsWith(Definition other) {
+            return capacity != other.capacity || periodSeconds != other.periodSeconds;
+        }
+    }
+
+    private final ApplicationContext applicationContext;
+    private final Environment environment;
+    private final int defaultCapacity;
+    private final long defaultPeriodSeconds;
+    private final int defaultSlots;
+    private final int policySlots;
+    private final double leaseFraction;
+    private final RateLimitCounterStore counterStore;
+
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Definition> definitions = new HashMap<>();
+    private volatile Map<Method, RateLimitPolicy[]> policies = Map.of();
+    private volatile Set<Method> bodyPolicies = Set.of();
+
+    public RateLimitPolicyRegistry(ApplicationContext applicationContext,
+                                   Environment environment,
+                                   ObjectProvider<RateLimitCounterStore> counterStore,
+                                   @Value("${app.rate-limit.capacity:30}") int defaultCapacity,
+                                   @Value("${app.rate-limit.period-seconds:60}") long defaultPeriodSeconds,
+                                   @Value("${app.rate-limit.slots:65536}") int defaultSlots,
+                                   @Value("${app.rate-limit.policy-slots:16384}") int policySlots,
+                                   @Value("${app.rate-limit.lease-fraction:0.1}") double leaseFraction) {
+        this.applicationContext = applicationContext;
+        this.environment = environment;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultPeriodSeconds = defaultPeriodSeconds;
+        this.defaultSlots = defaultSlots;
+        this.policySlots = policySlots;
+        this.leaseFraction = leaseFraction;
+        this.counterStore = counterStore.getIfAvailable();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping mapping =
+                applicationContext.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+
+        RateLimitPolicy[] defaults = {new RateLimitPolicy(
+                DEFAULT_POLICY,
+                limiter(DEFAULT_POLICY, defaultCapacity, defaultPeriodSeconds, defaultSlots, "app.rate-limit"),
+                new RateLimitKey[]{RateLimitKey.USER},
+                null,
+                true
+        )};
+
+        Map<Method, RateLimitPolicy[]> compiled = new HashMap<>();
+        Set<Method> withBody = new HashSet<>();
+        int annotated = 0;
+
+        for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+            Method method = handlerMethod.getMethod();
+            RateLimit[] annotations = method.getAnnotationsByType(RateLimit.class);
+            if (annotations.length == 0) {
+                compiled.put(method, defaults);
+                continue;
+            }
+
+            RateLimitPolicy[] methodPolicies = Arrays.stream(annotations)
+                    .map(annotation -> compile(handlerMethod, annotation))
+                    .toArray(RateLimitPolicy[]::new);
+            compiled.put(method, methodPolicies);
+            if (Arrays.stream(methodPolicies).anyMatch(RateLimitPolicy::needsBody))
+                withBody.add(method);
+            annotated++;
+        }
+
+        this.policies = compiled;
+        this.bodyPolicies = withBody;
+        log.info("Compiled rate-limit policies for {} handler methods ({} annotated, {} buckets, {})",
+                compiled.size(), annotated, limiters.size(),
+                counterStore == null ? "node-local" : counterStore.getClass().getSimpleName());
+    }
+
+    public RateLimitPolicy[] policiesFor(Method method) {
+        return policies.getOrDefault(method, NONE);
+    }
+
+    public boolean hasBodyPolicies(Method method) {
+        return bodyPolicies.contains(method);
+    }
+
+    /**
+     * Draws a token from each policy of the given phase. Policies keyed on the request
+     * body run once it has been read; the rest run before the handler is invoked.
+     *
+     * @throws ApiException {@link ApiErrorCode#TOO_MANY_REQUESTS} with a Retry-After header
+     */
+    public void enforce(RateLimitPolicy[] methodPolicies, boolean afterBodyRead, Object body,
+                        HttpServletRequest request, HttpServletResponse response) {
+        for (RateLimitPolicy policy : methodPolicies) {
+            if (policy.needsBody() != afterBodyRead)
+                continue;
+
+            String key = policy.resolveKey(request, body);
+            if (key == null)
+                continue;
+
+            RateLimitDecision decision = policy.getLimiter().tryAcquire(key);
+            writeHeaders(decision, response);
+
+            if (!decision.allowed()) {
+                log.debug("Rate limit {} exceeded for {}", policy.getName(), key);
+                throw new ApiException(ApiErrorCode.TOO_MANY_REQUESTS,
+                        Map.of("Retry-After", String.valueOf(decision.retryAfterSeconds())));
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void sweep() {
+        limiters.values().forEach(RateLimiter::sweep);
+    }
+
+    private RateLimitPolicy compile(HandlerMethod handlerMethod, RateLimit annotation) {
+        String name = annotation.name();
+        int capacity = environment.getProperty(POLICY_PREFIX + name + ".capacity", Integer.class, annotation.capacity());
+        long periodSeconds = environment.getProperty(POLICY_PREFIX + name + ".period-seconds", Long.class, annotation.periodSeconds());
+
+        boolean byEmail = Arrays.asList(annotation.key()).contains(RateLimitKey.EMAIL);
+        return new RateLimitPolicy(
+                name,
+                limiter(name, capacity, periodSeconds, policySlots, handlerMethod.toString()),
+                annotation.key(),
+                byEmail ? emailAccessor(handlerMethod, name) : null,
+                false
+        );
+    }
+
+    /**
+     * Policies with the same name share one bucket, so they must agree on its size.
+     *
+     * @throws IllegalStateException if the name was already declared with another capacity or period
+     */
+    private RateLimiter limiter(String name, int capacity, long periodSeconds, int slots, String declaredOn) {
+        Definition definition = new Definition(capacity, periodSeconds, declaredOn);
+        Definition existing = definitions.putIfAbsent(name, definition);
+        if (existing != null && existing.conflictsWith(definition))
+            throw new IllegalStateException("Rate-limit policy " + name + " is declared as " + capacity + "/" + periodSeconds
+                    + "s on " + declaredOn + " but as " + existing.capacity() + "/" + existing.periodSeconds()
+                    + "s on " + existing.declaredOn() + "; policies sharing a name share one bucket and must match");
+
+        return limiters.computeIfAbsent(name, n -> counterStore == null
+                ? new TokenBucketLimiter(capacity, periodSeconds * 1000, slots, SWEEP_TICKS)
+                : new LeasedRateLimiter(name, capacity, periodSeconds * 1000, (int) (capacity * leaseFraction), slots, counterStore));
+    }
+
+    private MethodHandle emailAccessor(HandlerMethod handlerMethod, String policy) {
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            if (!parameter.hasParameterAnnotation(RequestBody.class))
+                continue;
+            try {
+                return MethodHandles.publicLookup()
+                        .findVirtual(parameter.getParameterType(), "getEmail", MethodType.methodType(String.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException("Rate-limit policy " + policy + " on " + handlerMethod
+                        + " is keyed on EMAIL but the request body has no public getEmail()", e);
+            }
+        }
+        throw new IllegalStateException("Rate-limit policy " + policy + " on " + handlerMethod
+                + " is keyed on EMAIL but the handler takes no @RequestBody");
+    }
+
+    // with several policies on one route, report the one closest to running out
+    private void writeHeaders(RateLimitDecision decision, HttpServletResponse response) {
+        String current = response.getHeader("RateLimit-Remaining");
+        if (current != null && decision.allowed() && Integer.parseInt(current) <= decision.remaining())
+            return;
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.authkit.backend.shared.ratelimit;
+
+/**
+ * Bucket store behind a rate-limit policy.
+ */
+public interface RateLimiter {
+
+    RateLimitDecision tryAcquire(String key);
+
+    /**
+     * Periodic housekeeping, called once a second.
+     */
+    void sweep();
+}
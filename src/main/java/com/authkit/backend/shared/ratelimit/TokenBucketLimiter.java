@@ -0,0 +1,205 @@
+package com.authkit.backend.shared.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local, lock-free token bucket limiter over a fixed number of slots.
+ * <p>
+ * Each slot holds a 64-bit key fingerprint and a 64-bit packed state: the time of the
+ * last refill in the upper 40 bits (milliseconds since the limiter was created) and the
+ * available tokens, in thousandths, in the lower 24 bits. Both live in
+ * {@link AtomicLongArray}s and are updated with CAS, so memory is fixed at construction
+ * and no allocation happens per request.
+ * <p>
+ * A key that has been idle for a whole period has a full bucket again, which is the same
+ * as having no state at all, so its slot can be taken over. That happens passively while
+ * probing for a free slot and, for the rest of the table, by {@link #sweep()}, which
+ * advances a hand over one segment per call like a timing wheel.
+ * <p>
+ * A key is never given a slot whose owner is still active. When every slot a key may use
+ * is busy, the table is saturated and the key is charged against a single overflow bucket
+ * shared by all such keys, so spraying keys cannot push an exhausted key out and get it a
+ * fresh bucket. The overflow bucket holds {@code capacity × slots / probes} tokens, the
+ * share of the table one probe window stands for, so the keys that land there while the
+ * spray holds the table are not all rejected after the first few requests.
+ */
+public class TokenBucketLimiter implements RateLimiter {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long UNIT = 1000;
+    private static final int MAX_PROBES = 8;
+
+    private final int capacity;
+    private final long capacityUnits;
+    private final long overflowUnits;
+    private final long periodMillis;
+    private final int mask;
+    private final int overflowSlot;
+    private final int sweepSegment;
+    private final AtomicLongArray fingerprints;
+    private final AtomicLongArray states;
+    private final long origin = System.nanoTime();
+    private final LongAdder saturated = new LongAdder();
+
+    // only advanced by the single sweeping thread
+    private int sweepCursor;
+
+    /**
+     * @param capacity     burst size, which is also the number of tokens refilled per period
+     * @param periodMillis time to refill an empty bucket
+     * @param slots        number of keys tracked at once, rounded up to a power of two
+     * @param sweepTicks   number of {@link #sweep()} calls for the hand to cover the whole table
+     */
+    public TokenBucketLimiter(int capacity, long periodMillis, int slots, int sweepTicks) {
+        if (capacity <= 0 || capacity * UNIT > TOKEN_MASK)
+            throw new IllegalArgumentException("capacity must be between 1 and " + TOKEN_MASK / UNIT);
+        if (periodMillis <= 0)
+            throw new IllegalArgumentException("periodMillis must be positive");
+
+        int size = Integer.highestOneBit(Math.max(slots, MAX_PROBES) - 1) << 1;
+        this.capacity = capacity;
+        this.capacityUnits = capacity * UNIT;
+        this.overflowUnits = Math.min((long) capacity * (size / MAX_PROBES), TOKEN_MASK / UNIT) * UNIT;
+        this.periodMillis = periodMillis;
+        this.mask = size - 1;
+        this.overflowSlot = size;
+        this.sweepSegment = Math.max(1, size / Math.max(1, sweepTicks));
+        // one extra slot past the probed range holds the overflow bucket
+        this.fingerprints = new AtomicLongArray(size + 1);
+        this.states = new AtomicLongArray(size + 1);
+        this.states.set(overflowSlot, pack(now(), overflowUnits));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    /**
+     * Number of checks charged to the overflow bucket because the table was saturated.
+     */
+    public long getSaturated() {
+        return saturated.sum();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key) {
+        long fingerprint = fingerprint(key);
+        long now = now();
+        int slot = findSlot(fingerprint, now);
+
+        while (true) {
+            long units = slot == overflowSlot ? overflowUnits : capacityUnits;
+            long state = states.get(slot);
+            long tokens = refill(state, now, units);
+            boolean allowed = tokens >= UNIT;
+            long left = allowed ? tokens - UNIT : tokens;
+
+            if (states.compareAndSet(slot, state, pack(now, left))) {
+                // the slot was handed to another key between lookup and update
+                if (slot != overflowSlot && fingerprints.get(slot) != fingerprint) {
+                    slot = findSlot(fingerprint, now);
+                    continue;
+                }
+                return decision(allowed, left, units);
+            }
+        }
+    }
+
+    /**
+     * Frees the idle slots in the next segment of the table.
+     */
+    @Override
+    public void sweep() {
+        long now = now();
+        int start = sweepCursor;
+        for (int i = 0; i < sweepSegment; i++) {
+            int slot = (start + i) & mask;
+            long fingerprint = fingerprints.get(slot);
+            if (fingerprint != 0 && isIdle(states.get(slot), now))
+                fingerprints.compareAndSet(slot, fingerprint, 0);
+        }
+        sweepCursor = (start + sweepSegment) & mask;
+    }
+
+    private int findSlot(long fingerprint, long now) {
+        int start = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (start + i) & mask;
+            if (fingerprints.get(slot) == fingerprint)
+                return slot;
+        }
+
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (start + i) & mask;
+            long current = fingerprints.get(slot);
+
+            if ((current == 0 || isIdle(states.get(slot), now)) && claim(slot, current, fingerprint, now))
+                return slot;
+            if (fingerprints.get(slot) == fingerprint)
+                return slot;
+        }
+
+        // every probed slot belongs to an active key; evicting one would hand it a full bucket
+        saturated.increment();
+        return overflowSlot;
+    }
+
+    private boolean claim(int slot, long expected, long fingerprint, long now) {
+        if (!fingerprints.compareAndSet(slot, expected, fingerprint))
+            return false;
+        states.set(slot, pack(now, capacityUnits));
+        return true;
+    }
+
+    private long refill(long state, long now, long units) {
+        long elapsed = Math.min(now - (state >>> TOKEN_BITS), periodMillis);
+        long tokens = (state & TOKEN_MASK) + elapsed * units / periodMillis;
+        return Math.min(tokens, units);
+    }
+
+    private boolean isIdle(long state, long now) {
+        return now - (state >>> TOKEN_BITS) >= periodMillis;
+    }
+
+    private RateLimitDecision decision(boolean allowed, long tokens, long units) {
+        long resetMillis = (units - tokens) * periodMillis / units;
+        long retryAfterMillis = allowed ? 0 : (UNIT - tokens) * periodMillis / units;
+        return new RateLimitDecision(
+                allowed,
+                capacity,
+                (int) Math.min(tokens / UNIT, capacity),
+                ceilSeconds(resetMillis),
+                ceilSeconds(retryAfterMillis)
+        );
+    }
+
+    private long now() {
+        return (System.nanoTime() - origin) / 1_000_000;
+    }
+
+    private static long pack(long now, long tokens) {
+        return (now << TOKEN_BITS) | tokens;
+    }
+
+    private static long ceilSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    // 64-bit FNV-1a; 0 is reserved for empty slots
+    private static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,42 @@
+package com.authkit.backend.shared.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Consumer;
+
+/**
+ * Runs the hashing of a delegate encoder on the {@link PasswordHashingExecutor}, so every
+ * caller, including Spring Security's authentication provider, is subject to its limits.
+ */
+@RequiredArgsConstructor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encodes on the pool without waiting and hands the result to the callback, on the
+     * pool thread.
+     *
+     * @return false when the pool is too busy to take optional work
+     */
+    public boolean encodeInBackground(CharSequence rawPassword, Consumer<String> callback) {
+        return executor.executeInBackground(() -> callback.accept(delegate.encode(rawPassword)));
+    }
+}
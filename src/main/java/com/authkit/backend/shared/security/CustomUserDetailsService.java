@@ -1,36 +1,64 @@
 package com.authkit.backend.shared.security;
 
-import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.repository.user.UserRepository;
 import com.authkit.backend.domain.enums.UserStatus;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final Set<String> adminEmails;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    PrincipalCache principalCache,
+                                    @Value("${app.admin.emails:}") String adminEmails) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository
-                .findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        PrincipalCache.Principal principal = principalCache.get(email, this::loadPrincipal);
+        if (principal == null)
+            throw new UsernameNotFoundException("User not found with email: " + email);
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPasswordHash())
-                .roles("USER") // can be adapted in the future
+                .withUsername(principal.email())
+                .password(principal.passwordHash())
+                .roles(isAdmin(principal) ? new String[]{"USER", "ADMIN"} : new String[]{"USER"})
                 .accountLocked(
-                        user.getStatus() == UserStatus.DEACTIVATION_REQUESTED || user.getStatus() == UserStatus.LOCKED
+                        principal.status() == UserStatus.DEACTIVATION_REQUESTED || principal.status() == UserStatus.LOCKED
                 )
                 .build();
     }
+
+    // admins are configured through app.admin.emails until users carry roles; a listed
+    // account that is not active (unverified, locked, pending deletion) is a plain user
+    private boolean isAdmin(PrincipalCache.Principal principal) {
+        return principal.status() == UserStatus.ACTIVE
+                && adminEmails.contains(principal.email().toLowerCase(Locale.ROOT));
+    }
+
+    private PrincipalCache.Principal loadPrincipal(String email) {
+        return userRepository.findByEmail(email)
+                .map(PrincipalCache.Principal::of)
+                .orElse(null);
+    }
 }
@@ -1,7 +1,5 @@
 package com.authkit.backend.shared.security;
 
-import com.authkit.backend.domain.model.UserToken;
-import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import com.authkit.backend.shared.exception.ApiException;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -20,7 +18,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -28,7 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
-    private final UserTokenRepository userTokenRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     @Override
@@ -38,7 +35,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
+        final VerifiedToken verifiedToken;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -47,19 +44,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
+            verifiedToken = jwtService.resolveVerifiedToken(request);
+            userEmail = verifiedToken.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
                 // Check if token is revoked
-                Optional<UserToken> userToken = userTokenRepository.findByAccessTokenAndRevokedFalse(jwt);
-                if (userToken.isEmpty()) {
+                if (!tokenRevocationIndex.isLive(verifiedToken.getToken(), verifiedToken.getExpiration())) {
                     throw new ApiException(ApiErrorCode.INVALID_ACCESS_TOKEN);
                 }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(verifiedToken, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -1,31 +1,34 @@
 package com.authkit.backend.shared.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import com.authkit.backend.domain.model.User;
 import com.authkit.backend.shared.exception.ApiException;
 import com.authkit.backend.shared.exception.ApiErrorCode;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.time.Duration;
 import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final SigningKeyRing signingKeyRing;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
@@ -33,13 +36,22 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    // the parser is immutable and thread-safe, so it is built once; keys come from the ring
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyRing)
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public String extractUsernameFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        return extractUsername(token);
+        return resolveVerifiedToken(request).getSubject();
     }
 
     private String extractTokenFromRequest(HttpServletRequest request) {
@@ -51,9 +63,43 @@ public class JwtService {
     }
 
     public UUID extractUserIdFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        String userId = extractClaim(token, claims -> claims.get("userId", String.class));
-        return UUID.fromString(userId);
+        UUID userId = resolveVerifiedToken(request).getUserId();
+        if (userId == null)
+            throw new ApiException(ApiErrorCode.INVALID_ACCESS_TOKEN);
+        return userId;
+    }
+
+    /**
+     * Parses and verifies the token (signature and expiration) in a single pass.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(token, extractAllClaims(token));
+    }
+
+    /**
+     * Returns the bearer token of the request, verifying it only the first time
+     * it is requested. Later calls in the same request reuse the cached result.
+     */
+    public VerifiedToken resolveVerifiedToken(HttpServletRequest request) {
+        Object cached = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        if (cached instanceof VerifiedToken verifiedToken)
+            return verifiedToken;
+
+        VerifiedToken verifiedToken = verify(extractTokenFromRequest(request));
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
+        return verifiedToken;
+    }
+
+    /**
+     * Returns the token already verified for the current request, if any.
+     * Never parses: callers outside the filter chain only read what was resolved.
+     */
+    public Optional<VerifiedToken> currentVerifiedToken() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes))
+            return Optional.empty();
+
+        Object cached = attributes.getRequest().getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        return cached instanceof VerifiedToken verifiedToken ? Optional.of(verifiedToken) : Optional.empty();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -79,12 +125,11 @@ public class JwtService {
     }
 
     public String generatePendingToken(User user) {
-        return Jwts.builder()
+        return signingKeyRing.sign(Jwts.builder()
                 .setSubject(user.getEmail())
                 .setIssuedAt(new Date())
                 .setExpiration(Date.from(Instant.now().plus(Duration.ofMinutes(10)))) // short-lived
-                .claim("type", "pending_2fa") // optional claim
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .claim("type", "pending_2fa")) // optional claim
                 .compact();
     }
 
@@ -92,12 +137,11 @@ public class JwtService {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", "email_verification");
         
-        return Jwts.builder()
+        return signingKeyRing.sign(Jwts.builder()
             .setClaims(claims)
             .setSubject(user.getEmail())
             .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000)) // 24 hours
-            .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+            .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000))) // 24 hours
             .compact();
     }
 
@@ -106,13 +150,12 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
-        return Jwts
+        return signingKeyRing.sign(Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration)))
                 .compact();
     }
 
@@ -121,6 +164,11 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername())
+                && !token.getExpiration().before(new Date());
+    }
+
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -130,16 +178,9 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 } 
\ No newline at end of file
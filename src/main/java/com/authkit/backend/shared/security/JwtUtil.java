@@ -1,9 +1,8 @@
 package com.authkit.backend.shared.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,8 +11,6 @@ import com.authkit.backend.shared.exception.ApiException;
 import com.authkit.backend.shared.exception.ApiErrorCode;
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,12 +21,14 @@ import java.time.Duration;
 @Component
 public class JwtUtil {
 
-    private final Key secretKey;
+    private final SigningKeyRing signingKeyRing;
+    private final JwtParser jwtParser;
     private final long jwtExpirationMs;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret,
+    public JwtUtil(SigningKeyRing signingKeyRing,
                    @Value("${jwt.expiration}") long jwtExpirationMs) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.signingKeyRing = signingKeyRing;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(signingKeyRing).build();
         this.jwtExpirationMs = jwtExpirationMs;
     }
 
@@ -56,23 +55,21 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
 
         long refreshTokenDuration = 7 * 24 * 60 * 60 * 1000; // 7 days
-        return Jwts.builder()
+        return signingKeyRing.sign(Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + refreshTokenDuration))
-                .signWith(secretKey)
+                .setExpiration(new Date(System.currentTimeMillis() + refreshTokenDuration)))
                 .compact();
     }
 
     // we use User entiry here to avoid unecessary coupling with UserDetails
     public String generatePendingToken(User user) {
-    return Jwts.builder()
+    return signingKeyRing.sign(Jwts.builder()
             .setSubject(user.getEmail())
             .setIssuedAt(new Date())
             .setExpiration(Date.from(Instant.now().plus(Duration.ofMinutes(10)))) // short-lived
-            .claim("type", "pending_2fa") // optional claim
-            .signWith(SignatureAlgorithm.HS256, secretKey)
+            .claim("type", "pending_2fa")) // optional claim
             .compact();
     }
 
@@ -86,20 +83,16 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        return signingKeyRing.sign(Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(secretKey)
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs)))
                 .compact();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,189 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing on a pool sized to the CPU, so a login spike queues up here
+ * instead of pinning every request thread on bcrypt. The queue is bounded: when it is
+ * full, or a hash waits longer than {@code app.password-hashing.max-wait-ms}, callers
+ * get a 503 with a Retry-After estimated from the backlog.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public PasswordHashingExecutor(@Value("${app.password-hashing.threads:0}") int threads,
+                                   @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.password-hashing.max-wait-ms:5000}") long maxWaitMillis) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = maxWaitMillis;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                this.threads, this.threads,
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @throws ApiException {@link ApiErrorCode#SERVICE_UNAVAILABLE} when the pool is saturated
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(timed(task));
+        } catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw saturated();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw saturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues optional work, such as re-hashing on login, without waiting for it. Only
+     * accepted while the queue is less than half full, so it never competes with
+     * interactive requests for the last slots.
+     *
+     * @return whether the task was queued
+     */
+    public boolean executeInBackground(Runnable task) {
+        if (executor.getQueue().remainingCapacity() < queueCapacity / 2)
+            return false;
+
+        Callable<Void> timed = timed(() -> {
+            task.run();
+            return null;
+        });
+        try {
+            executor.execute(() -> {
+                try {
+                    timed.call();
+                } catch (Exception e) {
+                    log.warn("Background password hashing task failed: {}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getAverageHashMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(hashNanos.sum() / count);
+    }
+
+    public long getMaxHashMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxHashNanos.get());
+    }
+
+    public long getAverageQueueWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum() / count);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void logStats() {
+        log.debug("Password hashing: threads={}, active={}, queued={}, completed={}, rejected={}, avgHashMs={}, maxHashMs={}, avgWaitMs={}",
+                threads, getActiveCount(), getQueueDepth(), getCompleted(), getRejected(),
+                getAverageHashMillis(), getMaxHashMillis(), getAverageQueueWaitMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Callable<T> timed(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            queueWaitNanos.add(startedAt - submittedAt);
+            try {
+                return task.call();
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                hashNanos.add(elapsed);
+                maxHashNanos.accumulate(elapsed);
+                completed.increment();
+            }
+        };
+    }
+
+    private ApiException saturated() {
+        rejected.increment();
+        // time for the pool to work through what is queued ahead of a retry
+        long backlogMillis = (getQueueDepth() + threads) * Math.max(1, getAverageHashMillis()) / threads;
+        long retryAfter = Math.max(1, (backlogMillis + 999) / 1000);
+        return new ApiException(ApiErrorCode.SERVICE_UNAVAILABLE, Map.of("Retry-After", String.valueOf(retryAfter)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.model.User;
+import com.authkit.backend.domain.repository.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Re-hashes a password with the configured algorithm and cost after a successful login,
+ * when the stored hash is below target. The hash is computed in the background on the
+ * hashing pool and written from a separate single thread, so hashing threads never wait
+ * on the database. Either step is skipped while its queue is full; the next login tries
+ * again.
+ */
+@Slf4j
+@Component
+public class PasswordUpgrader {
+
+    private static final int PERSIST_QUEUE_CAPACITY = 256;
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final ThreadPoolExecutor persister;
+
+    private final LongAdder upgraded = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    public PasswordUpgrader(PasswordEncoder passwordEncoder, UserRepository userRepository, PrincipalCache principalCache) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.persister = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PERSIST_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-upgrade");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Must only be called once {@code rawPassword} has been verified against the user's hash.
+     */
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (!(passwordEncoder instanceof BoundedPasswordEncoder encoder) || !encoder.upgradeEncoding(currentHash))
+            return;
+
+        boolean queued = encoder.encodeInBackground(rawPassword, upgradedHash -> {
+            try {
+                persister.execute(() -> persist(user, currentHash, upgradedHash));
+            } catch (RejectedExecutionException e) {
+                deferred.increment();
+            }
+        });
+
+        if (!queued)
+            deferred.increment();
+    }
+
+    public long getUpgraded() {
+        return upgraded.sum();
+    }
+
+    public long getDeferred() {
+        return deferred.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persister.shutdown();
+    }
+
+    private void persist(User user, String currentHash, String upgradedHash) {
+        try {
+            // a password change in the meantime wins over the upgrade
+            if (userRepository.updatePasswordHashIfUnchanged(user.getId(), currentHash, upgradedHash) == 1) {
+                principalCache.invalidate(user.getEmail());
+                upgraded.increment();
+                log.debug("Upgraded password hash for user {}", user.getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not store upgraded password hash for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.authkit.backend.shared.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PBKDF2-HMAC-SHA256 that records the iteration count in the hash, as
+ * {@code <iterations>$<hex salt and hash>}. Spring's {@link Pbkdf2PasswordEncoder} does not
+ * store it, so it cannot verify hashes made with another count and its
+ * {@code upgradeEncoding} is always false; here a hash below the target count is upgraded.
+ * Hashes without the prefix were made by the plain encoder with the current target.
+ */
+public class Pbkdf2IterationsPasswordEncoder implements PasswordEncoder {
+
+    private static final int SALT_LENGTH = 16;
+
+    private final int iterations;
+    private final Map<Integer, Pbkdf2PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+    public Pbkdf2IterationsPasswordEncoder(int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return iterations + "$" + encoder(iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null)
+            return false;
+        int separator = encodedPassword.indexOf('$');
+        int hashIterations = iterationsOf(encodedPassword);
+        if (hashIterations <= 0)
+            return false;
+        return encoder(hashIterations).matches(rawPassword, encodedPassword.substring(separator + 1));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // unprefixed hashes are rewritten once so their count is on record
+        return encodedPassword != null && (encodedPassword.indexOf('$') < 0 || iterationsOf(encodedPassword) < iterations);
+    }
+
+    private int iterationsOf(String encodedPassword) {
+        int separator = encodedPassword.indexOf('$');
+        if (separator < 0)
+            return iterations;
+        try {
+            return Integer.parseInt(encodedPassword, 0, separator, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Pbkdf2PasswordEncoder encoder(int count) {
+        return encoders.computeIfAbsent(count, c -> new Pbkdf2PasswordEncoder("", SALT_LENGTH, c,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+}
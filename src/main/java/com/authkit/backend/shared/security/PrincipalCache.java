@@ -0,0 +1,147 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.enums.UserStatus;
+import com.authkit.backend.domain.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of the user fields the authentication filter needs,
+ * keyed by email. Only an immutable snapshot is stored: Spring Security erases
+ * credentials on the UserDetails it is handed, so a fresh instance is built on
+ * every hit. Entries must be invalidated whenever a user's status or password
+ * changes, or when the user is deleted.
+ * <p>
+ * The cache is node-local and {@link #invalidate} only reaches the node that made the
+ * change, so other nodes keep authenticating a locked, deactivated or re-passworded user
+ * until their entry expires. {@code app.principal-cache.ttl-seconds} is that bound and is
+ * kept short, like the revocation index's live window.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    public record Principal(UUID id, String email, String passwordHash, UserStatus status) {
+
+        public static Principal of(User user) {
+            return new Principal(user.getId(), user.getEmail(), user.getPasswordHash(), user.getStatus());
+        }
+    }
+
+    private record Entry(Principal principal, long expiresAt) {}
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(@Value("${app.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    public Principal get(String email, Function<String, Principal> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+
+        misses.increment();
+        long epoch = invalidationEpoch.get();
+        Principal principal = loader.apply(email);
+
+        if (principal != null && epoch == invalidationEpoch.get()) {
+            makeRoom();
+            entries.put(email, new Entry(principal, now + ttlMillis));
+        }
+        return principal;
+    }
+
+    public void invalidate(String email) {
+        if (email == null)
+            return;
+        evict(email);
+
+        // a concurrent load may still read the old row until the transaction commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidationEpoch.incrementAndGet();
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            boolean expired = entry.expiresAt() <= now;
+            if (expired)
+                evictions.increment();
+            return expired;
+        });
+        log.debug("Principal cache: size={}, hits={}, misses={}, evictions={}", size(), getHits(), getMisses(), getEvictions());
+    }
+
+    private void evict(String email) {
+        invalidationEpoch.incrementAndGet();
+        entries.remove(email);
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxEntries)
+            return;
+
+        // the map has no access order, so evict whatever the iterator hands out first
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
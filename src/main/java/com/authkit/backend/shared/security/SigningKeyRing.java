@@ -0,0 +1,290 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.model.SigningKey;
+import com.authkit.backend.domain.repository.auth.common.SigningKeyRepository;
+import com.authkit.backend.shared.utils.HashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the keys used to sign and verify JWTs.
+ * <p>
+ * In the default HS256 mode every token is signed with the shared jwt.secret. In ES256
+ * mode tokens are signed with an EC key and carry its id in the "kid" header; keys
+ * rotate every jwt.signing.rotation-interval and keep verifying until every token they
+ * signed has expired. A new key is published for {@link #PUBLISH_AHEAD} before it starts
+ * signing, so resource servers caching the JWKS see it before the first token using it. Keys are persisted (private part encrypted) so all nodes
+ * share the same ring, and the public halves are published as a JWKS.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing extends SigningKeyResolverAdapter {
+
+    // matches the JWKS Cache-Control max-age
+    public static final Duration PUBLISH_AHEAD = Duration.ofMinutes(5);
+
+    private static final String ES256 = "ES256";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final long RELOAD_ON_MISS_INTERVAL_MS = 10_000;
+
+    private record LoadedKey(String kid, PublicKey publicKey, PrivateKey privateKey,
+                             LocalDateTime createdAt, LocalDateTime expiresAt) {}
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final boolean asymmetric;
+    private final boolean acceptLegacyHmac;
+    private final Key hmacKey;
+    private final SecretKey wrappingKey;
+    private final Duration rotationInterval;
+    private final Duration verificationGrace;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // newest first, replaced wholesale on every reload
+    private volatile List<LoadedKey> keys = List.of();
+    private volatile long lastReloadAt;
+
+    public SigningKeyRing(SigningKeyRepository signingKeyRepository,
+                          @Value("${jwt.secret}") String secret,
+                          @Value("${jwt.refresh-token.expiration}") long refreshExpiration,
+                          @Value("${jwt.signing.algorithm:HS256}") String algorithm,
+                          @Value("${jwt.signing.rotation-interval:P1D}") Duration rotationInterval,
+                          @Value("${jwt.signing.accept-legacy-hmac:true}") boolean acceptLegacyHmac) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.asymmetric = ES256.equalsIgnoreCase(algorithm);
+        this.acceptLegacyHmac = acceptLegacyHmac;
+        this.hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.wrappingKey = new SecretKeySpec(HashUtil.sha256(secret), "AES");
+        this.rotationInterval = rotationInterval;
+        // refresh tokens are the longest-lived tokens we sign (JwtUtil issues 7-day ones)
+        this.verificationGrace = Duration.ofMillis(Math.max(refreshExpiration, Duration.ofDays(7).toMillis()));
+    }
+
+    @PostConstruct
+    void init() {
+        if (!asymmetric)
+            return;
+
+        reload();
+        if (keys.isEmpty())
+            rotate();
+    }
+
+    public boolean isAsymmetric() {
+        return asymmetric;
+    }
+
+    /**
+     * Signs the token with the current key, adding the "kid" header in ES256 mode.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (!asymmetric)
+            return builder.signWith(hmacKey, SignatureAlgorithm.HS256);
+
+        LoadedKey active = activeKey();
+        if (active == null)
+            active = rotate();
+
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, active.kid())
+                .signWith(active.privateKey(), SignatureAlgorithm.ES256);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            // tokens signed with the shared secret, before ES256 was enabled
+            if (asymmetric && !acceptLegacyHmac)
+                throw new SignatureException("Token is missing a key id");
+            return hmacKey;
+        }
+
+        LoadedKey key = find(kid);
+        if (key == null && System.currentTimeMillis() - lastReloadAt > RELOAD_ON_MISS_INTERVAL_MS) {
+            // the key may have been rotated in by another node
+            reload();
+            key = find(kid);
+        }
+        if (key == null)
+            throw new SignatureException("Unknown signing key: " + kid);
+
+        return key.publicKey();
+    }
+
+    /**
+     * Public keys that can still verify tokens, in JWK format.
+     */
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (LoadedKey key : keys) {
+            ECPublicKey publicKey = (ECPublicKey) key.publicKey();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", ES256);
+            jwk.put("kid", key.kid());
+            jwk.put("x", base64Url(publicKey.getW().getAffineX()));
+            jwk.put("y", base64Url(publicKey.getW().getAffineY()));
+            jwks.add(jwk);
+        }
+        return jwks;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check-ms:60000}")
+    public void rotateIfDue() {
+        if (!asymmetric)
+            return;
+
+        reload();
+        if (isRotationDue())
+            rotate();
+
+        int removed = signingKeyRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        if (removed > 0)
+            log.info("Removed {} expired JWT signing keys", removed);
+    }
+
+    private synchronized LoadedKey rotate() {
+        // another thread (or node) may have rotated while we were waiting
+        reload();
+        if (!isRotationDue())
+            return activeKey();
+
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"), secureRandom);
+            KeyPair keyPair = generator.generateKeyPair();
+
+            LocalDateTime now = LocalDateTime.now();
+            SigningKey signingKey = new SigningKey();
+            signingKey.setKid(UUID.randomUUID().toString());
+            signingKey.setAlgorithm(ES256);
+            signingKey.setPublicKey(keyPair.getPublic().getEncoded());
+            signingKey.setPrivateKey(encrypt(keyPair.getPrivate().getEncoded()));
+            signingKey.setCreatedAt(now);
+            signingKey.setExpiresAt(now.plus(PUBLISH_AHEAD).plus(rotationInterval).plus(verificationGrace));
+            signingKeyRepository.save(signingKey);
+
+            log.info("Rotated JWT signing key, new kid: {}", signingKey.getKid());
+            reload();
+            return activeKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate JWT signing key", e);
+        }
+    }
+
+    private void reload() {
+        List<LoadedKey> loaded = new ArrayList<>();
+        for (SigningKey signingKey : signingKeyRepository.findByExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime.now())) {
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                loaded.add(new LoadedKey(
+                        signingKey.getKid(),
+                        keyFactory.generatePublic(new X509EncodedKeySpec(signingKey.getPublicKey())),
+                        keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decrypt(signingKey.getPrivateKey()))),
+                        signingKey.getCreatedAt(),
+                        signingKey.getExpiresAt()
+                ));
+            } catch (GeneralSecurityException e) {
+                log.error("Skipping unreadable JWT signing key {}", signingKey.getKid(), e);
+            }
+        }
+        this.keys = List.copyOf(loaded);
+        this.lastReloadAt = System.currentTimeMillis();
+    }
+
+    // the newest key that has already been published long enough; the newest one when bootstrapping
+    private LoadedKey activeKey() {
+        List<LoadedKey> current = keys;
+        if (current.isEmpty())
+            return null;
+
+        LocalDateTime publishedBefore = LocalDateTime.now().minus(PUBLISH_AHEAD);
+        for (LoadedKey key : current) {
+            if (key.createdAt().isBefore(publishedBefore))
+                return key;
+        }
+        return current.get(0);
+    }
+
+    // the next key is created ahead of time so it is in the JWKS before it signs anything
+    private boolean isRotationDue() {
+        List<LoadedKey> current = keys;
+        if (current.isEmpty())
+            return true;
+
+        LoadedKey newest = current.get(0);
+        return newest.createdAt().plus(rotationInterval).minus(PUBLISH_AHEAD).isBefore(LocalDateTime.now());
+    }
+
+    private LoadedKey find(String kid) {
+        for (LoadedKey key : keys) {
+            if (key.kid().equals(kid))
+                return key;
+        }
+        return null;
+    }
+
+    private byte[] encrypt(byte[] plain) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(128, iv));
+        byte[] encrypted = cipher.doFinal(plain);
+        return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+    }
+
+    private byte[] decrypt(byte[] wrapped) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, wrappingKey, new GCMParameterSpec(128, wrapped, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(wrapped, GCM_IV_LENGTH, wrapped.length - GCM_IV_LENGTH);
+    }
+
+    private static String base64Url(BigInteger coordinate) {
+        // JWK coordinates are fixed-width, unsigned big-endian (32 bytes for P-256)
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
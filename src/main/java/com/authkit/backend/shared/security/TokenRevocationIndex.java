@@ -0,0 +1,168 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
+import com.authkit.backend.shared.utils.HashUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local view of which access tokens are live and which were revoked, so the
+ * authentication filter doesn't have to query user_tokens on every request.
+ * Entries are keyed by the same SHA-256 digest stored in user_tokens.
+ * <p>
+ * Revocations are permanent, so a revoked entry is trusted until the token itself
+ * expires. A token the database does not know as live (revoked, deleted, or signed but
+ * never stored) is remembered the same way, so replaying it costs no query. Live entries
+ * are only trusted for a short window, since another node may revoke the session; once
+ * that window passes (or on a miss) the database is asked again and the answer is cached.
+ * <p>
+ * Live entries are capped at {@code jwt.revocation-index.max-entries} and revoked ones at
+ * {@code jwt.revocation-index.max-revoked}. Past a cap a token is simply not cached and
+ * the database answers for it, so the caps bound memory without weakening any check.
+ * <p>
+ * The index is node-local: {@link #markRevoked} only updates the node that handled the
+ * revocation. Another node that recently saw the token as live keeps accepting it for up
+ * to {@code jwt.revocation-index.live-ttl-seconds}, so that setting is the bound on how
+ * long a revoked access token stays usable across the cluster.
+ */
+@Slf4j
+@Component
+public class TokenRevocationIndex {
+
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private record Entry(long expiresAt, long checkedAt) {}
+
+    private final UserTokenRepository userTokenRepository;
+    private final long liveTtlMillis;
+    private final int maxEntries;
+    private final int maxRevoked;
+    private final Map<String, Entry> live = new ConcurrentHashMap<>();
+    private final Map<String, Entry> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationIndex(UserTokenRepository userTokenRepository,
+                                @Value("${jwt.revocation-index.live-ttl-seconds:30}") long liveTtlSeconds,
+                                @Value("${jwt.revocation-index.max-entries:100000}") int maxEntries,
+                                @Value("${jwt.revocation-index.max-revoked:100000}") int maxRevoked) {
+        this.userTokenRepository = userTokenRepository;
+        this.liveTtlMillis = liveTtlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.maxRevoked = maxRevoked;
+    }
+
+    /**
+     * Loads the unexpired tokens a page at a time, until both caps are reached.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Date now = new Date();
+        UUID after = new UUID(0, 0);
+        List<Object[]> page;
+        do {
+            page = userTokenRepository.findAccessTokenStatesExpiringAfter(now, after, PageRequest.of(0, WARM_UP_PAGE_SIZE));
+            for (Object[] state : page) {
+                after = (UUID) state[0];
+                byte[] accessTokenHash = (byte[]) state[1];
+                Date expiration = (Date) state[2];
+                if ((Boolean) state[3])
+                    markRevoked(accessTokenHash, expiration);
+                else
+                    markLive(accessTokenHash, expiration);
+            }
+        } while (page.size() == WARM_UP_PAGE_SIZE && (live.size() < maxEntries || revoked.size() < maxRevoked));
+        log.info("Token revocation index warmed with {} live and {} revoked access tokens", live.size(), revoked.size());
+    }
+
+    /**
+     * Returns whether the access token belongs to a live session, falling back to
+     * the database when the index has no fresh answer.
+     *
+     * @param expiration the token's own expiration, which bounds how long a negative answer is kept
+     */
+    public boolean isLive(String accessToken, Date expiration) {
+        byte[] accessTokenHash = HashUtil.sha256(accessToken);
+        String key = key(accessTokenHash);
+        long now = System.currentTimeMillis();
+
+        Entry entry = revoked.get(key);
+        if (entry != null && entry.expiresAt() > now)
+            return false;
+        entry = live.get(key);
+        if (entry != null && entry.expiresAt() > now && now - entry.checkedAt() < liveTtlMillis)
+            return true;
+
+        return userTokenRepository.findByAccessTokenHashAndRevokedFalse(accessTokenHash)
+                .map(userToken -> {
+                    markLive(accessTokenHash, userToken.getAccessTokenExpiration());
+                    return true;
+                })
+                .orElseGet(() -> {
+                    markRevoked(accessTokenHash, expiration);
+                    return false;
+                });
+    }
+
+    public void markLive(byte[] accessTokenHash, Date expiration) {
+        String key = put(live, maxEntries, accessTokenHash, expiration);
+        if (key != null)
+            revoked.remove(key);
+    }
+
+    public void markRevoked(byte[] accessTokenHash, Date expiration) {
+        String key = put(revoked, maxRevoked, accessTokenHash, expiration);
+        if (key != null)
+            live.remove(key);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        live.values().removeIf(entry -> entry.expiresAt() <= now);
+        revoked.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    int getLiveEntries() {
+        return live.size();
+    }
+
+    int getRevokedEntries() {
+        return revoked.size();
+    }
+
+    // returns the key, or null if the hash or expiration is missing
+    private static String put(Map<String, Entry> entries, int max, byte[] accessTokenHash, Date expiration) {
+        if (accessTokenHash == null || expiration == null)
+            return null;
+
+        String key = key(accessTokenHash);
+        long now = System.currentTimeMillis();
+        long expiresAt = expiration.getTime();
+        if (expiresAt <= now) {
+            entries.remove(key);
+            return key;
+        }
+
+        // past the cap the token is not cached and the database answers for it
+        if (entries.size() >= max && !entries.containsKey(key))
+            return key;
+
+        entries.put(key, new Entry(expiresAt, now));
+        return key;
+    }
+
+    private static String key(byte[] accessTokenHash) {
+        return HexFormat.of().formatHex(accessTokenHash);
+    }
+}
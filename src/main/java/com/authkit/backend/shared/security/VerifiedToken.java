@@ -0,0 +1,40 @@
+package com.authkit.backend.shared.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A bearer token whose signature and expiration have already been checked.
+ * It is resolved once per request and cached as a request attribute so the
+ * filters, controllers and aspects further down the chain don't parse it again.
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final String token;
+    private final Claims claims;
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public String getType() {
+        return claims.get("type", String.class);
+    }
+
+    public UUID getUserId() {
+        String userId = claims.get("userId", String.class);
+        return userId != null ? UUID.fromString(userId) : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.authkit.backend.shared.task;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off migration for databases where login_attempt was keyed on (email, ip, user agent).
+ * Collapses the rows of each (ip, email) pair into the one with the highest count, so the
+ * schema update can add the (ip, email) unique key the login attempt upserts rely on.
+ * Does nothing once that key exists. MySQL only: it relies on {@code DATABASE()} and a
+ * multi-table {@code DELETE}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptKeyMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs before the entity manager factory, and therefore before the schema update.
+     */
+    @Component
+    static class RunBeforeSchemaUpdate extends EntityManagerFactoryDependsOnPostProcessor {
+
+        RunBeforeSchemaUpdate() {
+            super(LoginAttemptKeyMigration.class);
+        }
+    }
+
+    @PostConstruct
+    void collapseDuplicateKeys() {
+        if (!tableExists() || hasUniqueKey())
+            return;
+
+        int deleted = jdbcTemplate.update(
+                "DELETE a FROM login_attempt a JOIN login_attempt b ON a.ip = b.ip AND a.email = b.email " +
+                "AND (a.attempt_count < b.attempt_count OR (a.attempt_count = b.attempt_count AND a.id < b.id))");
+        if (deleted > 0)
+            log.info("Collapsed {} duplicate login_attempt rows ahead of the (ip, email) unique key", deleted);
+    }
+
+    private boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name = 'login_attempt'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+
+    private boolean hasUniqueKey() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'login_attempt' AND index_name = 'uk_login_attempt_ip_email'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -1,49 +1,106 @@
 package com.authkit.backend.shared.task;
 
-import com.authkit.backend.domain.model.UserToken;
+import com.authkit.backend.config.SchedulingConfig;
 import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
-import com.authkit.backend.shared.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
 
+/**
+ * Deletes sessions whose refresh token has expired or that were revoked, straight from
+ * the indexed columns, {@code app.tokens.cleanup.chunk-size} rows per statement. Each chunk
+ * commits on its own and is followed by a {@code app.tokens.cleanup.pause-ms} pause, so the
+ * table is never locked for long and replicas keep up. A run stops after
+ * {@code app.tokens.cleanup.time-budget-ms}; whatever is left goes in the next run. Runs on
+ * the maintenance executor, so the pauses never hold a scheduler thread.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class TokenCleanupTask {
 
     private final UserTokenRepository userTokenRepository;
-    private final JwtUtil jwtUtil;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long timeBudgetMillis;
 
+    private final LongAdder expiredDeleted = new LongAdder();
+    private final LongAdder revokedDeleted = new LongAdder();
+    private final LongAdder millisSpent = new LongAdder();
+
+    public TokenCleanupTask(UserTokenRepository userTokenRepository,
+                            @Value("${app.tokens.cleanup.chunk-size:1000}") int chunkSize,
+                            @Value("${app.tokens.cleanup.pause-ms:100}") long pauseMillis,
+                            @Value("${app.tokens.cleanup.time-budget-ms:60000}") long timeBudgetMillis) {
+        this.userTokenRepository = userTokenRepository;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Async(SchedulingConfig.MAINTENANCE_EXECUTOR)
     @Scheduled(cron = "0 0 1 * * *")
-    public void deleteExpiredOrNonRevokedTokens() {
-        List<UserToken> userTokens = userTokenRepository.findAll();
-
-        int deleted = 0;
-
-        for (UserToken userToken : userTokens) {
-            try {
-                boolean expired = jwtUtil.isTokenExpired(userToken.getRefreshToken());
-                if (expired || userToken.isRevoked()) {
-                    userTokenRepository.delete(userToken);
-                    deleted++;
-                    log.info("Deleted {} token for user ID: {}", expired ? "expired" : "revoked", userToken.getUser().getId());
-                }
-            } catch (io.jsonwebtoken.ExpiredJwtException e) {
-                userTokenRepository.delete(userToken);
-                deleted++;
-                log.info("Deleted (caught ExpiredJwtException) token for user ID: {}", userToken.getUser().getId());
-            } catch (Exception e) {
-                log.warn("Failed to process token for user ID: {} - {}", userToken.getUser().getId(), e.getMessage());
-            }
-        }
+    public void deleteExpiredOrRevokedTokens() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        Date now = new Date();
+
+        int expired = deleteInChunks(() -> userTokenRepository.deleteExpiredBefore(now, chunkSize), deadline);
+        int revoked = deleteInChunks(() -> userTokenRepository.deleteRevoked(chunkSize), deadline);
 
-        if (deleted > 0)
-            log.info("Deleted {} expired or revoked tokens", deleted);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        expiredDeleted.add(expired);
+        revokedDeleted.add(revoked);
+        millisSpent.add(millis);
+
+        if (System.nanoTime() >= deadline)
+            log.warn("Token cleanup ran out of its {} ms budget, the rest is left for the next run", timeBudgetMillis);
+        if (expired + revoked > 0)
+            log.info("Deleted {} expired and {} revoked tokens in {} ms", expired, revoked, millis);
         else
             log.info("No tokens to delete.");
+        log.debug("Token cleanup: expiredDeleted={}, revokedDeleted={}, millisSpent={}",
+                getExpiredDeleted(), getRevokedDeleted(), getMillisSpent());
+    }
+
+    public long getExpiredDeleted() {
+        return expiredDeleted.sum();
+    }
+
+    public long getRevokedDeleted() {
+        return revokedDeleted.sum();
+    }
+
+    public long getMillisSpent() {
+        return millisSpent.sum();
+    }
+
+    private int deleteInChunks(IntSupplier deleteChunk, long deadline) {
+        int total = 0;
+        while (System.nanoTime() < deadline) {
+            int deleted = deleteChunk.getAsInt();
+            total += deleted;
+            if (deleted < chunkSize || !pause())
+                break;
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0)
+            return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
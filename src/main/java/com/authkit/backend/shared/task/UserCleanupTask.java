@@ -1,14 +1,18 @@
 package com.authkit.backend.shared.task;
 
+import com.authkit.backend.config.SchedulingConfig;
 import com.authkit.backend.domain.enums.UserStatus;
 import com.authkit.backend.domain.repository.user.UserRepository;
+import com.authkit.backend.shared.security.PrincipalCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -16,11 +20,15 @@ import java.time.LocalDateTime;
 public class UserCleanupTask {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
+    @Async(SchedulingConfig.MAINTENANCE_EXECUTOR)
     @Scheduled(cron = "0 0 3 * * *") // runs every day at 3am
     public void deleteInactiveUsers() {
         LocalDateTime threshold = LocalDateTime.now().minusDays(30);
+        List<String> emails = userRepository.findEmailsByStatusAndDeletionRequestedAtBefore(UserStatus.DEACTIVATION_REQUESTED, threshold);
         int deleted = userRepository.deleteByStatusAndDeletionRequestedAtBefore(UserStatus.DEACTIVATION_REQUESTED, threshold);
+        emails.forEach(principalCache::invalidate);
 
         if (deleted > 0) {
             log.info("Deleted {} users pending deletion for over 30 days", deleted);
@@ -0,0 +1,111 @@
+package com.authkit.backend.shared.task;
+
+import com.authkit.backend.shared.utils.HashUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off migration for databases created before user_tokens stored token digests.
+ * Fills access_token_hash / refresh_token_hash from the legacy raw token columns and
+ * then drops those columns, so no usable bearer token is left in the table.
+ * Does nothing once the legacy columns are gone.
+ * <p>
+ * The legacy columns are made nullable first, before Hibernate adds the digest columns,
+ * so sessions created during the rollout (which no longer write the raw tokens) can be
+ * inserted while the backfill is still running. MySQL only: it relies on
+ * {@code DATABASE()} and {@code MODIFY COLUMN}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserTokenDigestMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final List<String> LEGACY_COLUMNS = List.of("access_token", "refresh_token");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs before the entity manager factory, and therefore before the schema update.
+     */
+    @Component
+    static class RunBeforeSchemaUpdate extends EntityManagerFactoryDependsOnPostProcessor {
+
+        RunBeforeSchemaUpdate() {
+            super(UserTokenDigestMigration.class);
+        }
+    }
+
+    @PostConstruct
+    void relaxLegacyColumns() {
+        if (!hasLegacyColumns())
+            return;
+
+        for (String column : LEGACY_COLUMNS) {
+            Map<String, Object> definition = jdbcTemplate.queryForMap(
+                    "SELECT column_type, is_nullable FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'user_tokens' AND column_name = ?",
+                    column);
+            if ("YES".equals(definition.get("is_nullable")))
+                continue;
+
+            jdbcTemplate.execute("ALTER TABLE user_tokens MODIFY COLUMN " + column + " " + definition.get("column_type") + " NULL");
+            log.info("Made legacy user_tokens.{} nullable ahead of the digest migration", column);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!hasLegacyColumns())
+            return;
+
+        log.info("Migrating user_tokens from raw tokens to SHA-256 digests");
+
+        String lastId = "";
+        int migrated = 0;
+
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, access_token, refresh_token FROM user_tokens WHERE id > ? ORDER BY id LIMIT ?",
+                    lastId, BATCH_SIZE);
+            if (rows.isEmpty())
+                break;
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                updates.add(new Object[]{
+                        HashUtil.sha256((String) row.get("access_token")),
+                        HashUtil.sha256((String) row.get("refresh_token")),
+                        row.get("id")
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE user_tokens SET access_token_hash = ?, refresh_token_hash = ? WHERE id = ?",
+                    updates);
+
+            migrated += rows.size();
+            lastId = (String) rows.get(rows.size() - 1).get("id");
+        }
+
+        jdbcTemplate.execute("ALTER TABLE user_tokens DROP COLUMN access_token, DROP COLUMN refresh_token");
+        log.info("Migrated {} user_tokens rows and dropped the raw token columns", migrated);
+    }
+
+    private boolean hasLegacyColumns() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'user_tokens' AND column_name IN ('access_token', 'refresh_token')",
+                Integer.class);
+        return count != null && count == 2;
+    }
+}
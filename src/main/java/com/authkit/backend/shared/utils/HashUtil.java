@@ -1,5 +1,6 @@
 package com.authkit.backend.shared.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -17,4 +18,14 @@ public class HashUtil {
             throw new RuntimeException("Erro ao gerar hash MD5", e);
         }
     }
+
+    // fixed-width digest used to store and look up bearer tokens without keeping the tokens themselves
+    public static byte[] sha256(String input) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return md.digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
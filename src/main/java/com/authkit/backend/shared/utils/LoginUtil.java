@@ -1,6 +1,5 @@
 package com.authkit.backend.shared.utils;
 
-import com.authkit.backend.domain.model.LoginAttempt;
 import com.authkit.backend.domain.model.User;
 import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
 import com.authkit.backend.domain.repository.user.UserRepository;
@@ -20,10 +19,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Map;
-
 @Component
 @RequiredArgsConstructor
 public class LoginUtil {
@@ -40,18 +35,13 @@ public class LoginUtil {
         String userAgent = httpRequest.getHeader("User-Agent");
         String email = request.getEmail();
 
-        LoginAttempt loginAttempt = loginAttemptService.getOrCreateLoginAttempt(ip, userAgent, email);
-
-        if (loginAttempt.getBlockedUntil() != null && loginAttempt.getBlockedUntil().isAfter(LocalDateTime.now())) {
-            long waitSeconds = Duration.between(LocalDateTime.now(), loginAttempt.getBlockedUntil()).getSeconds();
-            throw new ApiException(ApiErrorCode.TOO_MANY_LOGIN_ATTEMPTS, Map.of("Retry-After", String.valueOf(waitSeconds)));
-        }
+        loginAttemptService.checkNotBlocked(ip, email);
 
         try {
             authenticateWithCredentials(request);
             loginAttemptService.clearLoginAttempts(ip, email);
         } catch (BadCredentialsException e) {
-            loginAttemptService.handleFailedLoginAttempt(loginAttempt);
+            throw loginAttemptService.handleFailedLoginAttempt(ip, userAgent, email);
         }
     }
 
@@ -104,6 +94,6 @@ public class LoginUtil {
     }
 
     public boolean isRefreshTokenRevoked(String refreshToken) {
-        return userTokenRepository.findByRefreshTokenAndRevokedTrue(refreshToken).isPresent();
+        return userTokenRepository.findByRefreshTokenHashAndRevokedTrue(HashUtil.sha256(refreshToken)).isPresent();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.authkit.backend.domain.repository.email;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native claim query as declared on the repository against H2, two workers at a time.
+ */
+class EmailOutboxRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private DataSource dataSource;
+    private String lockDue;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:emailoutbox;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS email_outbox");
+        jdbcTemplate.execute("CREATE TABLE email_outbox (id BIGINT PRIMARY KEY, status VARCHAR(16) NOT NULL, "
+                + "next_attempt_at TIMESTAMP NOT NULL)");
+        for (long id = 1; id <= 10; id++)
+            jdbcTemplate.update("INSERT INTO email_outbox VALUES (?, 'PENDING', ?)", id, Timestamp.valueOf(NOW.minusMinutes(20 - id)));
+        jdbcTemplate.update("INSERT INTO email_outbox VALUES (11, 'PENDING', ?)", Timestamp.valueOf(NOW.plusMinutes(1)));
+        jdbcTemplate.update("INSERT INTO email_outbox VALUES (12, 'SENDING', ?)", Timestamp.valueOf(NOW.minusHours(1)));
+
+        lockDue = EmailOutboxRepository.class.getMethod("lockDue", LocalDateTime.class, int.class)
+                .getAnnotation(Query.class).value()
+                .replace(":now", "?")
+                .replace(":limit", "?");
+    }
+
+    @Test
+    void concurrentClaimsSkipEachOthersRows() throws SQLException {
+        try (Connection first = transaction(); Connection second = transaction()) {
+            List<Long> claimedFirst = lockDue(first, 4);
+            // the first claim is still open, so its rows are locked
+            List<Long> claimedSecond = lockDue(second, 4);
+            List<Long> claimedThird;
+            try (Connection third = transaction()) {
+                claimedThird = lockDue(third, 4);
+                third.commit();
+            }
+            first.commit();
+            second.commit();
+
+            assertThat(claimedFirst).containsExactly(1L, 2L, 3L, 4L);
+            assertThat(claimedSecond).containsExactly(5L, 6L, 7L, 8L);
+            // only what is due and pending
+            assertThat(claimedThird).containsExactly(9L, 10L);
+        }
+    }
+
+    @Test
+    void rowsAreClaimableAgainOnceTheClaimEnds() throws SQLException {
+        try (Connection first = transaction()) {
+            assertThat(lockDue(first, 2)).containsExactly(1L, 2L);
+            first.rollback();
+        }
+        try (Connection second = transaction()) {
+            assertThat(lockDue(second, 2)).containsExactly(1L, 2L);
+            second.commit();
+        }
+    }
+
+    private Connection transaction() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private List<Long> lockDue(Connection connection, int limit) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(lockDue)) {
+            statement.setTimestamp(1, Timestamp.valueOf(NOW));
+            statement.setInt(2, limit);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next())
+                    ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
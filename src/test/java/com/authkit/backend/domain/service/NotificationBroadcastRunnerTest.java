@@ -0,0 +1,157 @@
+package com.authkit.backend.domain.service;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import com.authkit.backend.domain.repository.notification.NotificationBroadcastRepository;
+import com.authkit.backend.domain.repository.user.UserRepository;
+import com.authkit.backend.domain.repository.user.UserSelection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationBroadcastRunnerTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final NotificationBroadcastRepository broadcastRepository = mock(NotificationBroadcastRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificationDomainService domainService = mock(NotificationDomainService.class);
+    private final NotificationBroadcastRunner runner =
+            new NotificationBroadcastRunner(broadcastRepository, userRepository, domainService, CHUNK_SIZE, 60_000);
+
+    private final UUID[] users = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+    private NotificationBroadcast broadcast;
+
+    @BeforeEach
+    void setUp() {
+        broadcast = new NotificationBroadcast(NotificationCode.SESSION_CREATED, Map.of(), "SYSTEM",
+                new UserSelection(null, null), users.length, "admin@example.com");
+        ReflectionTestUtils.setField(broadcast, "id", UUID.randomUUID());
+
+        when(broadcastRepository.findClaimable(any(), any(), any()))
+                .thenReturn(List.of(broadcast.getId()))
+                .thenReturn(List.of());
+        when(broadcastRepository.claim(eq(broadcast.getId()), any(), eq(BroadcastStatus.RUNNING), anyString(), any(), any()))
+                .thenReturn(1);
+        when(broadcastRepository.findById(broadcast.getId())).thenReturn(Optional.of(broadcast));
+        when(domainService.deliverBroadcastChunk(any(), anyString(), any(), any())).thenReturn(true);
+        when(broadcastRepository.transitionOwned(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING), anyString(),
+                any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        runner.shutdown();
+    }
+
+    @Test
+    void resumesAfterTheLastRecipientItReached() {
+        ReflectionTestUtils.setField(broadcast, "lastUserId", users[0]);
+        selection(users[0], users[1], users[2]);
+        selection(users[2], users[3]);
+
+        run();
+
+        var order = inOrder(domainService, broadcastRepository);
+        order.verify(domainService).deliverBroadcastChunk(eq(broadcast), anyString(), eq(List.of(users[1], users[2])), any());
+        order.verify(domainService).deliverBroadcastChunk(eq(broadcast), anyString(), eq(List.of(users[3])), any());
+        order.verify(broadcastRepository).transitionOwned(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING), anyString(),
+                eq(BroadcastStatus.COMPLETED), isNull(), any());
+        verify(userRepository, never()).findIdsBySelection(any(), isNull(), anyInt());
+        assertThat(runner.getDelivered()).isEqualTo(3);
+        assertThat(runner.getChunks()).isEqualTo(2);
+        assertThat(runner.getCompleted()).isEqualTo(1);
+    }
+
+    @Test
+    void deliversInChunksAndCompletesOnAnEmptyOne() {
+        selection(null, users[0], users[1]);
+        selection(users[1], users[2], users[3]);
+        selection(users[3]);
+
+        run();
+
+        verify(domainService).deliverBroadcastChunk(eq(broadcast), anyString(), eq(List.of(users[0], users[1])), any());
+        verify(domainService).deliverBroadcastChunk(eq(broadcast), anyString(), eq(List.of(users[2], users[3])), any());
+        verify(domainService, never()).deliverBroadcastChunk(any(), anyString(), eq(List.of()), any());
+        verify(broadcastRepository).transitionOwned(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING), anyString(),
+                eq(BroadcastStatus.COMPLETED), isNull(), any());
+        assertThat(runner.getDelivered()).isEqualTo(4);
+        assertThat(runner.getChunks()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsWithoutFinishingWhenTheChunkIsRejected() {
+        selection(null, users[0], users[1]);
+        selection(users[1], users[2], users[3]);
+        when(domainService.deliverBroadcastChunk(any(), anyString(), eq(List.of(users[0], users[1])), any()))
+                .thenReturn(false);
+
+        run();
+
+        // cancelled or taken over: the broadcast row already says so
+        verify(userRepository, never()).findIdsBySelection(any(), eq(users[1]), anyInt());
+        verify(broadcastRepository, never()).transitionOwned(any(), any(), any(), any(), any(), any());
+        verify(broadcastRepository, never()).transition(any(), any(), any(), any(), any());
+        assertThat(runner.getDelivered()).isZero();
+        assertThat(runner.getCompleted()).isZero();
+    }
+
+    @Test
+    void marksTheBroadcastFailedWhenAChunkThrows() {
+        selection(null, users[0], users[1]);
+        when(domainService.deliverBroadcastChunk(any(), anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        run();
+
+        verify(broadcastRepository).transitionOwned(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING), anyString(),
+                eq(BroadcastStatus.FAILED), eq("connection lost"), any());
+        assertThat(runner.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void finishesOnlyUnderTheLeaseItClaimed() {
+        selection(null, users[0]);
+        when(broadcastRepository.transitionOwned(any(), any(), anyString(), eq(BroadcastStatus.COMPLETED), any(), any()))
+                .thenReturn(0);
+
+        run();
+
+        ArgumentCaptor<String> claimedAs = ArgumentCaptor.forClass(String.class);
+        verify(broadcastRepository).claim(eq(broadcast.getId()), any(), any(), claimedAs.capture(), any(), any());
+        verify(broadcastRepository).transitionOwned(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING),
+                eq(claimedAs.getValue()), eq(BroadcastStatus.COMPLETED), isNull(), any());
+        verify(broadcastRepository, never()).transition(any(), any(), any(), any(), any());
+        // the lease had passed to another node, which owns the outcome
+        assertThat(runner.getCompleted()).isZero();
+    }
+
+    private void selection(UUID after, UUID... userIds) {
+        when(userRepository.findIdsBySelection(broadcast.getSelection(), after, CHUNK_SIZE)).thenReturn(List.of(userIds));
+    }
+
+    private void run() {
+        ReflectionTestUtils.invokeMethod(runner, "runClaimable");
+    }
+}
@@ -0,0 +1,165 @@
+package com.authkit.backend.domain.service;
+
+import com.authkit.backend.domain.enums.BroadcastStatus;
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.event.NotificationCreatedEvent;
+import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.domain.model.NotificationBroadcast;
+import com.authkit.backend.domain.repository.notification.NotificationBroadcastRepository;
+import com.authkit.backend.domain.repository.notification.NotificationRepository;
+import com.authkit.backend.domain.repository.user.UserRepository;
+import com.authkit.backend.domain.repository.user.UserSelection;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationDomainServiceTest {
+
+    private static final String LEASE_OWNER = "node-1";
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final NotificationBroadcastRepository broadcastRepository = mock(NotificationBroadcastRepository.class);
+    private final UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final NotificationDomainService service = new NotificationDomainService(notificationRepository,
+            broadcastRepository, mock(UserRepository.class), unreadCounter, transactionTemplate, eventPublisher);
+
+    private final List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    private NotificationBroadcast broadcast;
+
+    @BeforeEach
+    void setUp() {
+        broadcast = new NotificationBroadcast(NotificationCode.SESSION_CREATED, Map.of(), "SYSTEM",
+                new UserSelection(null, null), userIds.size(), "admin@example.com");
+        ReflectionTestUtils.setField(broadcast, "id", UUID.randomUUID());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void announcesEveryNotificationOfABroadcastChunk() {
+        when(broadcastRepository.recordProgress(eq(broadcast.getId()), eq(BroadcastStatus.RUNNING), eq(LEASE_OWNER),
+                eq(userIds.get(2)), eq(3L), any())).thenReturn(1);
+        List<Notification> stored = userIds.stream()
+                .map(userId -> Notification.stored(UUID.randomUUID(), userId, NotificationCode.SESSION_CREATED,
+                        Map.of(), "SYSTEM", LocalDateTime.now()))
+                .toList();
+        when(notificationRepository.insertForUsers(userIds, NotificationCode.SESSION_CREATED, Map.of(), "SYSTEM"))
+                .thenReturn(stored);
+
+        assertThat(service.deliverBroadcastChunk(broadcast, LEASE_OWNER, userIds, LocalDateTime.now())).isTrue();
+
+        ArgumentCaptor<NotificationCreatedEvent> events = ArgumentCaptor.forClass(NotificationCreatedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(NotificationCreatedEvent::notification).containsExactlyElementsOf(stored);
+        verify(unreadCounter).adjustAll(userIds, 1);
+    }
+
+    @Test
+    void storesAndAnnouncesNothingOnceTheBroadcastIsNoLongerHeld() {
+        when(broadcastRepository.recordProgress(any(), any(), any(), any(), anyLong(), any())).thenReturn(0);
+
+        assertThat(service.deliverBroadcastChunk(broadcast, LEASE_OWNER, userIds, LocalDateTime.now())).isFalse();
+
+        verify(notificationRepository, never()).insertForUsers(any(), any(), any(), any());
+        verifyNoInteractions(unreadCounter, eventPublisher);
+    }
+
+    @Test
+    void markingAnUnreadNotificationMovesTheCounter() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+        when(notificationRepository.markAsReadByIdAndUserId(notificationId, userId)).thenReturn(1);
+
+        service.markNotificationAsRead(userId, notificationId);
+
+        verify(unreadCounter).adjust(userId, -1);
+        verify(notificationRepository, never()).existsByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void markingAnAlreadyReadNotificationChangesNothing() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+        when(notificationRepository.existsByIdAndUserId(notificationId, userId)).thenReturn(true);
+
+        service.markNotificationAsRead(userId, notificationId);
+
+        verify(unreadCounter, never()).adjust(any(), anyLong());
+    }
+
+    @Test
+    void markingAnotherUsersOrAMissingNotificationIsNotFound() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+
+        assertNotFound(() -> service.markNotificationAsRead(userId, notificationId));
+
+        verify(unreadCounter, never()).adjust(any(), anyLong());
+    }
+
+    @Test
+    void deletingAnUnreadNotificationMovesTheCounter() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+        when(notificationRepository.deleteByIdAndUserIdAndReadStatus(notificationId, userId, false)).thenReturn(1);
+
+        service.deleteNotification(userId, notificationId);
+
+        verify(unreadCounter).adjust(userId, -1);
+        verify(notificationRepository, never()).deleteByIdAndUserIdAndReadStatus(notificationId, userId, true);
+    }
+
+    @Test
+    void deletingAReadNotificationLeavesTheCounter() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+        when(notificationRepository.deleteByIdAndUserIdAndReadStatus(notificationId, userId, true)).thenReturn(1);
+
+        service.deleteNotification(userId, notificationId);
+
+        verify(unreadCounter, never()).adjust(any(), anyLong());
+    }
+
+    @Test
+    void deletingAnotherUsersOrAMissingNotificationIsNotFound() {
+        UUID userId = userIds.get(0);
+        UUID notificationId = UUID.randomUUID();
+
+        assertNotFound(() -> service.deleteNotification(userId, notificationId));
+
+        verify(notificationRepository).deleteByIdAndUserIdAndReadStatus(notificationId, userId, false);
+        verify(notificationRepository).deleteByIdAndUserIdAndReadStatus(notificationId, userId, true);
+        verify(unreadCounter, never()).adjust(any(), anyLong());
+    }
+
+    private static void assertNotFound(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ApiErrorCode.NOTIFICATION_NOT_FOUND));
+    }
+}
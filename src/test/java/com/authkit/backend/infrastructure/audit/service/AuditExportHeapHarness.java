@@ -0,0 +1,197 @@
+package com.authkit.backend.infrastructure.audit.service;
+
+import com.authkit.backend.infrastructure.audit.dto.AuditLogFilter;
+import com.authkit.backend.infrastructure.audit.service.AuditLogQueryService.ExportFormat;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a large audit_logs table through {@link AuditLogQueryService#export} into a
+ * discarding stream and reports the heap left live after each GC while it runs. If the
+ * rows were buffered anywhere, in the driver or in the service, that figure would grow
+ * with the table; the harness fails when it grows by more than
+ * {@code audit.harness.max-growth-mb}. Run it with a heap much smaller than the table
+ * ({@code -Xmx128m} against the default two million rows) so buffering also shows up as
+ * an {@link OutOfMemoryError}.
+ * <p>
+ * The default is an H2 database file under target/, kept off the heap with a small page
+ * cache and reused between runs. H2 rejects the negative fetch size, so the harness drops
+ * it there; H2 spills large results to disk on its own, so that run checks
+ * the service side only. Point {@code audit.harness.url} (with {@code .user} and
+ * {@code .password}) at a MySQL database to check that the driver honours
+ * {@code Integer.MIN_VALUE}; the rows are added to its audit_logs table if it has fewer.
+ * Run with {@code MAVEN_OPTS=-Xmx128m mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.infrastructure.audit.service.AuditExportHeapHarness}
+ * or from the IDE.
+ */
+public class AuditExportHeapHarness {
+
+    private static final int INSERT_BATCH = 1000;
+    private static final String DETAILS = "{\"reason\":\"" + "x".repeat(200) + "\"}";
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("audit.harness.url", "jdbc:h2:file:./target/audit-export-harness;MODE=MySQL;CACHE_SIZE=8192");
+        long rows = Long.getLong("audit.harness.rows", 2_000_000);
+        long maxGrowthBytes = Long.getLong("audit.harness.max-growth-mb", 32) * 1024 * 1024;
+
+        DataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("audit.harness.user", "sa"), System.getProperty("audit.harness.password", ""));
+        if (url.startsWith("jdbc:h2:"))
+            dataSource = withoutNegativeFetchSize(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        long seeded = seed(jdbcTemplate, rows);
+        System.out.printf("audit_logs holds %d rows (%d added)%n",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class), seeded);
+
+        AuditLogQueryService service = new AuditLogQueryService(jdbcTemplate);
+        for (ExportFormat format : ExportFormat.values()) {
+            System.gc();
+            long baseline = liveHeapAfterGc();
+            AtomicLong peak = new AtomicLong(baseline);
+            AtomicBoolean running = new AtomicBoolean(true);
+
+            Thread sampler = new Thread(() -> {
+                while (running.get()) {
+                    peak.accumulateAndGet(liveHeapAfterGc(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+
+            CountingOutputStream out = new CountingOutputStream();
+            long start = System.nanoTime();
+            try {
+                service.export(new AuditLogFilter(), format, out);
+            } finally {
+                running.set(false);
+                sampler.join();
+            }
+
+            long growth = peak.get() - baseline;
+            System.out.printf("%s: %d lines, %d MB written in %d ms; live heap after GC %d MB at start, %d MB at peak%n",
+                    format, out.lines, out.bytes >> 20, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    baseline >> 20, peak.get() >> 20);
+            if (growth > maxGrowthBytes)
+                throw new AssertionError(format + " export grew the live heap by " + (growth >> 20) + " MB");
+        }
+    }
+
+    private static long seed(JdbcTemplate jdbcTemplate, long rows) {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS audit_logs (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    action VARCHAR(255) NOT NULL,
+                    entity_type VARCHAR(255) NOT NULL,
+                    entity_id VARCHAR(255) NOT NULL,
+                    user_id VARCHAR(255) NOT NULL,
+                    username VARCHAR(255) NOT NULL,
+                    details TEXT,
+                    ip_address VARCHAR(255) NOT NULL,
+                    created_at TIMESTAMP(6) NOT NULL
+                )""");
+
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class);
+        long missing = rows - (existing == null ? 0 : existing);
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(30);
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long i = 0; i < missing; i++) {
+            batch.add(new Object[]{
+                    "LOGIN", "USER", "entity-" + i, "user-" + (i % 10_000), "user" + (i % 10_000) + "@example.com",
+                    DETAILS, "203.0.113." + (i & 0xff), Timestamp.valueOf(createdAt.plusNanos(i * 1000))
+            });
+            if (batch.size() == INSERT_BATCH || i == missing - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO audit_logs (action, entity_type, entity_id, user_id, username, "
+                        + "details, ip_address, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return Math.max(missing, 0);
+    }
+
+    // what the heap pools held right after their last collection, i.e. the live set
+    private static long liveHeapAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null)
+                used += usage.getUsed();
+        }
+        return used;
+    }
+
+    private static DataSource withoutNegativeFetchSize(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    // wraps statements created by the connection so setFetchSize(negative) becomes a no-op
+    private static <T> T proxy(Class<T> type, Object target) {
+        return type.cast(Proxy.newProxyInstance(AuditExportHeapHarness.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, arguments) -> {
+                    if (method.getName().equals("setFetchSize") && (int) arguments[0] < 0)
+                        return null;
+                    Object result;
+                    try {
+                        result = method.invoke(target, arguments);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())
+                            ? proxy(method.getReturnType(), result)
+                            : result;
+                }));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n')
+                lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n')
+                    lines++;
+            }
+        }
+    }
+}
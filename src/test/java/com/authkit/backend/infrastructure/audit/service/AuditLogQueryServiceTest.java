@@ -0,0 +1,60 @@
+package com.authkit.backend.infrastructure.audit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogQueryServiceTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"=HYPERLINK(\"http://example.com\")", "+1+1", "-2+3", "@SUM(A1)", "\tcmd", "\rcmd"})
+    void neutralisesFormulas(String value) throws IOException {
+        String cell = csv(value);
+
+        // quoted, with a leading apostrophe so spreadsheets read it as text
+        assertThat(cell).startsWith(",\"'");
+        assertThat(cell).endsWith("\"");
+        assertThat(unquote(cell)).isEqualTo(value);
+    }
+
+    @Test
+    void leavesPlainValuesAlone() throws IOException {
+        assertThat(csv("LOGIN")).isEqualTo(",LOGIN");
+        assertThat(csv("user@example.com")).isEqualTo(",user@example.com");
+        assertThat(csv("203.0.113.7")).isEqualTo(",203.0.113.7");
+    }
+
+    @Test
+    void writesNothingForMissingValues() throws IOException {
+        assertThat(csv(null)).isEqualTo(",");
+        assertThat(csv("")).isEqualTo(",");
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        assertThat(csv("a,b")).isEqualTo(",\"a,b\"");
+        assertThat(csv("say \"hi\"")).isEqualTo(",\"say \"\"hi\"\"\"");
+        assertThat(csv("line\nbreak")).isEqualTo(",\"line\nbreak\"");
+    }
+
+    @Test
+    void escapesQuotesInsideAFormula() throws IOException {
+        assertThat(csv("=\"x\"")).isEqualTo(",\"'=\"\"x\"\"\"");
+    }
+
+    private static String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        AuditLogQueryService.writeCsvField(writer, value);
+        return writer.toString();
+    }
+
+    // strips the separator, the quotes and the apostrophe, and undoubles inner quotes
+    private static String unquote(String cell) {
+        return cell.substring(3, cell.length() - 1).replace("\"\"", "\"");
+    }
+}
@@ -0,0 +1,116 @@
+package com.authkit.backend.infrastructure.auth.common.service;
+
+import com.authkit.backend.domain.repository.auth.common.LoginAttemptRepository;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class LoginAttemptServiceTest {
+
+    private static final String IP = "203.0.113.7";
+    private static final String EMAIL = "user@example.com";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:loginattempts;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS login_attempt");
+        jdbcTemplate.execute("CREATE TABLE login_attempt (id CHAR(36) PRIMARY KEY, email VARCHAR(255) NOT NULL, "
+                + "ip VARCHAR(255) NOT NULL, user_agent VARCHAR(255) NOT NULL, attempt_count INT NOT NULL, "
+                + "last_attempt_at TIMESTAMP NOT NULL, blocked_until TIMESTAMP NULL, "
+                + "CONSTRAINT uk_login_attempt_ip_email UNIQUE (ip, email))");
+    }
+
+    @Test
+    void flushesFromSeveralNodesAddUp() {
+        LoginAttemptService first = service(100);
+        LoginAttemptService second = service(100);
+
+        fail(first, 2);
+        first.flush();
+        fail(second, 3);
+        second.flush();
+        fail(first, 1);
+        first.flush();
+
+        assertThat(persistedCount()).isEqualTo(6);
+        assertThat(first.getPendingWrites()).isZero();
+    }
+
+    @Test
+    void successfulLoginDeletesTheRow() {
+        LoginAttemptService service = service(100);
+        fail(service, 2);
+        service.flush();
+
+        service.clearLoginAttempts(IP, EMAIL);
+        fail(service, 1);
+        service.flush();
+
+        // the clear is written before the failure that followed it
+        assertThat(persistedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void blocksAfterRepeatedFailures() {
+        LoginAttemptService service = service(100);
+        fail(service, 3);
+
+        assertThatThrownBy(() -> service.checkNotBlocked(IP, EMAIL))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ApiErrorCode.TOO_MANY_LOGIN_ATTEMPTS));
+    }
+
+    @Test
+    void doesNotEvictFailuresThatAreNotFlushedYet() {
+        LoginAttemptService service = service(2);
+        failAs(service, "a@example.com");
+        failAs(service, "b@example.com");
+        failAs(service, "c@example.com");
+
+        // over the bound until the flush, but nothing is lost
+        assertThat(service.size()).isEqualTo(3);
+        assertThat(service.getEvictions()).isZero();
+        service.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(attempt_count) FROM login_attempt", Integer.class)).isEqualTo(3);
+
+        failAs(service, "d@example.com");
+        assertThat(service.getEvictions()).isPositive();
+    }
+
+    private LoginAttemptService service(int maxEntries) {
+        return new LoginAttemptService(mock(LoginAttemptRepository.class), jdbcTemplate, transactionTemplate,
+                maxEntries, 24, 50, 600, 900);
+    }
+
+    private static void fail(LoginAttemptService service, int times) {
+        for (int i = 0; i < times; i++)
+            failAs(service, EMAIL);
+    }
+
+    private static void failAs(LoginAttemptService service, String email) {
+        assertThat(service.handleFailedLoginAttempt(IP, "junit", email).getErrorCode())
+                .isEqualTo(ApiErrorCode.INVALID_CREDENTIALS);
+    }
+
+    private Integer persistedCount() {
+        return jdbcTemplate.queryForObject("SELECT attempt_count FROM login_attempt WHERE ip = ? AND email = ?",
+                Integer.class, IP, EMAIL);
+    }
+}
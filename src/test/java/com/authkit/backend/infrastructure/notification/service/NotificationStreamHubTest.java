@@ -0,0 +1,294 @@
+package com.authkit.backend.infrastructure.notification.service;
+
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.event.NotificationCreatedEvent;
+import com.authkit.backend.domain.event.UnreadCountChangedEvent;
+import com.authkit.backend.domain.model.Notification;
+import com.authkit.backend.domain.service.NotificationDomainService;
+import com.authkit.backend.infrastructure.notification.dto.NotificationDTO;
+import com.authkit.backend.infrastructure.notification.dto.UnreadCountDTO;
+import com.authkit.backend.shared.pagination.KeysetCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationStreamHubTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final NotificationDomainService domainService = mock(NotificationDomainService.class);
+    private final List<RecordingEmitter> emitters = Collections.synchronizedList(new ArrayList<>());
+    private final NotificationStreamHub hub = new NotificationStreamHub(domainService, 60_000, 5, 100, 256) {
+        @Override
+        SseEmitter newEmitter(long timeoutMillis) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void liveNotificationsDuringAReplayFollowItInPositionOrder() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Notification seen = notification(userId, 0);
+        Notification missed = notification(userId, 1);
+        Notification committedDuringReconnect = notification(userId, 2);
+        Notification later = notification(userId, 3);
+        Notification latest = notification(userId, 4);
+
+        CountDownLatch replayStarted = new CountDownLatch(1);
+        CountDownLatch replayMayFinish = new CountDownLatch(1);
+        when(domainService.getNotificationsAfter(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            replayStarted.countDown();
+            replayMayFinish.await(5, TimeUnit.SECONDS);
+            return List.of(missed, committedDuringReconnect);
+        });
+
+        hub.open(userId, position(seen));
+        assertThat(replayStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // held back while the replay runs, and published out of position order
+        publish(latest);
+        publish(committedDuringReconnect);
+        publish(later);
+        replayMayFinish.countDown();
+
+        RecordingEmitter emitter = emitters.get(0);
+        await(() -> emitter.events().size() >= 5);
+        assertThat(emitter.notificationIds())
+                .containsExactly(missed.getId(), committedDuringReconnect.getId(), later.getId(), latest.getId());
+        assertThat(emitter.events().get(4).name()).isEqualTo("unread-count");
+    }
+
+    @Test
+    void aLateLiveEventForAReplayedNotificationIsNotSentTwice() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Notification missed = notification(userId, 1);
+        when(domainService.getNotificationsAfter(any(), any(), any(), anyInt())).thenReturn(List.of(missed));
+
+        hub.open(userId, position(notification(userId, 0)));
+        RecordingEmitter emitter = emitters.get(0);
+        await(() -> emitter.events().size() >= 2);
+        publish(missed);
+        Notification next = notification(userId, 2);
+        publish(next);
+
+        await(() -> emitter.notificationIds().contains(next.getId()));
+        assertThat(emitter.notificationIds()).containsExactly(missed.getId(), next.getId());
+    }
+
+    @Test
+    void unreadCountsStayInOrderWithTheirNotifications() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AtomicLong unread = new AtomicLong();
+        when(domainService.getUnreadNotificationCount(userId)).thenAnswer(invocation -> unread.get());
+
+        hub.open(userId, null);
+        RecordingEmitter emitter = emitters.get(0);
+        await(() -> emitter.events().size() >= 1);
+        for (int i = 0; i < 50; i++) {
+            unread.incrementAndGet();
+            publish(notification(userId, i));
+            hub.onUnreadCountChanged(new UnreadCountChangedEvent(userId));
+        }
+
+        await(() -> emitter.events().size() >= 101);
+        List<Long> counts = emitter.unreadCounts();
+        assertThat(counts).hasSize(51).isSorted();
+        assertThat(counts.get(50)).isEqualTo(50);
+    }
+
+    @Test
+    void manyConcurrentStreamsEachSeeEveryNotificationOnceAndInOrder() throws Exception {
+        int users = 200;
+        int streamsPerUser = 5;
+        int perUser = 20;
+        List<UUID> userIds = new ArrayList<>();
+        Map<UUID, List<Notification>> missedByUser = new ConcurrentHashMap<>();
+        for (int u = 0; u < users; u++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            missedByUser.put(userId, List.of(notification(userId, -2), notification(userId, -1)));
+        }
+        when(domainService.getNotificationsAfter(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            // a slow replay, so live notifications arrive while it runs
+            Thread.sleep(5);
+            return missedByUser.get(invocation.<UUID>getArgument(0));
+        });
+
+        Map<RecordingEmitter, Boolean> resuming = new ConcurrentHashMap<>();
+        for (UUID userId : userIds) {
+            for (int s = 0; s < streamsPerUser; s++) {
+                boolean resume = s % 2 == 0;
+                RecordingEmitter emitter = (RecordingEmitter) hub.open(userId,
+                        resume ? position(notification(userId, -3)) : null);
+                resuming.put(emitter, resume);
+            }
+        }
+        assertThat(hub.getOpenStreams()).isEqualTo(users * streamsPerUser);
+
+        ExecutorService publishers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> published = new ArrayList<>();
+            for (UUID userId : userIds) {
+                published.add(publishers.submit(() -> {
+                    for (int i = 0; i < perUser; i++) {
+                        publish(notification(userId, i));
+                        hub.onUnreadCountChanged(new UnreadCountChangedEvent(userId));
+                    }
+                }));
+            }
+            for (Future<?> future : published)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            publishers.shutdownNow();
+        }
+
+        // one unread count on open and one per notification
+        await(() -> resuming.entrySet().stream().allMatch(entry ->
+                entry.getKey().events().size() >= perUser + (entry.getValue() ? 2 : 0) + perUser + 1));
+
+        for (Map.Entry<RecordingEmitter, Boolean> entry : resuming.entrySet()) {
+            List<Event> notifications = entry.getKey().events().stream().filter(e -> "notification".equals(e.name())).toList();
+            assertThat(notifications).hasSize(perUser + (entry.getValue() ? 2 : 0));
+            List<KeysetCursor> positions = notifications.stream().map(e -> KeysetCursor.decode(e.id())).toList();
+            assertThat(positions).isSortedAccordingTo(KeysetCursor::compareTo).doesNotHaveDuplicates();
+        }
+        assertThat(hub.getFailed()).isZero();
+        assertThat(hub.getOverflowed()).isZero();
+    }
+
+    @Test
+    void closesAStreamThatFallsTooFarBehind() throws Exception {
+        UUID userId = UUID.randomUUID();
+        CountDownLatch stuck = new CountDownLatch(1);
+        when(domainService.getUnreadNotificationCount(userId)).thenAnswer(invocation -> {
+            stuck.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+
+        hub.open(userId, null);
+        for (int i = 0; i < 300; i++)
+            publish(notification(userId, i));
+        stuck.countDown();
+
+        assertThat(hub.getOverflowed()).isEqualTo(1);
+        assertThat(hub.getOpenStreams()).isZero();
+        assertThat(emitters.get(0).completed).isTrue();
+    }
+
+    private void publish(Notification notification) {
+        hub.onNotificationCreated(new NotificationCreatedEvent(notification));
+    }
+
+    private static Notification notification(UUID userId, int second) {
+        Notification notification = Notification.builder()
+                .userId(userId)
+                .code(NotificationCode.SESSION_CREATED)
+                .type("SESSION")
+                .build();
+        ReflectionTestUtils.setField(notification, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(notification, "createdAt", BASE.plusSeconds(second));
+        return notification;
+    }
+
+    private static String position(Notification notification) {
+        return new KeysetCursor(notification.getCreatedAt(), notification.getId()).encode();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for stream events").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private record Event(String name, String id, Object data) {}
+
+    /**
+     * Records what would be written to the client instead of writing it.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                // the event's own fields are text; the payloads here are DTOs
+                if (part.getData() instanceof String string)
+                    text.append(string);
+                else
+                    data = part.getData();
+            }
+
+            String name = null;
+            String id = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("event:"))
+                    name = line.substring("event:".length());
+                else if (line.startsWith("id:"))
+                    id = line.substring("id:".length());
+            }
+            events.add(new Event(name, id, data));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Event> events() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+
+        List<UUID> notificationIds() {
+            return events().stream()
+                    .filter(e -> "notification".equals(e.name()))
+                    .map(e -> ((NotificationDTO) e.data()).getId())
+                    .toList();
+        }
+
+        List<Long> unreadCounts() {
+            return events().stream()
+                    .filter(e -> "unread-count".equals(e.name()))
+                    .map(e -> ((UnreadCountDTO) e.data()).getCount())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.authkit.backend.infrastructure.repository.notification;
+
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.model.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Storing one broadcast chunk on an embedded H2 database: the multi-row inserts of
+ * {@link NotificationRepositoryImpl#insertForUsers} against one INSERT per notification,
+ * which is what saving each entity through JPA sends without JDBC batching. Both run in a
+ * single transaction, as a chunk does.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.infrastructure.repository.notification.BroadcastInsertBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastInsertBenchmark {
+
+    private static final Map<String, Object> PARAMS = Map.of("device", "phone");
+
+    @Param({"500", "5000"})
+    public int recipients;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private NotificationRepositoryImpl repository;
+    private List<UUID> userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:broadcast-insert;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS notifications");
+        jdbcTemplate.execute("CREATE TABLE notifications (id BINARY(16) PRIMARY KEY, user_id CHAR(36) NOT NULL, "
+                + "code VARCHAR(255) NOT NULL, params VARCHAR(1024), type VARCHAR(255), read_status BOOLEAN NOT NULL, "
+                + "created_at TIMESTAMP(6) NOT NULL)");
+        repository = new NotificationRepositoryImpl(mock(JpaNotificationRepository.class), jdbcTemplate, new ObjectMapper());
+
+        userIds = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++)
+            userIds.add(UUID.randomUUID());
+    }
+
+    // keeps the table, and with it the index depth, the same for every iteration
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE notifications");
+    }
+
+    @Benchmark
+    public List<Notification> multiRowInserts() {
+        return transactionTemplate.execute(status ->
+                repository.insertForUsers(userIds, NotificationCode.SESSION_CREATED, PARAMS, "SESSION"));
+    }
+
+    @Benchmark
+    public int insertPerRow() {
+        return transactionTemplate.execute(status -> {
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+            int rows = 0;
+            for (UUID userId : userIds) {
+                rows += jdbcTemplate.update("INSERT INTO notifications (id, user_id, code, params, type, read_status, created_at) "
+                                + "VALUES (?, ?, ?, ?, ?, false, ?)",
+                        toBytes(UUID.randomUUID()), userId.toString(), NotificationCode.SESSION_CREATED.name(),
+                        "{\"device\":\"phone\"}", "SESSION", createdAt);
+            }
+            return rows;
+        });
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BroadcastInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.authkit.backend.infrastructure.repository.notification;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcNotificationCounterRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcNotificationCounterRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:notification-counters;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS notifications");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS notification_unread_counters");
+        jdbcTemplate.execute("CREATE TABLE notifications (id INT AUTO_INCREMENT PRIMARY KEY, "
+                + "user_id CHAR(36) NOT NULL, read_status BOOLEAN NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE notification_unread_counters (user_id CHAR(36) NOT NULL PRIMARY KEY, "
+                + "unread BIGINT NOT NULL)");
+        repository = new JdbcNotificationCounterRepository(jdbcTemplate);
+    }
+
+    @Test
+    void createsAMissingCounterFromTheNotificationsIncludingTheChange() {
+        UUID userId = UUID.randomUUID();
+        notify(userId, 3);
+
+        // the writer has already stored its notification when it adjusts the counter
+        repository.add(userId, 1);
+
+        assertThat(repository.findUnread(userId)).isEqualTo(OptionalLong.of(3));
+    }
+
+    @Test
+    void addsToAnExistingCounter() {
+        UUID userId = UUID.randomUUID();
+        repository.initialize(userId, 5);
+
+        repository.add(userId, 2);
+        repository.add(userId, -10);
+
+        assertThat(repository.findUnread(userId)).isEqualTo(OptionalLong.of(0));
+    }
+
+    @Test
+    void aReaderInitializingAfterTheWriterDoesNotOverwriteIt() {
+        UUID userId = UUID.randomUUID();
+        notify(userId, 2);
+        repository.add(userId, 1);
+
+        // counted before the writer's notification was visible
+        repository.initialize(userId, 1);
+
+        assertThat(repository.findUnread(userId)).isEqualTo(OptionalLong.of(2));
+    }
+
+    @Test
+    void createsOnlyTheMissingCountersOfABatch() {
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID empty = UUID.randomUUID();
+        repository.initialize(existing, 4);
+        notify(existing, 1);
+        notify(missing, 2);
+
+        repository.addAll(List.of(existing, missing, empty), 1);
+
+        assertThat(repository.findUnread(existing)).isEqualTo(OptionalLong.of(5));
+        assertThat(repository.findUnread(missing)).isEqualTo(OptionalLong.of(2));
+        // nothing to count yet, so it is left for the next read
+        assertThat(repository.findUnread(empty)).isEmpty();
+    }
+
+    private void notify(UUID userId, int unread) {
+        for (int i = 0; i < unread; i++)
+            jdbcTemplate.update("INSERT INTO notifications (user_id, read_status) VALUES (?, false)", userId.toString());
+    }
+}
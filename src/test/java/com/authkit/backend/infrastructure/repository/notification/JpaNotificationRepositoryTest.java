@@ -0,0 +1,120 @@
+package com.authkit.backend.infrastructure.repository.notification;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jpa-notifications;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class JpaNotificationRepositoryTest {
+
+    private static final int INBOX_SIZE = 10_000;
+
+    @Autowired
+    private JpaNotificationRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID owner = UUID.randomUUID();
+    private final UUID stranger = UUID.randomUUID();
+    private UUID unread;
+    private UUID read;
+
+    @BeforeEach
+    void setUp() {
+        // a large inbox, so a lookup that scanned it would be visible in the plan
+        List<Object[]> rows = new ArrayList<>(INBOX_SIZE);
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < INBOX_SIZE; i++)
+            rows.add(new Object[]{UUID.randomUUID(), owner.toString(), i % 2 == 0, Timestamp.valueOf(createdAt.plusSeconds(i))});
+        unread = (UUID) rows.get(INBOX_SIZE - 1)[0];
+        read = (UUID) rows.get(INBOX_SIZE - 2)[0];
+        jdbcTemplate.batchUpdate("INSERT INTO notifications (id, user_id, code, type, read_status, created_at) "
+                + "VALUES (?, ?, 'SESSION_CREATED', 'SESSION', ?, ?)", rows);
+    }
+
+    @Test
+    void marksAnUnreadNotificationOfItsOwnerOnce() {
+        assertThat(repository.markAsReadByIdAndUserId(unread, owner)).isEqualTo(1);
+        assertThat(repository.markAsReadByIdAndUserId(unread, owner)).isZero();
+        assertThat(readStatus(unread)).isTrue();
+    }
+
+    @Test
+    void doesNotMarkAnotherUsersNotification() {
+        assertThat(repository.markAsReadByIdAndUserId(unread, stranger)).isZero();
+        assertThat(readStatus(unread)).isFalse();
+        assertThat(repository.existsByIdAndUserId(unread, stranger)).isFalse();
+    }
+
+    @Test
+    void marksNothingForAnUnknownId() {
+        UUID missing = UUID.randomUUID();
+
+        assertThat(repository.markAsReadByIdAndUserId(missing, owner)).isZero();
+        assertThat(repository.existsByIdAndUserId(missing, owner)).isFalse();
+    }
+
+    @Test
+    void deletesOnlyWhenTheReadStatusMatches() {
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(read, owner, false)).isZero();
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(read, owner, true)).isEqualTo(1);
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(unread, owner, false)).isEqualTo(1);
+        assertThat(count()).isEqualTo(INBOX_SIZE - 2);
+    }
+
+    @Test
+    void doesNotDeleteAnotherUsersNotification() {
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(unread, stranger, false)).isZero();
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(read, stranger, true)).isZero();
+        assertThat(count()).isEqualTo(INBOX_SIZE);
+    }
+
+    @Test
+    void deletesNothingForAnUnknownId() {
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(UUID.randomUUID(), owner, false)).isZero();
+        assertThat(repository.deleteByIdAndUserIdAndReadStatus(UUID.randomUUID(), owner, true)).isZero();
+        assertThat(count()).isEqualTo(INBOX_SIZE);
+    }
+
+    @Test
+    void singleNotificationStatementsGoThroughThePrimaryKey() {
+        // the statements the two @Query methods translate to; a primary-key lookup costs the
+        // same whatever the size of the inbox
+        String update = plan("EXPLAIN UPDATE notifications SET read_status = TRUE "
+                + "WHERE id = ? AND user_id = ? AND read_status = FALSE", unread, owner.toString());
+        String delete = plan("EXPLAIN DELETE FROM notifications WHERE id = ? AND user_id = ? AND read_status = ?",
+                unread, owner.toString(), false);
+
+        assertThat(update).contains("PRIMARY_KEY");
+        assertThat(delete).contains("PRIMARY_KEY");
+    }
+
+    private String plan(String explain, Object... args) {
+        return jdbcTemplate.queryForObject(explain, String.class, args);
+    }
+
+    private Boolean readStatus(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT read_status FROM notifications WHERE id = ?", Boolean.class, id);
+    }
+
+    private Long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class);
+    }
+}
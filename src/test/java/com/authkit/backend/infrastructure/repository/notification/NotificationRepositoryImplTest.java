@@ -0,0 +1,81 @@
+package com.authkit.backend.infrastructure.repository.notification;
+
+import com.authkit.backend.domain.enums.NotificationCode;
+import com.authkit.backend.domain.model.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NotificationRepositoryImplTest {
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+    private NotificationRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:notifications;MODE=MySQL;DB_CLOSE_DELAY=-1")) {
+            @Override
+            public int update(String sql, PreparedStatementSetter pss) {
+                statements.incrementAndGet();
+                return super.update(sql, pss);
+            }
+        };
+        jdbcTemplate.execute("DROP TABLE IF EXISTS notifications");
+        jdbcTemplate.execute("CREATE TABLE notifications (id BINARY(16) PRIMARY KEY, user_id CHAR(36) NOT NULL, "
+                + "code VARCHAR(255) NOT NULL, params VARCHAR(1024), type VARCHAR(255), read_status BOOLEAN NOT NULL, "
+                + "created_at TIMESTAMP(6) NOT NULL)");
+        repository = new NotificationRepositoryImpl(mock(JpaNotificationRepository.class), jdbcTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void insertsInMultiRowStatementsAndReturnsWhatItStored() {
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 1_201; i++)
+            userIds.add(UUID.randomUUID());
+
+        List<Notification> stored = repository.insertForUsers(userIds, NotificationCode.SESSION_CREATED,
+                Map.of("device", "phone"), "SESSION");
+
+        assertThat(statements.get()).isEqualTo(3);
+        assertThat(stored).extracting(Notification::getUserId).containsExactlyElementsOf(userIds);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications WHERE read_status = false", Long.class))
+                .isEqualTo(1_201);
+
+        Notification last = stored.get(stored.size() - 1);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT user_id, params, created_at FROM notifications WHERE id = ?", toBytes(last.getId()));
+        assertThat(row.get("USER_ID")).isEqualTo(last.getUserId().toString());
+        assertThat((String) row.get("PARAMS")).contains("phone");
+        // the returned position is the stored one, so streams and cursors agree with the table
+        assertThat(((Timestamp) row.get("CREATED_AT")).toLocalDateTime()).isEqualTo(last.getCreatedAt());
+    }
+
+    @Test
+    void storesNothingForNoRecipients() {
+        assertThat(repository.insertForUsers(List.of(), NotificationCode.SESSION_CREATED, Map.of(), "SESSION")).isEmpty();
+        assertThat(statements.get()).isZero();
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
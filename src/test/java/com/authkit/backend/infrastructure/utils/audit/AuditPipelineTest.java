@@ -0,0 +1,118 @@
+package com.authkit.backend.infrastructure.utils.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditPipelineTest {
+
+    @Test
+    void dropsWhenTheBufferIsFull() {
+        CountingJdbcTemplate jdbc = new CountingJdbcTemplate();
+        // the writer is not started, so nothing drains the buffer
+        AuditPipeline pipeline = new AuditPipeline(jdbc, 4, 200, 60_000, "drop", 50);
+
+        for (int i = 0; i < 4; i++)
+            assertThat(pipeline.submit(event(i))).isTrue();
+        assertThat(pipeline.submit(event(4))).isFalse();
+
+        assertThat(pipeline.getQueueDepth()).isEqualTo(4);
+        assertThat(pipeline.getEnqueued()).isEqualTo(4);
+        assertThat(pipeline.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void roundsTheBufferUpToAPowerOfTwo() {
+        AuditPipeline pipeline = new AuditPipeline(new CountingJdbcTemplate(), 5, 200, 60_000, "drop", 50);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (pipeline.submit(event(i)))
+                accepted++;
+        }
+        assertThat(accepted).isEqualTo(8);
+    }
+
+    @Test
+    void blockGivesUpAfterTheTimeout() {
+        AuditPipeline pipeline = new AuditPipeline(new CountingJdbcTemplate(), 2, 200, 60_000, "block", 20);
+        pipeline.submit(event(0));
+        pipeline.submit(event(1));
+
+        long start = System.nanoTime();
+        assertThat(pipeline.submit(event(2))).isFalse();
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(pipeline.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void blockWaitsForTheWriterToMakeRoom() throws InterruptedException {
+        CountingJdbcTemplate jdbc = new CountingJdbcTemplate();
+        AuditPipeline pipeline = new AuditPipeline(jdbc, 8, 4, 1, "block", 5_000);
+        pipeline.start();
+
+        for (int i = 0; i < 1_000; i++)
+            assertThat(pipeline.submit(event(i))).isTrue();
+        pipeline.shutdown();
+
+        assertThat(pipeline.getDropped()).isZero();
+        assertThat(jdbc.rows.get()).isEqualTo(1_000);
+        assertThat(pipeline.getWritten()).isEqualTo(1_000);
+    }
+
+    @Test
+    void dropsOnlyWhatDoesNotFitWhileTheWriterIsStuck() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingJdbcTemplate jdbc = new CountingJdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.update(sql, args);
+            }
+        };
+        AuditPipeline pipeline = new AuditPipeline(jdbc, 4, 1, 1, "drop", 50);
+        pipeline.start();
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (pipeline.submit(event(i)))
+                accepted++;
+        }
+        release.countDown();
+        pipeline.shutdown();
+
+        // every accepted event is written, the rest is counted as dropped
+        assertThat(accepted + pipeline.getDropped()).isEqualTo(100);
+        assertThat(pipeline.getDropped()).isPositive();
+        assertThat(pipeline.getWritten()).isEqualTo(accepted);
+        assertThat(jdbc.rows.get()).isEqualTo(accepted);
+    }
+
+    private static AuditEvent event(int i) {
+        return new AuditEvent("LOGIN", "USER", String.valueOf(i), null, "user" + i, null, "203.0.113.7",
+                LocalDateTime.now(), System.nanoTime());
+    }
+
+    private static class CountingJdbcTemplate extends JdbcTemplate {
+
+        final AtomicInteger rows = new AtomicInteger();
+
+        @Override
+        public int update(String sql, Object... args) {
+            int count = args.length / 8;
+            rows.addAndGet(count);
+            return count;
+        }
+    }
+}
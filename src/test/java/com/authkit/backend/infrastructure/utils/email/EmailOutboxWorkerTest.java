@@ -0,0 +1,181 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import com.authkit.backend.domain.enums.EmailOutboxStatus;
+import com.authkit.backend.domain.model.EmailOutboxMessage;
+import com.authkit.backend.domain.repository.email.EmailOutboxRepository;
+import com.authkit.backend.infrastructure.utils.EmailServiceHelper;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxWorkerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 3_000;
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final EmailServiceHelper emailServiceHelper = mock(EmailServiceHelper.class);
+    private final SmtpTransportPool transportPool = mock(SmtpTransportPool.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final EmailOutboxWorker worker = new EmailOutboxWorker(outboxRepository, emailServiceHelper, transportPool,
+            transactionTemplate, 1, 10, MAX_ATTEMPTS, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS, 60_000, 7);
+
+    private final Session session = Session.getInstance(new Properties());
+    private final Map<EmailOutboxMessage, MimeMessage> mimeMessages = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(emailServiceHelper.toMimeMessage(any())).thenAnswer(invocation ->
+                mimeMessages.computeIfAbsent(invocation.getArgument(0), message -> new MimeMessage(session)));
+        when(outboxRepository.markSent(any(), any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(outboxRepository.markFailed(any(), any(), anyString(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    @Test
+    void claimsUnderOneLeaseAndRecordsTheSendsUnderIt() {
+        EmailOutboxMessage first = message(1L, 1);
+        EmailOutboxMessage second = message(2L, 1);
+        due(first, second);
+        when(transportPool.send(any())).thenReturn(Map.of());
+
+        drain();
+
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).markSending(eq(List.of(1L, 2L)), eq(EmailOutboxStatus.SENDING), owner.capture(), any());
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), eq(EmailOutboxStatus.SENDING), eq(owner.getValue()),
+                eq(EmailOutboxStatus.SENT), any());
+        assertThat(worker.getSent()).isEqualTo(2);
+        assertThat(worker.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAFailedSendWithABackoffThatDoublesAndIsCapped() {
+        EmailOutboxMessage firstTry = message(1L, 1);
+        EmailOutboxMessage thirdTry = message(2L, 2);
+        due(firstTry, thirdTry);
+        when(transportPool.send(any())).thenThrow(new MailSendException("relay unreachable"));
+
+        LocalDateTime before = LocalDateTime.now();
+        drain();
+        LocalDateTime after = LocalDateTime.now();
+
+        // half to all of the backoff: 1 s after the first attempt, 2 s after the second
+        assertThat(retriedAt(1L)).isBetween(before.plus(Duration.ofMillis(500)), after.plus(Duration.ofMillis(1_000)));
+        assertThat(retriedAt(2L)).isBetween(before.plus(Duration.ofMillis(1_000)), after.plus(Duration.ofMillis(2_000)));
+        assertThat(worker.getRetried()).isEqualTo(2);
+        assertThat(worker.getDeadLettered()).isZero();
+        assertThat(ReflectionTestUtils.<Long>invokeMethod(worker, "backoffMillis", 20)).isLessThanOrEqualTo(MAX_BACKOFF_MS);
+    }
+
+    @Test
+    void deadLettersOnceTheAttemptsRunOut() {
+        EmailOutboxMessage lastTry = message(1L, MAX_ATTEMPTS);
+        due(lastTry);
+        when(transportPool.send(any())).thenThrow(new MailSendException("relay unreachable"));
+
+        drain();
+
+        verify(outboxRepository).markFailed(eq(1L), eq(EmailOutboxStatus.SENDING), anyString(), eq(EmailOutboxStatus.DEAD),
+                eq(lastTry.getNextAttemptAt()), eq("relay unreachable"));
+        assertThat(worker.getDeadLettered()).isEqualTo(1);
+        assertThat(worker.getRetried()).isZero();
+    }
+
+    @Test
+    void deadLettersAMessageThatCannotBeBuiltWithoutSendingIt() throws MessagingException {
+        EmailOutboxMessage broken = message(1L, 1);
+        due(broken);
+        when(emailServiceHelper.toMimeMessage(broken)).thenThrow(new MessagingException("bad address"));
+
+        drain();
+
+        verify(outboxRepository).markFailed(eq(1L), eq(EmailOutboxStatus.SENDING), anyString(), eq(EmailOutboxStatus.DEAD),
+                any(), eq("bad address"));
+        verify(transportPool, never()).send(any());
+    }
+
+    @Test
+    void leavesAMessageRequeuedMeanwhileToItsNextOwner() {
+        EmailOutboxMessage message = message(1L, 1);
+        due(message);
+        when(transportPool.send(any())).thenThrow(new MailSendException("relay unreachable"));
+        when(outboxRepository.markFailed(any(), any(), anyString(), any(), any(), any())).thenReturn(0);
+
+        drain();
+
+        assertThat(worker.getRetried()).isZero();
+        assertThat(worker.getLeasesLost()).isEqualTo(1);
+    }
+
+    @Test
+    void countsSendsRecordedAfterTheLeaseWasLost() {
+        due(message(1L, 1), message(2L, 1));
+        when(transportPool.send(any())).thenReturn(Map.of());
+        when(outboxRepository.markSent(any(), any(), anyString(), any(), any())).thenReturn(1);
+
+        drain();
+
+        assertThat(worker.getSent()).isEqualTo(2);
+        assertThat(worker.getLeasesLost()).isEqualTo(1);
+    }
+
+    private void due(EmailOutboxMessage... messages) {
+        List<Long> ids = Arrays.stream(messages).map(EmailOutboxMessage::getId).toList();
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(ids).thenReturn(List.of());
+        when(outboxRepository.findAllById(ids)).thenReturn(List.of(messages));
+    }
+
+    private LocalDateTime retriedAt(long id) {
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markFailed(eq(id), eq(EmailOutboxStatus.SENDING), anyString(), eq(EmailOutboxStatus.PENDING),
+                nextAttemptAt.capture(), eq("relay unreachable"));
+        return nextAttemptAt.getValue();
+    }
+
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(worker, "drain");
+    }
+
+    // attempts counts the claim that is being sent
+    private static EmailOutboxMessage message(long id, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage("user" + id + "@example.com", "Subject", "Body", false);
+        ReflectionTestUtils.setField(message, "id", id);
+        ReflectionTestUtils.setField(message, "attempts", attempts);
+        return message;
+    }
+}
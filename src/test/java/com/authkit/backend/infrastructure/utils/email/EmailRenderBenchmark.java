@@ -0,0 +1,154 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation per verification email: {@link EmailTemplateEngine#render} against
+ * the {@code String.format} body the email was built with before the engine. Runs with
+ * the GC profiler, so {@code gc.alloc.rate.norm} gives the bytes allocated per email.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.infrastructure.utils.email.EmailRenderBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+    private static final String NAME = "Ada Lovelace";
+    private static final String VERIFICATION_URL = "https://authkit.example.com/verify?token=3f9c2b7e-4a1d-4e8b-9c6f-2d5e8a7b1c0f";
+    private static final String VERIFICATION_CODE = "482913";
+
+    // the verification body as it was formatted before the template engine
+    private static final String LEGACY_VERIFICATION = """
+            <html>
+            <head>
+                <style>
+                    body {
+                        font-family: Arial, sans-serif;
+                        margin: 0;
+                        padding: 0;
+                        background-color: #f4f4f4;
+                    }
+                    .container {
+                        max-width: 600px;
+                        margin: 20px auto;
+                        background-color: #ffffff;
+                        border-radius: 8px;
+                        overflow: hidden;
+                        box-shadow: 0 2px 8px rgba(0, 0, 0, 0.1);
+                    }
+                    .header {
+                        background-color: #000000;
+                        color: #ffffff;
+                        padding: 16px 24px;
+                        font-size: 20px;
+                        font-weight: bold;
+                    }
+                    .content {
+                        padding: 24px;
+                        color: #333333;
+                    }
+                    h1 {
+                        color: #111111;
+                        font-size: 24px;
+                        margin-top: 0;
+                    }
+                    p {
+                        line-height: 1.6;
+                    }
+                    .button {
+                        display: inline-block;
+                        margin-top: 20px;
+                        padding: 12px 24px;
+                        background-color: #007bff;
+                        color: #ffffff;
+                        text-decoration: none;
+                        border-radius: 4px;
+                        font-weight: bold;
+                    }
+                    .code-box {
+                        background-color: #f0f0f0;
+                        border: 1px dashed #999;
+                        padding: 10px;
+                        font-size: 18px;
+                        text-align: center;
+                        margin: 16px 0;
+                        font-weight: bold;
+                    }
+                    .footer {
+                        font-size: 12px;
+                        color: #999999;
+                        text-align: center;
+                        padding: 16px;
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">AuthKit</div>
+                    <div class="content">
+                        <h1>Welcome to AuthKit, %s!</h1>
+                        <p>Thank you for registering. To complete your registration, please verify your email address by clicking the button below:</p>
+                        <p><a href="%s" class="button">Verify Email Address</a></p>
+                        <p>Or use this verification code:</p>
+                        <div class="code-box">%s</div>
+                        <p>This link will expire in 24 hours.</p>
+                        <p>If you did not create an account, please ignore this email.</p>
+                    </div>
+                    <div class="footer">© 2025 AuthKit. All rights reserved.</div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    private EmailTemplateEngine engine;
+    private Map<String, String> params;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new EmailTemplateEngine();
+        params = Map.of(
+                "name", NAME,
+                "verificationUrl", VERIFICATION_URL,
+                "verificationCode", VERIFICATION_CODE);
+    }
+
+    @Benchmark
+    public String templateEngine() {
+        return engine.render(EmailTemplates.VERIFICATION, Locale.ENGLISH, params).body();
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(LEGACY_VERIFICATION, NAME, VERIFICATION_URL, VERIFICATION_CODE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailRenderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
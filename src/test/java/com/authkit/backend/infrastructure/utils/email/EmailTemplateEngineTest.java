@@ -0,0 +1,115 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import jakarta.mail.internet.MimeUtility;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateEngineTest {
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine();
+
+    @Test
+    void escapesValuesInHtmlTemplates() {
+        EmailTemplateEngine.RenderedEmail email = engine.render(EmailTemplates.VERIFICATION, Locale.ENGLISH, Map.of(
+                "name", "<script>alert('x')</script> & \"co\"",
+                "verificationUrl", "https://example.com/verify?a=1&b=2",
+                "verificationCode", "123456"));
+
+        assertThat(email.html()).isTrue();
+        assertThat(email.body())
+                .contains("Welcome to AuthKit, &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;!")
+                .contains("href=\"https://example.com/verify?a=1&amp;b=2\"")
+                .doesNotContain("<script>");
+    }
+
+    @Test
+    void leavesValuesInTextTemplatesAsTheyAre() {
+        EmailTemplateEngine.RenderedEmail email = engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH,
+                Map.of("resetLink", "https://example.com/reset?a=1&b=<2>"));
+
+        assertThat(email.html()).isFalse();
+        assertThat(email.body()).isEqualTo("Click the link to reset your password: https://example.com/reset?a=1&b=<2>");
+        assertThat(email.subject()).isEqualTo("Password Reset");
+    }
+
+    @Test
+    void fallsBackToTheLanguageAndThenToEnglish() {
+        Map<String, String> params = Map.of("resetLink", "https://example.com/reset");
+
+        assertThat(engine.render(EmailTemplates.PASSWORD_RESET, Locale.of("pt", "BR"), params).body())
+                .startsWith("Clique no link");
+        assertThat(engine.render(EmailTemplates.PASSWORD_RESET, Locale.FRENCH, params).body())
+                .startsWith("Click the link");
+        assertThat(engine.render(EmailTemplates.PASSWORD_RESET, null, params).body())
+                .startsWith("Click the link");
+    }
+
+    @Test
+    void rejectsUnknownTemplatesAndMissingParameters() {
+        assertThatThrownBy(() -> engine.render("welcome", Locale.ENGLISH, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("resetLink");
+    }
+
+    @Test
+    void encodesEachTemplateSubjectOnce() throws Exception {
+        String encoded = engine.encodedSubject("Redefinição de senha");
+
+        assertThat(encoded).isSameAs(engine.encodedSubject("Redefinição de senha"));
+        assertThat(MimeUtility.decodeText(MimeUtility.unfold(encoded))).isEqualTo("Redefinição de senha");
+        assertThat(engine.encodedSubject("Not a template subject")).isNull();
+    }
+
+    @Test
+    void reusesTheThreadsBufferButNotAnOversizedOne() {
+        Map<String, String> params = Map.of("resetLink", "https://example.com/reset");
+        engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH, params);
+        StringBuilder buffer = buffer();
+        engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH, params);
+        assertThat(buffer()).isSameAs(buffer);
+
+        EmailTemplateEngine.RenderedEmail large = engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH,
+                Map.of("resetLink", "x".repeat(100_000)));
+        assertThat(large.body()).hasSize("Click the link to reset your password: ".length() + 100_000);
+        assertThat(buffer()).isNotSameAs(buffer);
+        assertThat(buffer().capacity()).isLessThan(100_000);
+    }
+
+    @Test
+    void rendersIndependentlyOnManyThreads() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                String link = "https://example.com/reset/" + i;
+                results.add(threads.submit(() -> engine.render(EmailTemplates.PASSWORD_RESET, Locale.ENGLISH,
+                        Map.of("resetLink", link)).body().endsWith(": " + link)));
+            }
+            for (Future<Boolean> result : results)
+                assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            threads.shutdownNow();
+        }
+        assertThat(engine.getRendered()).isEqualTo(2_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private StringBuilder buffer() {
+        ThreadLocal<StringBuilder> buffers = (ThreadLocal<StringBuilder>) ReflectionTestUtils.getField(engine, "buffers");
+        return buffers.get();
+    }
+}
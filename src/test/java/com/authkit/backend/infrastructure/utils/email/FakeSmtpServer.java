@@ -0,0 +1,190 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process SMTP server that accepts every message and delivers it nowhere, for tests and
+ * load runs of the email outbox. Port 0 picks a free port. Any credentials are accepted,
+ * STARTTLS is not offered, and {@code latencyMillis} delays every reply to imitate a slow
+ * relay. The last {@code keep} messages are kept for inspection.
+ */
+@Slf4j
+public class FakeSmtpServer {
+
+    public record ReceivedMessage(String from, List<String> recipients, String data) {}
+
+    private final int port;
+    private final long latencyMillis;
+    private final int keep;
+
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Deque<ReceivedMessage> received = new ConcurrentLinkedDeque<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder connected = new LongAdder();
+    private ServerSocket serverSocket;
+
+    public FakeSmtpServer(int port, long latencyMillis, int keep) {
+        this.port = port;
+        this.latencyMillis = latencyMillis;
+        this.keep = keep;
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::accept);
+        log.debug("Fake SMTP server listening on port {}", getPort());
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getConnections() {
+        return connected.sum();
+    }
+
+    public List<ReceivedMessage> getReceived() {
+        return new ArrayList<>(received);
+    }
+
+    public void clear() {
+        received.clear();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connected.increment();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed())
+                    log.warn("Fake SMTP server failed to accept a connection", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost fake SMTP ready");
+
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-AUTH PLAIN LOGIN\r\n250-8BITMIME\r\n250 PIPELINING");
+                    case "HELO" -> reply(out, "250 localhost");
+                    case "AUTH" -> authenticate(line, in, out);
+                    case "MAIL" -> {
+                        from = address(line);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(address(line));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        store(new ReceivedMessage(from, List.copyOf(recipients), readData(in)));
+                        recipients.clear();
+                        reply(out, "250 OK queued");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Fake SMTP connection closed: {}", e.getMessage());
+        }
+    }
+
+    private void authenticate(String line, BufferedReader in, OutputStream out) throws IOException {
+        String[] parts = line.split(" ");
+        if (parts.length > 1 && parts[1].equalsIgnoreCase("LOGIN")) {
+            reply(out, "334 VXNlcm5hbWU6");
+            in.readLine();
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else if (parts.length == 2) {
+            // PLAIN without an initial response
+            reply(out, "334 ");
+            in.readLine();
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    private String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // undo dot-stuffing
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+
+    private void store(ReceivedMessage message) {
+        accepted.increment();
+        received.addLast(message);
+        while (received.size() > keep)
+            received.pollFirst();
+    }
+
+    private void reply(OutputStream out, String response) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+}
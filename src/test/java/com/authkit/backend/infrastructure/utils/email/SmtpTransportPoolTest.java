@@ -0,0 +1,169 @@
+package com.authkit.backend.infrastructure.utils.email;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmtpTransportPoolTest {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final List<SmtpTransportPool> pools = new ArrayList<>();
+    private FakeSmtpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = start(0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pools.forEach(SmtpTransportPool::shutdown);
+        server.stop();
+    }
+
+    @Test
+    void sendsManyBatchesOverOneConnection() {
+        SmtpTransportPool pool = pool(server, 2, 100, 0);
+
+        for (int batch = 0; batch < 10; batch++)
+            assertThat(pool.send(messages(10))).isEmpty();
+
+        assertThat(server.getAccepted()).isEqualTo(100);
+        assertThat(server.getConnections()).isEqualTo(1);
+        assertThat(pool.getOpened()).isEqualTo(1);
+        assertThat(pool.getReused()).isEqualTo(9);
+        assertThat(pool.getSent()).isEqualTo(100);
+        assertThat(pool.getIdle()).isEqualTo(1);
+    }
+
+    @Test
+    void replacesAConnectionAfterItsMessageCap() {
+        SmtpTransportPool pool = pool(server, 1, 25, 0);
+
+        assertThat(pool.send(messages(100))).isEmpty();
+
+        assertThat(server.getAccepted()).isEqualTo(100);
+        assertThat(pool.getOpened()).isEqualTo(4);
+        // the last one reached the cap as well, so none is kept
+        assertThat(pool.getIdle()).isZero();
+    }
+
+    @Test
+    void concurrentSendersShareAtMostPoolSizeConnections() throws Exception {
+        SmtpTransportPool pool = pool(server, 4, 1_000, 0);
+        ExecutorService senders = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Map<MimeMessage, MailException>>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+                results.add(senders.submit(() -> pool.send(messages(5))));
+            for (Future<Map<MimeMessage, MailException>> result : results)
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            senders.shutdownNow();
+        }
+
+        assertThat(server.getAccepted()).isEqualTo(500);
+        assertThat(server.getConnections()).isLessThanOrEqualTo(4);
+        assertThat(pool.getInUse()).isZero();
+    }
+
+    @Test
+    void reusedConnectionsOutpaceAConnectionPerMessageOnASlowRelay() throws IOException {
+        FakeSmtpServer slow = start(5);
+        try {
+            long perMessage = timeToSend(pool(slow, 1, 1, 0), 20);
+            long pooled = timeToSend(pool(slow, 1, 1_000, 0), 20);
+
+            // a new connection costs the greeting, EHLO and QUIT round trips on top of the send
+            assertThat(pooled).isLessThan(perMessage);
+            assertThat(slow.getAccepted()).isEqualTo(40);
+            assertThat(slow.getConnections()).isEqualTo(21);
+        } finally {
+            slow.stop();
+        }
+    }
+
+    @Test
+    void spacesSendsToTheRateCap() {
+        SmtpTransportPool pool = pool(server, 2, 100, 50);
+
+        long start = System.nanoTime();
+        assertThat(pool.send(messages(11))).isEmpty();
+
+        // ten intervals of 20 ms between eleven sends
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(180));
+    }
+
+    @Test
+    void failsTheWholeBatchWhenTheRelayIsUnreachable() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        SmtpTransportPool pool = new SmtpTransportPool(
+                SmtpConnectionFactory.of(session, "127.0.0.1", closedPort, null, null), 1, 100, 30_000, 0);
+        pools.add(pool);
+
+        assertThatThrownBy(() -> pool.send(messages(3))).isInstanceOf(MailSendException.class);
+        assertThat(pool.getInUse()).isZero();
+    }
+
+    private long timeToSend(SmtpTransportPool pool, int messages) {
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++)
+            assertThat(pool.send(messages(1))).isEmpty();
+        return System.nanoTime() - start;
+    }
+
+    private SmtpTransportPool pool(FakeSmtpServer relay, int poolSize, int maxMessagesPerConnection, int maxPerSecond) {
+        SmtpTransportPool pool = new SmtpTransportPool(
+                SmtpConnectionFactory.of(session, "127.0.0.1", relay.getPort(), null, null),
+                poolSize, maxMessagesPerConnection, 30_000, maxPerSecond);
+        pools.add(pool);
+        return pool;
+    }
+
+    private List<MimeMessage> messages(int count) {
+        List<MimeMessage> messages = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                MimeMessage message = new MimeMessage(session);
+                message.setFrom(new InternetAddress("noreply@example.com"));
+                message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + i + "@example.com"));
+                message.setSubject("Subject " + i);
+                message.setText("Body " + i);
+                messages.add(message);
+            }
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+        return messages;
+    }
+
+    private static FakeSmtpServer start(long latencyMillis) throws IOException {
+        FakeSmtpServer server = new FakeSmtpServer(0, latencyMillis, 1_000);
+        server.start();
+        return server;
+    }
+}
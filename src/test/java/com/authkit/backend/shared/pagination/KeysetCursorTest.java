@@ -0,0 +1,77 @@
+package com.authkit.backend.shared.pagination;
+
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final UUID ID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+    @Test
+    void roundTrips() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_000), ID);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void truncatesToTheMicrosecondsTheDatabaseKeeps() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_789), ID);
+
+        assertThat(cursor.createdAt().getNano()).isEqualTo(123_456_000);
+        assertThat(cursor).isEqualTo(new KeysetCursor(LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_000), ID));
+    }
+
+    @Test
+    void encodesAsUrlSafeTextWithoutPadding() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 10, 15, 30), ID).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decodesAMissingCursorAsNull() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNi0wMy0wMXxub3QtYS11dWlk"})
+    void rejectsCursorsItDidNotHandOut(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ApiErrorCode.INVALID_REQUEST));
+    }
+
+    @Test
+    void rejectsATamperedTimestamp() {
+        String raw = "yesterday|" + ID;
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor)).isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void ordersByTimeThenByIdText() {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 10, 0);
+        KeysetCursor low = new KeysetCursor(at, UUID.fromString("7fffffff-0000-0000-0000-000000000000"));
+        // negative as a signed long, but sorts after in the database
+        KeysetCursor high = new KeysetCursor(at, UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        KeysetCursor later = new KeysetCursor(at.plusNanos(1000), low.id());
+
+        assertThat(low).isLessThan(high);
+        assertThat(high).isLessThan(later);
+        assertThat(low.compareTo(new KeysetCursor(at, low.id()))).isZero();
+    }
+}
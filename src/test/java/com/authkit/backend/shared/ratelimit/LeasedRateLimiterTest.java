@@ -0,0 +1,164 @@
+package com.authkit.backend.shared.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedRateLimiterTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void nodesSharingAJdbcStoreNeverExceedTheCapacity() throws Exception {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        int capacity = 50;
+        LeasedRateLimiter first = new LeasedRateLimiter("login", capacity, DAY, 5, 64, jdbcStore(dataSource));
+        LeasedRateLimiter second = new LeasedRateLimiter("login", capacity, DAY, 5, 64, jdbcStore(dataSource));
+        // creates the counter row before the nodes race on it
+        int allowed = first.tryAcquire("203.0.113.7").allowed() ? 1 : 0;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            LeasedRateLimiter node = t % 2 == 0 ? first : second;
+            results.add(pool.submit(() -> {
+                start.await();
+                int spent = 0;
+                for (int i = 0; i < 50; i++) {
+                    if (node.tryAcquire("203.0.113.7").allowed())
+                        spent++;
+                }
+                return spent;
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> result : results)
+            allowed += result.get(30, TimeUnit.SECONDS);
+
+        // every token reserved from the store is spent, so the nodes together use exactly the capacity
+        assertThat(allowed).isEqualTo(capacity);
+    }
+
+    @Test
+    void smallPoliciesStillReserveSeveralTokensAtATime() {
+        CountingStore store = new CountingStore();
+        LeasedRateLimiter limiter = new LeasedRateLimiter("verify", 5, DAY, 0, 64, store);
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("user").allowed())
+                allowed++;
+        }
+
+        assertThat(allowed).isEqualTo(5);
+        // a lease of 3 then the remaining 2; once exhausted the store is not asked again
+        assertThat(store.reserveCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestsShareOneRefill() throws Exception {
+        BlockingStore store = new BlockingStore();
+        LeasedRateLimiter limiter = new LeasedRateLimiter("login", 100, DAY, 10, 64, store);
+
+        Future<RateLimitDecision> refilling = pool.submit(() -> limiter.tryAcquire("key"));
+        assertThat(store.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<RateLimitDecision> waiting = pool.submit(() -> limiter.tryAcquire("key"));
+        // the sweeper and other keys are not held up by the reservation in flight
+        CompletableFuture.runAsync(limiter::sweep, pool).get(5, TimeUnit.SECONDS);
+        assertThat(limiter.tryAcquire("other").allowed()).isTrue();
+
+        store.proceed.countDown();
+        assertThat(refilling.get(5, TimeUnit.SECONDS).allowed()).isTrue();
+        assertThat(waiting.get(5, TimeUnit.SECONDS).allowed()).isTrue();
+        // one reservation for "key" and one for "other"
+        assertThat(store.reserveCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keysPastTheLeaseCapAreChargedAgainstTheStore() {
+        CountingStore store = new CountingStore();
+        LeasedRateLimiter limiter = new LeasedRateLimiter("verify", 3, DAY, 0, 1, store);
+        assertThat(limiter.tryAcquire("leased").allowed()).isTrue();
+
+        int allowed = 0;
+        for (int i = 0; i < 5; i++) {
+            if (limiter.tryAcquire("direct").allowed())
+                allowed++;
+        }
+
+        assertThat(allowed).isEqualTo(3);
+        // one lease for "leased", then one store call per request for "direct"
+        assertThat(store.reserveCalls.get()).isEqualTo(1 + 5);
+        assertThat(limiter.tryAcquire("leased").allowed()).isTrue();
+    }
+
+    private static JdbcRateLimitCounterStore jdbcStore(DataSource dataSource) {
+        new JdbcTemplate(dataSource).execute("""
+                CREATE TABLE IF NOT EXISTS rate_limit_counters (
+                    policy VARCHAR(64) NOT NULL,
+                    window_index BIGINT NOT NULL,
+                    bucket_key CHAR(64) NOT NULL,
+                    used INT NOT NULL,
+                    PRIMARY KEY (policy, window_index, bucket_key)
+                )""");
+        return new JdbcRateLimitCounterStore(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    private static class CountingStore extends InMemoryRateLimitCounterStore {
+
+        final AtomicInteger reserveCalls = new AtomicInteger();
+
+        @Override
+        public List<Reservation> reserve(String policy, long window, int limit, List<LeaseRequest> requests) {
+            if (!requests.isEmpty())
+                reserveCalls.incrementAndGet();
+            return super.reserve(policy, window, limit, requests);
+        }
+    }
+
+    private static class BlockingStore extends CountingStore {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+
+        @Override
+        public List<Reservation> reserve(String policy, long window, int limit, List<LeaseRequest> requests) {
+            if (!requests.isEmpty() && requests.get(0).key().equals("key")) {
+                entered.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.reserve(policy, window, limit, requests);
+        }
+    }
+}
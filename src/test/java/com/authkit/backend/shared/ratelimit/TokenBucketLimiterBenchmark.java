@@ -0,0 +1,67 @@
+package com.authkit.backend.shared.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark for {@link TokenBucketLimiter} at 64 threads: every thread on one
+ * hot key, and keys spread over a table that is either roomy or saturated.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.shared.ratelimit.TokenBucketLimiterBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class TokenBucketLimiterBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int distinctKeys;
+
+    private TokenBucketLimiter limiter;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 65536 slots: roomy for 10k keys, saturated by 1M
+        limiter = new TokenBucketLimiter(100, 60_000, 65_536, 60);
+        keys = new String[distinctKeys];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = "203.0.113." + (i & 0xff) + "|user" + i + "@example.com";
+    }
+
+    @Benchmark
+    public RateLimitDecision hotKey() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public RateLimitDecision spreadKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenBucketLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.authkit.backend.shared.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    void allowsTheCapacityThenRejects() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, MINUTE, 64, 60);
+
+        assertThat(limiter.tryAcquire("a").remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("a").remaining()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("a").remaining()).isZero();
+
+        RateLimitDecision rejected = limiter.tryAcquire("a");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.limit()).isEqualTo(3);
+        assertThat(rejected.retryAfterSeconds()).isPositive().isLessThanOrEqualTo(20);
+        assertThat(rejected.resetSeconds()).isPositive().isLessThanOrEqualTo(60);
+    }
+
+    @Test
+    void keepsKeysApart() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, MINUTE, 64, 60);
+
+        assertThat(limiter.tryAcquire("a").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("a").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("b").allowed()).isTrue();
+    }
+
+    @Test
+    void refillsOverThePeriod() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 100, 64, 60);
+
+        assertThat(limiter.tryAcquire("a").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("a").allowed()).isFalse();
+        Thread.sleep(150);
+        assertThat(limiter.tryAcquire("a").allowed()).isTrue();
+    }
+
+    @Test
+    void sprayingKeysDoesNotRefillAnExhaustedKey() {
+        // 8 slots and 8 probes: every key competes for the whole table
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, MINUTE, 8, 60);
+        limiter.tryAcquire("victim");
+        limiter.tryAcquire("victim");
+        assertThat(limiter.tryAcquire("victim").allowed()).isFalse();
+
+        int allowed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire("spray-" + i).allowed())
+                allowed++;
+        }
+
+        // 7 free slots with a bucket each, then the shared overflow bucket of 2 × 8 / 8
+        assertThat(allowed).isEqualTo(7 + 2);
+        assertThat(limiter.getSaturated()).isEqualTo(100 - 7);
+        assertThat(limiter.tryAcquire("victim").allowed()).isFalse();
+    }
+
+    @Test
+    void admitsUnrelatedKeysOnceTheTableIsSaturated() {
+        // login-account style policy: 5 per minute, overflow bucket of 5 × 64 / 8
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, MINUTE, 64, 60);
+        for (int i = 0; limiter.getSaturated() == 0; i++)
+            limiter.tryAcquire("spray-" + i + "@example.com");
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAcquire("user-" + i + "@example.com").allowed())
+                allowed++;
+        }
+
+        assertThat(allowed).isEqualTo(20);
+    }
+
+    @Test
+    void reusesTheSlotOfAnIdleKey() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 100, 8, 1);
+        for (int i = 0; i < 8; i++)
+            limiter.tryAcquire("old-" + i);
+
+        Thread.sleep(150);
+        limiter.sweep();
+
+        assertThat(limiter.tryAcquire("new").allowed()).isTrue();
+        assertThat(limiter.getSaturated()).isZero();
+    }
+
+    @Test
+    void neverAllowsMoreThanTheCapacityUnderContention() throws Exception {
+        int threads = 64;
+        int capacity = 1000;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, TimeUnit.DAYS.toMillis(1), 64, 60);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> worker = () -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("shared").allowed())
+                            allowed++;
+                    }
+                    return allowed;
+                };
+                results.add(pool.submit(worker));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results)
+                allowed += result.get(10, TimeUnit.SECONDS);
+            assertThat(allowed).isEqualTo(capacity);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.repository.auth.common.SigningKeyRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of the token handling in one authenticated request. {@code parsePerCall} is the
+ * path before the request-scoped {@link VerifiedToken}: the JWT filter, the rate limiter,
+ * the controller's user lookup and the audit aspect each built a key and a parser and
+ * parsed the header again. {@code verifyOncePerRequest} is the current path, where all four
+ * read the token {@link JwtService#resolveVerifiedToken} cached on the request.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.shared.security.BearerTokenVerificationBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerTokenVerificationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final int READS_PER_REQUEST = 4;
+
+    private JwtService jwtService;
+    private String header;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SigningKeyRing ring = new SigningKeyRing(mock(SigningKeyRepository.class), SECRET,
+                Duration.ofDays(7).toMillis(), "HS256", Duration.ofDays(1), true);
+        jwtService = new JwtService(ring);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", Duration.ofMinutes(15).toMillis());
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", Duration.ofDays(7).toMillis());
+        jwtService.init();
+
+        String token = jwtService.generateToken(Map.of("userId", UUID.randomUUID().toString()),
+                User.withUsername("user@example.com").password("unused").roles("USER").build());
+        header = "Bearer " + token;
+    }
+
+    @Benchmark
+    public void parsePerCall(Blackhole blackhole) {
+        MockHttpServletRequest request = request();
+        for (int i = 0; i < READS_PER_REQUEST; i++) {
+            String token = request.getHeader("Authorization").substring(7);
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            blackhole.consume(claims.getSubject());
+        }
+    }
+
+    @Benchmark
+    public void verifyOncePerRequest(Blackhole blackhole) {
+        MockHttpServletRequest request = request();
+        for (int i = 0; i < READS_PER_REQUEST; i++)
+            blackhole.consume(jwtService.resolveVerifiedToken(request).getSubject());
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/notifications");
+        request.addHeader("Authorization", header);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BearerTokenVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.repository.auth.common.SigningKeyRepository;
+import com.authkit.backend.shared.exception.ApiErrorCode;
+import com.authkit.backend.shared.exception.ApiException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final UserDetails user = User.withUsername("user@example.com").password("unused").roles("USER").build();
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        SigningKeyRing ring = new SigningKeyRing(mock(SigningKeyRepository.class), SECRET,
+                Duration.ofDays(7).toMillis(), "HS256", Duration.ofDays(1), true);
+        jwtService = new JwtService(ring);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", Duration.ofMinutes(15).toMillis());
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", Duration.ofDays(7).toMillis());
+        jwtService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void verifiesTheBearerTokenOnlyOncePerRequest() {
+        MockHttpServletRequest request = bearer(jwtService.generateToken(user));
+
+        VerifiedToken first = jwtService.resolveVerifiedToken(request);
+        // a second parse would fail on this header; the cached result must be returned instead
+        request.removeHeader("Authorization");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+        VerifiedToken second = jwtService.resolveVerifiedToken(request);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("user@example.com");
+        assertThat(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE)).isSameAs(first);
+    }
+
+    @Test
+    void exposesTheUserIdClaim() {
+        UUID userId = UUID.randomUUID();
+        MockHttpServletRequest request = bearer(jwtService.generateToken(Map.of("userId", userId.toString()), user));
+
+        assertThat(jwtService.extractUserIdFromRequest(request)).isEqualTo(userId);
+        assertThat(jwtService.extractUsernameFromRequest(request)).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void rejectsATokenWithoutUserId() {
+        MockHttpServletRequest request = bearer(jwtService.generateToken(user));
+
+        assertThatThrownBy(() -> jwtService.extractUserIdFromRequest(request))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ApiErrorCode.INVALID_ACCESS_TOKEN));
+    }
+
+    @Test
+    void rejectsARequestWithoutBearerToken() {
+        assertThatThrownBy(() -> jwtService.resolveVerifiedToken(new MockHttpServletRequest()))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ApiErrorCode.UNAUTHENTICATED));
+    }
+
+    @Test
+    void doesNotCacheAFailedVerification() {
+        String token = jwtService.generateToken(user);
+        MockHttpServletRequest request = bearer(token.substring(0, token.length() - 2) + "xx");
+
+        assertThatThrownBy(() -> jwtService.resolveVerifiedToken(request)).isInstanceOf(JwtException.class);
+        assertThat(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        MockHttpServletRequest request = bearer(jwtService.generateToken(user));
+
+        assertThatThrownBy(() -> jwtService.resolveVerifiedToken(request)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void currentVerifiedTokenOnlyReadsWhatTheChainResolved() {
+        MockHttpServletRequest request = bearer(jwtService.generateToken(user));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(jwtService.currentVerifiedToken()).isEmpty();
+
+        VerifiedToken resolved = jwtService.resolveVerifiedToken(request);
+        assertThat(jwtService.currentVerifiedToken()).containsSame(resolved);
+    }
+
+    @Test
+    void currentVerifiedTokenIsEmptyOutsideARequest() {
+        assertThat(jwtService.currentVerifiedToken()).isEmpty();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login latency per hashing cost: the password check as {@code AuthService.login} runs it,
+ * through the bounded hashing pool, with 16 concurrent logins so queueing shows up in the
+ * percentiles. Each {@code hashing} value is {@code algorithm:cost}, the bcrypt cost or the
+ * PBKDF2 iteration count.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.shared.security.PasswordHashingBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(16)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"bcrypt:10", "bcrypt:11", "bcrypt:12", "pbkdf2:310000", "pbkdf2:600000"})
+    public String hashing;
+
+    private PasswordHashingExecutor executor;
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = hashing.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        // a queue deep enough that the benchmark measures waiting, not 503s
+        executor = new PasswordHashingExecutor(0, 1024, 60_000);
+        encoder = new SecurityConfig(null, null).passwordEncoder(executor, parts[0],
+                parts[0].equals("bcrypt") ? cost : 10, parts[0].equals("pbkdf2") ? cost : 310_000);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordHashingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,37 @@
+package com.authkit.backend.shared.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Pbkdf2IterationsPasswordEncoderTest {
+
+    @Test
+    void recordsTheIterationCount() {
+        String hash = new Pbkdf2IterationsPasswordEncoder(1000).encode("secret");
+
+        assertThat(hash).startsWith("1000$");
+        assertThat(new Pbkdf2IterationsPasswordEncoder(1000).upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void verifiesAndUpgradesHashesBelowTheTarget() {
+        String weak = new Pbkdf2IterationsPasswordEncoder(1000).encode("secret");
+        Pbkdf2IterationsPasswordEncoder target = new Pbkdf2IterationsPasswordEncoder(2000);
+
+        assertThat(target.matches("secret", weak)).isTrue();
+        assertThat(target.matches("wrong", weak)).isFalse();
+        assertThat(target.upgradeEncoding(weak)).isTrue();
+    }
+
+    @Test
+    void acceptsHashesWithoutTheCount() {
+        String legacy = new Pbkdf2PasswordEncoder("", 16, 1000,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256).encode("secret");
+        Pbkdf2IterationsPasswordEncoder encoder = new Pbkdf2IterationsPasswordEncoder(1000);
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+}
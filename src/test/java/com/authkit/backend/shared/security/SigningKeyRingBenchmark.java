@@ -0,0 +1,94 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.model.SigningKey;
+import com.authkit.backend.domain.repository.auth.common.SigningKeyRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of signing and verifying an access token with the {@link SigningKeyRing}, with the
+ * shared HS256 secret and with the rotating ES256 keys. Verification resolves the key
+ * through the ring as {@link JwtService} does.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.authkit.backend.shared.security.SigningKeyRingBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningKeyRingBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    private SigningKeyRing ring;
+    private JwtParser parser;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // an in-memory key table, enough for the ring to rotate in its first key
+        List<SigningKey> stored = new ArrayList<>();
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            stored.add(0, invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfterOrderByCreatedAtDesc(any())).thenAnswer(invocation -> List.copyOf(stored));
+
+        ring = new SigningKeyRing(repository, SECRET, Duration.ofDays(7).toMillis(), algorithm, Duration.ofDays(1), true);
+        ring.init();
+        parser = Jwts.parserBuilder().setSigningKeyResolver(ring).build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return ring.sign(Jwts.builder()
+                        .setSubject("user@example.com")
+                        .claim("userId", "3f2b1c9e-8d4a-4e6f-9b1a-2c3d4e5f6a7b")
+                        .setIssuedAt(new Date())
+                        .setExpiration(new Date(System.currentTimeMillis() + Duration.ofMinutes(15).toMillis())))
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SigningKeyRingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
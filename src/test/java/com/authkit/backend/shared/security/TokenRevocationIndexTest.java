@@ -0,0 +1,90 @@
+package com.authkit.backend.shared.security;
+
+import com.authkit.backend.domain.model.UserToken;
+import com.authkit.backend.domain.repository.auth.common.UserTokenRepository;
+import com.authkit.backend.shared.utils.HashUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationIndexTest {
+
+    private final UserTokenRepository repository = mock(UserTokenRepository.class);
+    private final Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+    @Test
+    void remembersATokenTheDatabaseDoesNotKnowUntilItExpires() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 30, 10, 10);
+        when(repository.findByAccessTokenHashAndRevokedFalse(any())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 5; i++)
+            assertThat(index.isLive("forged", expiration)).isFalse();
+
+        verify(repository, times(1)).findByAccessTokenHashAndRevokedFalse(any());
+    }
+
+    @Test
+    void asksAgainForATokenPastTheRevokedCap() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 30, 10, 2);
+        when(repository.findByAccessTokenHashAndRevokedFalse(any())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++)
+            index.isLive("token-" + i, expiration);
+        index.isLive("token-2", expiration);
+
+        assertThat(index.getRevokedEntries()).isEqualTo(2);
+        // the third token did not fit, so it is checked again, and still refused
+        verify(repository, times(2)).findByAccessTokenHashAndRevokedFalse(HashUtil.sha256("token-2"));
+    }
+
+    @Test
+    void cachesLiveTokensAndRevocationsWin() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 30, 10, 10);
+        UserToken userToken = new UserToken();
+        userToken.setAccessTokenExpiration(expiration);
+        when(repository.findByAccessTokenHashAndRevokedFalse(any())).thenReturn(Optional.of(userToken));
+
+        assertThat(index.isLive("token", expiration)).isTrue();
+        assertThat(index.isLive("token", expiration)).isTrue();
+        verify(repository, times(1)).findByAccessTokenHashAndRevokedFalse(any());
+
+        index.markRevoked(HashUtil.sha256("token"), expiration);
+        assertThat(index.isLive("token", expiration)).isFalse();
+        assertThat(index.getLiveEntries()).isZero();
+    }
+
+    @Test
+    void warmsUpPageByPageAndStopsAtTheCaps() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 30, 1500, 500);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            rows.add(new Object[]{new UUID(0, i + 1), HashUtil.sha256("token-" + i), expiration, i % 2 == 0});
+        when(repository.findAccessTokenStatesExpiringAfter(any(), any(), any())).thenAnswer(invocation -> {
+            UUID after = invocation.getArgument(1);
+            int size = invocation.<Pageable>getArgument(2).getPageSize();
+            int from = (int) after.getLeastSignificantBits();
+            return rows.subList(from, Math.min(from + size, rows.size()));
+        });
+
+        index.warmUp();
+
+        assertThat(index.getLiveEntries()).isEqualTo(1500);
+        assertThat(index.getRevokedEntries()).isEqualTo(500);
+        // three pages fill both caps; the other two are never read
+        verify(repository, times(3)).findAccessTokenStatesExpiringAfter(any(), any(), any());
+        verify(repository).findAccessTokenStatesExpiringAfter(any(), eq(new UUID(0, 0)), any());
+    }
+}